@@ -0,0 +1,148 @@
+package com.github.neshali.price_parser.cluster;
+
+import com.github.neshali.price_parser.domain.ClusterNode;
+import com.github.neshali.price_parser.domain.TaskPartitions;
+import com.github.neshali.price_parser.repository.ClusterNodeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Членство узла в кластере обработчиков (price-parser.cluster.enabled=true).
+ *
+ * Узел периодически пишет heartbeat в таблицу cluster_nodes и читает список живых узлов;
+ * и время heartbeat, и порог живости берутся по часам БД.
+ * Партиции задач ({@link TaskPartitions}) распределяются между живыми узлами
+ * консистентным хешированием, так что каждый узел берёт задачи только своих партиций
+ * и не конкурирует с остальными за одни и те же строки. При изменении состава
+ * публикуется {@link ClusterMembershipChangedEvent}.
+ *
+ * В одиночном режиме узлу принадлежат все партиции.
+ */
+@Component
+public class ClusterMembership {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterMembership.class);
+
+    private final ClusterNodeRepository clusterNodeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final String nodeId;
+    private final Duration nodeTtl;
+    private final int virtualNodes;
+
+    private volatile List<String> aliveNodes = List.of();
+    // До первого heartbeat узел не берёт задач, чтобы не пересечься с другими
+    private volatile Set<Integer> ownedPartitions = Set.of();
+
+    public ClusterMembership(
+            ClusterNodeRepository clusterNodeRepository,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${price-parser.cluster.enabled:false}") boolean enabled,
+            @Value("${price-parser.cluster.node-id:}") String nodeId,
+            @Value("${price-parser.cluster.node-ttl-ms:15000}") long nodeTtlMs,
+            @Value("${price-parser.cluster.virtual-nodes:100}") int virtualNodes
+    ) {
+        this.clusterNodeRepository = clusterNodeRepository;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.nodeId = nodeId == null || nodeId.isBlank() ? defaultNodeId() : nodeId;
+        this.nodeTtl = Duration.ofMillis(nodeTtlMs);
+        this.virtualNodes = virtualNodes;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public List<String> getAliveNodes() {
+        return aliveNodes;
+    }
+
+    /**
+     * Партиции, задачи которых берёт этот узел, или null - все (одиночный режим).
+     */
+    public Set<Integer> ownedPartitions() {
+        return enabled ? ownedPartitions : null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void join() {
+        heartbeat();
+    }
+
+    @Scheduled(fixedDelayString = "${price-parser.cluster.heartbeat-ms:5000}")
+    public void heartbeat() {
+        if (!enabled) {
+            return;
+        }
+        // Время heartbeat и живость считаются по часам БД: часы узлов могут расходиться
+        if (clusterNodeRepository.touch(nodeId) == 0) {
+            LocalDateTime now = clusterNodeRepository.databaseNow();
+            clusterNodeRepository.save(new ClusterNode(nodeId, now, now));
+        }
+
+        List<String> alive = new ArrayList<>(clusterNodeRepository.findAliveNodeIds(nodeTtl.toSeconds()));
+        if (!alive.contains(nodeId)) {
+            alive.add(nodeId);
+            Collections.sort(alive);
+        }
+        if (!alive.equals(aliveNodes)) {
+            rebalance(alive);
+        }
+
+        // Записи давно умерших узлов больше не нужны; удалять может любой узел
+        clusterNodeRepository.deleteStale(nodeTtl.multipliedBy(4).toSeconds());
+    }
+
+    private void rebalance(List<String> alive) {
+        boolean firstJoin = aliveNodes.isEmpty();
+        ConsistentHashRing ring = new ConsistentHashRing(alive, virtualNodes);
+        Set<Integer> owned = new TreeSet<>();
+        for (int partition = 0; partition < TaskPartitions.COUNT; partition++) {
+            if (nodeId.equals(ring.nodeFor("partition-" + partition))) {
+                owned.add(partition);
+            }
+        }
+        Set<Integer> ownedView = Collections.unmodifiableSet(owned);
+
+        log.info("Cluster membership changed: {} nodes {}, node {} owns {} of {} partitions",
+                alive.size(), alive, nodeId, owned.size(), TaskPartitions.COUNT);
+
+        List<String> aliveView = List.copyOf(alive);
+        // Слушатели (возврат задач ушедших узлов) отрабатывают до того, как узел начнёт брать новые партиции
+        eventPublisher.publishEvent(new ClusterMembershipChangedEvent(nodeId, aliveView, ownedView, firstJoin));
+        aliveNodes = aliveView;
+        ownedPartitions = ownedView;
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
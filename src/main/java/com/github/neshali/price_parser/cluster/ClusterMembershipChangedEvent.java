@@ -0,0 +1,18 @@
+package com.github.neshali.price_parser.cluster;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Изменился состав живых узлов кластера и, возможно, набор партиций этого узла.
+ *
+ * @param nodeId            идентификатор этого узла
+ * @param aliveNodes        живые узлы, включая этот
+ * @param ownedPartitions   партиции этого узла после перераспределения
+ * @param firstJoin         первое вступление узла после запуска
+ */
+public record ClusterMembershipChangedEvent(String nodeId,
+                                            List<String> aliveNodes,
+                                            Set<Integer> ownedPartitions,
+                                            boolean firstJoin) {
+}
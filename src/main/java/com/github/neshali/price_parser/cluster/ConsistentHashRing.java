@@ -0,0 +1,47 @@
+package com.github.neshali.price_parser.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * Кольцо консистентного хеширования.
+ *
+ * Каждый узел занимает на кольце virtualNodes точек; ключ принадлежит первому узлу
+ * по часовой стрелке от своего хеша. При добавлении или уходе узла переезжает
+ * только примерно 1/N ключей, остальные остаются на прежних узлах.
+ *
+ * Хеш (CRC32) не зависит от JVM, поэтому все узлы строят одинаковое кольцо.
+ */
+public class ConsistentHashRing {
+
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+
+    public ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+        for (String node : nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(node + "#" + i), node);
+            }
+        }
+    }
+
+    /**
+     * Узел, которому принадлежит ключ, или null для пустого кольца.
+     */
+    public String nodeFor(String key) {
+        if (ring.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> entry = ring.ceilingEntry(hash(key));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    private static long hash(String value) {
+        CRC32 crc = new CRC32();
+        crc.update(value.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+}
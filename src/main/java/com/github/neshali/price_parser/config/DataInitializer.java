@@ -6,6 +6,7 @@ import com.github.neshali.price_parser.repository.ParsingTaskRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -14,8 +15,12 @@ import java.util.List;
  * Инициализация тестовых задач парсинга при старте приложения.
  * При первом запуске добавляем несколько URL в таблицу parsing_tasks
  * со статусом NEW, чтобы было что парсить.
+ *
+ * Работает только в демо-режиме (price-parser.demo.enabled=true, по умолчанию);
+ * в профиле persistent отключён, чтобы не подмешивать демо-задачи в настоящую очередь.
  */
 @Component
+@ConditionalOnProperty(name = "price-parser.demo.enabled", havingValue = "true", matchIfMissing = true)
 public class DataInitializer implements CommandLineRunner {
 
     private static final Logger log = LoggerFactory.getLogger(DataInitializer.class);
@@ -0,0 +1,53 @@
+package com.github.neshali.price_parser.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Размер пула соединений Hikari по числу потоков, которые ходят в БД.
+ *
+ * В БД пишут только потоки стадии PERSIST; ещё несколько соединений нужны планировщику
+ * (выборка и захват задач), сверке статистики и HTTP-запросам (price-parser.db.reserved-connections).
+ * Загрузка страниц и обогащение соединений не держат, поэтому на них пул не рассчитывается.
+ *
+ * Включается только явно заданным price-parser.db.reserved-connections (его задаёт профиль
+ * persistent): в остальных профилях пул остаётся по умолчанию Hikari.
+ * Явно заданный spring.datasource.hikari.maximum-pool-size имеет приоритет.
+ * Пул реплики (см. {@link ReadWriteDataSourceConfig}) не трогаем: он обслуживает
+ * только чтение и настраивается своими свойствами.
+ */
+@Component
+public class DataSourcePoolSizer implements BeanPostProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(DataSourcePoolSizer.class);
+
+    private final Environment environment;
+
+    public DataSourcePoolSizer(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource dataSource
+                && !ReadWriteDataSourceConfig.REPLICA_DATA_SOURCE.equals(beanName)
+                && environment.containsProperty("price-parser.db.reserved-connections")
+                && !environment.containsProperty("spring.datasource.hikari.maximum-pool-size")) {
+            int persistWorkers = environment.getProperty("price-parser.pipeline.persist.workers", Integer.class, 1);
+            int reserved = environment.getRequiredProperty("price-parser.db.reserved-connections", Integer.class);
+            int poolSize = persistWorkers + reserved;
+
+            dataSource.setMaximumPoolSize(poolSize);
+            if (dataSource.getMinimumIdle() > poolSize) {
+                dataSource.setMinimumIdle(poolSize);
+            }
+            log.info("Sized connection pool '{}' to {} connections ({} persist workers + {} reserved)",
+                    beanName, poolSize, persistWorkers, reserved);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,63 @@
+package com.github.neshali.price_parser.config;
+
+import com.github.neshali.price_parser.service.DescriptionStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Перенос описаний из старой колонки products.description в product_descriptions.
+ *
+ * Нужен для БД, созданных до хранения описаний по хешу (профиль persistent, ddl-auto=update
+ * колонки не удаляет). Описания переносятся пачками, затем колонка удаляется;
+ * если колонки нет, ничего не делается.
+ */
+@Component
+public class DescriptionMigration implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DescriptionMigration.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DescriptionStore descriptionStore;
+
+    public DescriptionMigration(JdbcTemplate jdbcTemplate, DescriptionStore descriptionStore) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.descriptionStore = descriptionStore;
+    }
+
+    @Override
+    public void run(String... args) {
+        Integer columns = jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.columns "
+                        + "where upper(table_name) = 'PRODUCTS' and upper(column_name) = 'DESCRIPTION'",
+                Integer.class);
+        if (columns == null || columns == 0) {
+            return;
+        }
+
+        long migrated = 0;
+        List<Map<String, Object>> batch;
+        do {
+            batch = jdbcTemplate.queryForList(
+                    "select id, description from products "
+                            + "where description is not null and description_hash is null order by id limit " + BATCH_SIZE);
+            List<Object[]> updates = batch.stream()
+                    .map(row -> new Object[]{
+                            descriptionStore.store((String) row.get("DESCRIPTION")), row.get("ID")})
+                    .toList();
+            jdbcTemplate.batchUpdate("update products set description_hash = ? where id = ?", updates);
+            migrated += updates.size();
+        } while (batch.size() == BATCH_SIZE);
+
+        // IF EXISTS: узлы, стартующие одновременно, могут дойти до удаления оба
+        jdbcTemplate.execute("alter table products drop column if exists description");
+        log.info("Moved {} product descriptions to product_descriptions and dropped products.description", migrated);
+    }
+}
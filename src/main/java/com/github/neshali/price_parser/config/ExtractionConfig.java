@@ -0,0 +1,13 @@
+package com.github.neshali.price_parser.config;
+
+import com.github.neshali.price_parser.extraction.ExtractionProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Подключение правил извлечения цен для отдельных магазинов.
+ */
+@Configuration
+@EnableConfigurationProperties(ExtractionProperties.class)
+public class ExtractionConfig {
+}
@@ -0,0 +1,45 @@
+package com.github.neshali.price_parser.config;
+
+import com.github.neshali.price_parser.pipeline.ConcurrencyLimiter;
+import com.github.neshali.price_parser.pipeline.ParsingPipeline;
+import com.github.neshali.price_parser.service.ParsingTaskProcessingService;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Set;
+
+/**
+ * Профиль fast-startup: бины создаются лениво (spring.main.lazy-initialization=true),
+ * кроме тех, что нужны для обработки первой задачи сразу после старта.
+ *
+ * Бины с методами @Scheduled создаются заранее всегда: ленивый бин не создаётся,
+ * пока его никто не запросил, и его расписание не запускается вовсе.
+ */
+@Configuration
+@Profile("fast-startup")
+public class FastStartupConfig {
+
+    private static final Set<Class<?>> HOT_PATH = Set.of(
+            ParsingPipeline.class,
+            ConcurrencyLimiter.class,
+            ParsingTaskProcessingService.class
+    );
+
+    @Bean
+    public static LazyInitializationExcludeFilter hotPathLazyInitializationExcludeFilter() {
+        return (beanName, beanDefinition, beanType) ->
+                HOT_PATH.contains(beanType) || hasScheduledMethods(beanType);
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        return !MethodIntrospector.selectMethods(beanType,
+                (MethodIntrospector.MetadataLookup<Boolean>) method ->
+                        AnnotatedElementUtils.hasAnnotation(method, Scheduled.class) ? Boolean.TRUE : null
+        ).isEmpty();
+    }
+}
@@ -1,21 +1,53 @@
 package com.github.neshali.price_parser.config;
 
+import com.github.neshali.price_parser.pipeline.ConcurrencyLimiter;
+import com.github.neshali.price_parser.pipeline.ParsingPipeline;
+import com.github.neshali.price_parser.pipeline.ParsingStage;
+import com.github.neshali.price_parser.pipeline.PipelineStage;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-
+import java.util.List;
 
+/**
+ * Потоки обработки задач парсинга: по пулу и очереди на каждую стадию конвейера.
+ *
+ * Загрузка страниц (I/O) и сохранение в БД масштабируются независимо:
+ * price-parser.pipeline.{fetch|enrich|persist}.workers / queue-capacity.
+ * Число задач в работе на всём конвейере подстраивается под задержку и ошибки
+ * ({@link ConcurrencyLimiter}, price-parser.concurrency.*).
+ */
 @Configuration
 public class ParsingExecutorConfig {
 
-
     @Bean(destroyMethod = "shutdown")
-    public ExecutorService parsingExecutorService(
-            @Value("${price-parser.parser.pool-size:4}") int poolSize
+    public ParsingPipeline parsingPipeline(
+            @Value("${price-parser.pipeline.fetch.workers:${price-parser.parser.pool-size:4}}") int fetchWorkers,
+            @Value("${price-parser.pipeline.fetch.queue-capacity:100}") int fetchQueueCapacity,
+            @Value("${price-parser.pipeline.enrich.workers:2}") int enrichWorkers,
+            @Value("${price-parser.pipeline.enrich.queue-capacity:100}") int enrichQueueCapacity,
+            @Value("${price-parser.pipeline.persist.workers:1}") int persistWorkers,
+            @Value("${price-parser.pipeline.persist.queue-capacity:100}") int persistQueueCapacity
+    ) {
+        return new ParsingPipeline(List.of(
+                new PipelineStage(ParsingStage.FETCH, fetchWorkers, fetchQueueCapacity),
+                new PipelineStage(ParsingStage.ENRICH, enrichWorkers, enrichQueueCapacity),
+                new PipelineStage(ParsingStage.PERSIST, persistWorkers, persistQueueCapacity)
+        ));
+    }
+
+    @Bean
+    public ConcurrencyLimiter concurrencyLimiter(
+            @Value("${price-parser.concurrency.adaptive:true}") boolean adaptive,
+            @Value("${price-parser.concurrency.initial-limit:10}") int initialLimit,
+            @Value("${price-parser.concurrency.min-limit:1}") int minLimit,
+            @Value("${price-parser.concurrency.max-limit:100}") int maxLimit,
+            @Value("${price-parser.concurrency.backoff-ratio:0.75}") double backoffRatio,
+            @Value("${price-parser.concurrency.latency-tolerance:2.0}") double latencyTolerance,
+            @Value("${price-parser.concurrency.error-rate-threshold:0.5}") double errorRateThreshold
     ) {
-        return Executors.newFixedThreadPool(poolSize);
+        return new ConcurrencyLimiter(adaptive, initialLimit, minLimit, maxLimit, backoffRatio, latencyTolerance,
+                errorRateThreshold);
     }
 }
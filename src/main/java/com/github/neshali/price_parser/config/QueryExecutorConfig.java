@@ -0,0 +1,24 @@
+package com.github.neshali.price_parser.config;
+
+import com.github.neshali.price_parser.service.ProductQueryExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Пул выборок по каталогу (/products/filtered), отдельный от общего ForkJoinPool:
+ * тяжёлые запросы не отнимают ядра у остального приложения.
+ */
+@Configuration
+public class QueryExecutorConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ProductQueryExecutor productQueryExecutor(
+            @Value("${price-parser.query.parallelism:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int parallelism,
+            @Value("${price-parser.query.max-concurrent:2}") int maxConcurrent,
+            @Value("${price-parser.query.admission-timeout-ms:200}") long admissionTimeoutMs,
+            @Value("${price-parser.query.parallel-threshold:5000}") int parallelThreshold
+    ) {
+        return new ProductQueryExecutor(parallelism, maxConcurrent, admissionTimeoutMs, parallelThreshold);
+    }
+}
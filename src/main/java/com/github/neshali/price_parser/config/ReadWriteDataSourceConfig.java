@@ -0,0 +1,62 @@
+package com.github.neshali.price_parser.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Разделение чтения и записи по двум пулам соединений.
+ *
+ * Транзакции с readOnly = true (выборки каталога, find-методы репозиториев) получают
+ * соединение из пула реплики, остальные - из основного. Решение принимается
+ * LazyConnectionDataSourceProxy при первом реальном обращении к БД, когда флаг
+ * readOnly транзакции уже известен; если транзакция в БД не ходит (ответ из кэша),
+ * соединение не берётся вовсе.
+ *
+ * Включается price-parser.datasource.replica.enabled=true. Основной пул настраивается
+ * как обычно (spring.datasource.*), пул реплики - price-parser.datasource.replica.*
+ * (свойства Hikari: jdbc-url, username, password, maximum-pool-size, connection-timeout...).
+ */
+@Configuration
+@ConditionalOnProperty(name = "price-parser.datasource.replica.enabled", havingValue = "true")
+public class ReadWriteDataSourceConfig {
+
+    public static final String PRIMARY_DATA_SOURCE = "primaryDataSource";
+    public static final String REPLICA_DATA_SOURCE = "replicaDataSource";
+
+    @Bean(name = PRIMARY_DATA_SOURCE, destroyMethod = "close")
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(name = REPLICA_DATA_SOURCE, destroyMethod = "close")
+    @ConfigurationProperties("price-parser.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier(PRIMARY_DATA_SOURCE) DataSource primary,
+                                 @Qualifier(REPLICA_DATA_SOURCE) DataSource replica) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(replica);
+        return proxy;
+    }
+}
@@ -1,12 +1,19 @@
 package com.github.neshali.price_parser.config;
 
+import io.netty.channel.ChannelOption;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+
+import java.time.Duration;
 
 /**
- * Конфигурация WebClient для обращения к внешнему сервису с информацией о товарах.
+ * Конфигурация WebClient для обращения к внешнему сервису с информацией о товарах
+ * и для загрузки страниц товаров.
  */
 @Configuration
 public class WebClientConfig {
@@ -19,4 +26,25 @@ public class WebClientConfig {
                 .baseUrl(baseUrl)
                 .build();
     }
+
+    /**
+     * Клиент для страниц магазинов: сжатие ответа, редиректы и таймауты.
+     * Тело ответа не агрегируется - PageFetcher читает его потоком.
+     */
+    @Bean
+    public WebClient pageFetcherWebClient(
+            @Value("${price-parser.fetch.timeout-ms:5000}") long timeoutMs,
+            @Value("${price-parser.fetch.user-agent:price-parser/1.0}") String userAgent
+    ) {
+        HttpClient httpClient = HttpClient.create()
+                .compress(true)
+                .followRedirect(true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) Math.min(timeoutMs, Integer.MAX_VALUE))
+                .responseTimeout(Duration.ofMillis(timeoutMs));
+
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .defaultHeader(HttpHeaders.USER_AGENT, userAgent)
+                .build();
+    }
 }
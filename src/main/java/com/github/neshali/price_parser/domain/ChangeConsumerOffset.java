@@ -0,0 +1,31 @@
+package com.github.neshali.price_parser.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Смещение потребителя ленты изменений: id последнего доставленного события.
+ */
+@Entity
+@Table(name = "change_consumer_offsets")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeConsumerOffset {
+
+    @Id
+    @Column(name = "consumer", length = 64)
+    private String consumer;
+
+    @Column(name = "last_change_id", nullable = false)
+    private long lastChangeId;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,115 @@
+package com.github.neshali.price_parser.domain;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Хранимое представление описаний товаров: ключ - SHA-256 текста, значение - сжатые байты.
+ *
+ * Описания короткие (сотни байт) и почти целиком состоят из одних и тех же шаблонных фраз,
+ * поэтому Deflate работает с заранее заданным словарём из этих фраз: без него короткий текст
+ * почти не сжимается. Первый байт значения - формат: RAW (несжатый UTF-8, если сжатие
+ * не помогло) или DEFLATE_V1. Словарь DEFLATE_V1 менять нельзя - по нему читаются
+ * уже сохранённые описания; новый словарь - новый формат.
+ */
+public final class DescriptionCodec {
+
+    /**
+     * Ограничение длины описания (прежняя колонка products.description).
+     */
+    public static final int MAX_LENGTH = 4000;
+
+    static final byte RAW = 0;
+    static final byte DEFLATE_V1 = 1;
+
+    /**
+     * Частые фрагменты описаний; ближе к концу - самые частые (Deflate дешевле кодирует близкие ссылки).
+     */
+    private static final byte[] DICTIONARY_V1 = (
+            "json-ld microdata css regex by  rating=4.5 rating=3.0 currency=RUB currency=EUR currency=USD"
+                    + "Demo product parsed from https://www.example.com/product/"
+                    + "Product parsed from https://www. by json-ld"
+                    + " [external category=category-, rating=, currency=]"
+    ).getBytes(StandardCharsets.UTF_8);
+
+    private DescriptionCodec() {
+    }
+
+    /**
+     * Ключ описания: SHA-256 его UTF-8 байт, 64 hex-символа.
+     */
+    public static String hash(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public static byte[] encode(String text) {
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try {
+            deflater.setDictionary(DICTIONARY_V1);
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + 16);
+            out.write(DEFLATE_V1);
+            byte[] buffer = new byte[512];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            if (out.size() < raw.length + 1) {
+                return out.toByteArray();
+            }
+        } finally {
+            deflater.end();
+        }
+
+        byte[] stored = new byte[raw.length + 1];
+        stored[0] = RAW;
+        System.arraycopy(raw, 0, stored, 1, raw.length);
+        return stored;
+    }
+
+    public static String decode(byte[] stored) {
+        if (stored.length == 0) {
+            throw new IllegalArgumentException("Empty description content");
+        }
+        return switch (stored[0]) {
+            case RAW -> new String(stored, 1, stored.length - 1, StandardCharsets.UTF_8);
+            case DEFLATE_V1 -> inflate(stored);
+            default -> throw new IllegalArgumentException("Unknown description format " + stored[0]);
+        };
+    }
+
+    private static String inflate(byte[] stored) {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setDictionary(DICTIONARY_V1);
+            inflater.setInput(stored, 1, stored.length - 1);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(stored.length * 3);
+            byte[] buffer = new byte[1024];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalArgumentException("Truncated description content");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupted description content", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.neshali.price_parser.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * URL под регулярным мониторингом цены: раз в intervalSeconds для него создаётся задача парсинга.
+ */
+@Entity
+@Table(name = "monitored_urls", indexes = {
+        // Выборка наступивших: WHERE next_due_at <= ? ORDER BY next_due_at
+        @Index(name = "idx_monitored_urls_next_due", columnList = "next_due_at"),
+        // То же в кластерном режиме по партициям узла
+        @Index(name = "idx_monitored_urls_partition_due", columnList = "partition_no, next_due_at")
+}, uniqueConstraints = @UniqueConstraint(name = "uk_monitored_urls_url", columnNames = "target_url"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class MonitoredUrl {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "target_url", nullable = false, length = 1000)
+    private String url;
+
+    /**
+     * Период проверки в секундах.
+     */
+    @Column(name = "interval_seconds", nullable = false)
+    private long intervalSeconds;
+
+    /**
+     * Когда создать следующую задачу.
+     */
+    @Column(name = "next_due_at", nullable = false)
+    private LocalDateTime nextDueAt;
+
+    /**
+     * Когда последний раз была создана задача.
+     */
+    @Column(name = "last_scheduled_at")
+    private LocalDateTime lastScheduledAt;
+
+    /**
+     * Партиция по хосту URL, как у задач (см. {@link TaskPartitions}).
+     */
+    @Column(name = "partition_no", nullable = false)
+    private Integer partition;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    public void prePersist() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        if (partition == null) {
+            partition = TaskPartitions.of(url);
+        }
+    }
+}
@@ -10,7 +10,12 @@ import lombok.Setter;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "parsing_tasks")
+@Table(name = "parsing_tasks", indexes = {
+        // Выборка очереди: WHERE status = ? ORDER BY created_at
+        @Index(name = "idx_parsing_tasks_status_created", columnList = "status, created_at"),
+        // Выборка очереди в кластерном режиме: только партиции своего узла
+        @Index(name = "idx_parsing_tasks_partition_status", columnList = "partition_no, status, created_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -53,6 +58,26 @@ public class ParsingTask {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    /**
+     * Партиция задачи (см. {@link TaskPartitions}), вычисляется по хосту URL при создании.
+     */
+    @Column(name = "partition_no")
+    private Integer partition;
+
+    /**
+     * Узел, взявший задачу в работу (в кластерном режиме).
+     */
+    @Column(name = "owner_node", length = 128)
+    private String ownerNode;
+
+    /**
+     * Версия строки: увеличивается при каждой смене статуса,
+     * в том числе в UPDATE-запросах ParsingTaskRepository.
+     */
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     @PrePersist
     public void prePersist() {
         LocalDateTime now = LocalDateTime.now();
@@ -61,6 +86,9 @@ public class ParsingTask {
         if (this.status == null) {
             this.status = ParsingTaskStatus.NEW;
         }
+        if (this.partition == null && this.url != null) {
+            this.partition = TaskPartitions.of(this.url);
+        }
     }
 
     @PreUpdate
@@ -0,0 +1,89 @@
+package com.github.neshali.price_parser.domain;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Locale;
+
+/**
+ * Цена в фиксированной точке: целое число минимальных единиц (центов, копеек).
+ *
+ * Внутри приложения (парсинг, фильтрация, сортировка) цена хранится и сравнивается
+ * как long; BigDecimal появляется только на границе API.
+ * Методы работают с "голыми" long, чтобы горячие циклы не создавали объектов.
+ *
+ * Минимальная единица всегда 1/100 крупной, независимо от валюты: у JPY или KWD
+ * цена хранится с теми же двумя знаками, а не с их собственной точностью по ISO 4217.
+ * На этом держится и пересчёт в базовую валюту (FxRates.toBaseMinor): курс умножается
+ * на минимальные единицы напрямую, потому что масштаб у обеих валют одинаковый.
+ */
+public final class Price {
+
+    /**
+     * Количество знаков после запятой; одно для всех валют.
+     */
+    public static final int SCALE = 2;
+
+    private static final long MINOR_UNITS_PER_MAJOR = 100L;
+
+    private Price() {
+    }
+
+    /**
+     * Целое количество "крупных" единиц (например, 42 доллара) в минимальных единицах.
+     */
+    public static long minorUnitsOfMajor(long majorUnits) {
+        return Math.multiplyExact(majorUnits, MINOR_UNITS_PER_MAJOR);
+    }
+
+    /**
+     * BigDecimal в минимальные единицы; лишние знаки округляются HALF_UP.
+     */
+    public static long toMinorUnits(BigDecimal amount) {
+        return toMinorUnits(amount, RoundingMode.HALF_UP);
+    }
+
+    public static long toMinorUnits(BigDecimal amount, RoundingMode roundingMode) {
+        return amount.setScale(SCALE, roundingMode).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Помещается ли сумма в long минимальных единиц при любом округлении.
+     * Для проверки пользовательского ввода до {@link #toMinorUnits(BigDecimal, RoundingMode)},
+     * которое на таких суммах бросает ArithmeticException.
+     */
+    public static boolean fitsMinorUnits(BigDecimal amount) {
+        // Больше 19 знаков в целой части не поместятся точно, а setScale на них дорог
+        if (amount.precision() - amount.scale() > 19) {
+            return false;
+        }
+        return amount.setScale(SCALE, RoundingMode.UP).unscaledValue().bitLength() < Long.SIZE;
+    }
+
+    /**
+     * Минимальные единицы в BigDecimal для отдачи наружу; null остаётся null.
+     */
+    public static BigDecimal toDecimal(Long minorUnits) {
+        return minorUnits == null ? null : BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    /**
+     * Приводит код валюты к виду ISO 4217 (три заглавные латинские буквы)
+     * или возвращает null, если код не похож на валидный.
+     */
+    public static String normalizeCurrency(String currency) {
+        if (currency == null) {
+            return null;
+        }
+        String code = currency.trim().toUpperCase(Locale.ROOT);
+        if (code.length() != 3) {
+            return null;
+        }
+        for (int i = 0; i < code.length(); i++) {
+            char c = code.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                return null;
+            }
+        }
+        return code;
+    }
+}
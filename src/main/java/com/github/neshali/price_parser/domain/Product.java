@@ -7,11 +7,17 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        // Сортировка по умолчанию в GET /products
+        @Index(name = "idx_products_publication_date", columnList = "publication_date"),
+        // Фильтры и сортировка по цене между валютами
+        @Index(name = "idx_products_base_price_minor", columnList = "base_price_minor"),
+        // Поиск цен, посчитанных по устаревшей таблице курсов
+        @Index(name = "idx_products_fx_rates_version", columnList = "fx_rates_version")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -30,16 +36,43 @@ public class Product {
     private String name;
 
     /**
-     * Описание товара.
+     * Описание товара. В таблице products не хранится: текст лежит один раз
+     * в product_descriptions ({@link ProductDescription}), товар ссылается на него по хешу.
      */
-    @Column(length = 4000)
+    @Transient
     private String description;
 
     /**
-     * Цена товара.
+     * Хеш описания в product_descriptions или null, если описания нет.
      */
-    @Column(precision = 19, scale = 2)
-    private BigDecimal price;
+    @Column(name = "description_hash", length = 64)
+    private String descriptionHash;
+
+    /**
+     * Цена товара в минимальных единицах валюты (см. {@link Price}).
+     */
+    @Column(name = "price_minor")
+    private Long priceMinor;
+
+    /**
+     * Код валюты цены (ISO 4217), если известен.
+     */
+    @Column(length = 3)
+    private String currency;
+
+    /**
+     * Цена в минимальных единицах базовой валюты (price-parser.fx.base-currency) по текущей
+     * таблице курсов; null, если для валюты нет курса. Пересчитывается при смене курсов.
+     */
+    @Column(name = "base_price_minor")
+    private Long basePriceMinor;
+
+    /**
+     * Версия таблицы курсов ({@link com.github.neshali.price_parser.service.FxRates#version()}),
+     * по которой посчитана basePriceMinor.
+     */
+    @Column(name = "fx_rates_version", length = 16)
+    private String fxRatesVersion;
 
     /**
      * Дата/время публикации товара.
@@ -0,0 +1,77 @@
+package com.github.neshali.price_parser.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запись outbox: событие об изменении товара.
+ *
+ * Пишется в одной транзакции с товаром, поэтому событие есть тогда и только тогда,
+ * когда изменение зафиксировано. Возрастающий id служит смещением в ленте изменений.
+ */
+@Entity
+@Table(name = "product_changes", indexes = {
+        // Удаление устаревших событий
+        @Index(name = "idx_product_changes_created", columnList = "created_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class ProductChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private ProductChangeType type;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "source_url", nullable = false, length = 1000)
+    private String sourceUrl;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(name = "price_minor")
+    private Long priceMinor;
+
+    @Column(length = 3)
+    private String currency;
+
+    /**
+     * Цена в базовой валюте на момент события (см. Product.basePriceMinor).
+     */
+    @Column(name = "base_price_minor")
+    private Long basePriceMinor;
+
+    /**
+     * Прошлая цена для PRICE_CHANGED.
+     */
+    @Column(name = "previous_price_minor")
+    private Long previousPriceMinor;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public static ProductChange of(ProductChangeType type, Product product, Long previousPriceMinor) {
+        ProductChange change = new ProductChange();
+        change.setType(type);
+        change.setProductId(product.getId());
+        change.setSourceUrl(product.getSourceUrl());
+        change.setName(product.getName());
+        change.setPriceMinor(product.getPriceMinor());
+        change.setCurrency(product.getCurrency());
+        change.setBasePriceMinor(product.getBasePriceMinor());
+        change.setPreviousPriceMinor(previousPriceMinor);
+        change.setCreatedAt(LocalDateTime.now());
+        return change;
+    }
+}
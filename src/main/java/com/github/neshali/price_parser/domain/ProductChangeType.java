@@ -0,0 +1,16 @@
+package com.github.neshali.price_parser.domain;
+
+/**
+ * Тип события в ленте изменений товаров.
+ */
+public enum ProductChangeType {
+    /**
+     * Товар спарсен и сохранён.
+     */
+    CREATED,
+
+    /**
+     * Цена товара изменилась больше порога (см. PriceChangeDetector).
+     */
+    PRICE_CHANGED
+}
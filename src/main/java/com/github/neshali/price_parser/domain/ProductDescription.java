@@ -0,0 +1,51 @@
+package com.github.neshali.price_parser.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Описание товара в хранилище с адресацией по содержимому: одинаковый текст
+ * хранится один раз, товары ссылаются на него по хешу ({@link DescriptionCodec}).
+ * Строки не изменяются: другой текст - другой хеш.
+ */
+@Entity
+@Table(name = "product_descriptions")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductDescription {
+
+    @Id
+    @Column(name = "hash", length = 64)
+    private String hash;
+
+    /**
+     * Формат (первый байт) и сжатый текст.
+     */
+    @Column(name = "content", nullable = false, length = 16384)
+    private byte[] content;
+
+    /**
+     * Длина несжатого текста в символах.
+     */
+    @Column(name = "original_length", nullable = false)
+    private int originalLength;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public static ProductDescription of(String text) {
+        return new ProductDescription(DescriptionCodec.hash(text), DescriptionCodec.encode(text),
+                text.length(), LocalDateTime.now());
+    }
+
+    public String text() {
+        return DescriptionCodec.decode(content);
+    }
+}
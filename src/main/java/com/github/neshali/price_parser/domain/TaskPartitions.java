@@ -0,0 +1,53 @@
+package com.github.neshali.price_parser.domain;
+
+import java.net.URI;
+import java.util.Locale;
+
+/**
+ * Разбиение задач парсинга на партиции по хосту URL.
+ *
+ * Все страницы одного магазина попадают в одну партицию, а значит (в кластерном режиме)
+ * на один узел: его кэши экстракторов и соединения к хосту остаются "тёплыми".
+ * Число партиций фиксировано - от него зависит значение, сохранённое в БД.
+ */
+public final class TaskPartitions {
+
+    public static final int COUNT = 64;
+
+    private TaskPartitions() {
+    }
+
+    public static int of(String url) {
+        return Math.floorMod(mix(hostOf(url).hashCode()), COUNT);
+    }
+
+    /**
+     * Хост без www. в нижнем регистре; для некорректного URL - сам URL.
+     */
+    static String hostOf(String url) {
+        String host = null;
+        try {
+            host = URI.create(url.trim()).getHost();
+        } catch (IllegalArgumentException e) {
+            // некорректный URL - разбиваем по самой строке
+        }
+        if (host == null) {
+            return url;
+        }
+        host = host.toLowerCase(Locale.ROOT);
+        return host.startsWith("www.") ? host.substring(4) : host;
+    }
+
+    /**
+     * Перемешивание битов (финализатор MurmurHash3): hashCode близких строк отличается
+     * в младших битах слабо, а партиция берётся именно по ним.
+     */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
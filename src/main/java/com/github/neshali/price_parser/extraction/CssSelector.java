@@ -0,0 +1,268 @@
+package com.github.neshali.price_parser.extraction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Скомпилированный CSS-селектор для потокового разбора.
+ *
+ * Поддерживается подмножество, которого хватает для правил магазинов:
+ * {@code tag}, {@code *}, {@code .class}, {@code #id}, {@code [attr]}, {@code [attr=value]},
+ * {@code [attr~=value]}, {@code [attr*=value]}, их комбинации и потомки через пробел
+ * ({@code div.product span.price}). Суффикс {@code @attr} означает "взять значение атрибута,
+ * а не текст элемента": {@code meta[itemprop=price]@content}.
+ *
+ * Компиляция относительно дорогая, поэтому селекторы кэшируются в {@link ExtractorRegistry}.
+ */
+public final class CssSelector {
+
+    private final String expression;
+    private final List<Compound> compounds;
+    private final String valueAttribute;
+
+    private CssSelector(String expression, List<Compound> compounds, String valueAttribute) {
+        this.expression = expression;
+        this.compounds = compounds;
+        this.valueAttribute = valueAttribute;
+    }
+
+    public static CssSelector compile(String expression) {
+        String selector = expression.trim();
+        String valueAttribute = null;
+
+        int at = selector.lastIndexOf('@');
+        if (at > selector.lastIndexOf(']')) {
+            valueAttribute = selector.substring(at + 1).trim().toLowerCase(Locale.ROOT);
+            selector = selector.substring(0, at).trim();
+        }
+
+        List<Compound> compounds = new ArrayList<>();
+        for (String part : splitDescendants(selector)) {
+            compounds.add(Compound.parse(part, expression));
+        }
+        if (compounds.isEmpty()) {
+            throw new IllegalArgumentException("Empty CSS selector: '" + expression + "'");
+        }
+        return new CssSelector(expression, List.copyOf(compounds), valueAttribute);
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * Атрибут, значение которого надо взять, или null, если нужен текст элемента.
+     */
+    public String getValueAttribute() {
+        return valueAttribute;
+    }
+
+    /**
+     * Нужны ли предки для сопоставления (есть ли в селекторе потомки через пробел).
+     */
+    public boolean hasAncestors() {
+        return compounds.size() > 1;
+    }
+
+    /**
+     * Проверяет текущий элемент с учётом открытых предков (от корня к родителю).
+     */
+    public boolean matches(String name, HtmlAttributes attributes, List<Element> ancestors) {
+        if (!compounds.get(compounds.size() - 1).matches(name, attributes)) {
+            return false;
+        }
+        int next = compounds.size() - 2;
+        for (int i = ancestors.size() - 1; i >= 0 && next >= 0; i--) {
+            Element ancestor = ancestors.get(i);
+            if (compounds.get(next).matches(ancestor.name(), ancestor.attributes())) {
+                next--;
+            }
+        }
+        return next < 0;
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    /**
+     * Открытый элемент в стеке предков.
+     */
+    public record Element(String name, HtmlAttributes attributes) {
+    }
+
+    private static List<String> splitDescendants(String selector) {
+        List<String> parts = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inBrackets = false;
+        for (int i = 0; i < selector.length(); i++) {
+            char c = selector.charAt(i);
+            if (c == '[') {
+                inBrackets = true;
+            } else if (c == ']') {
+                inBrackets = false;
+            }
+            if (Character.isWhitespace(c) && !inBrackets) {
+                if (current.length() > 0) {
+                    parts.add(current.toString());
+                    current.setLength(0);
+                }
+            } else {
+                current.append(c);
+            }
+        }
+        if (current.length() > 0) {
+            parts.add(current.toString());
+        }
+        return parts;
+    }
+
+    /**
+     * Одиночный составной селектор без потомков: tag.class#id[attr=value].
+     */
+    private record Compound(String tag, String id, List<String> classes, List<AttributeCondition> conditions) {
+
+        static Compound parse(String part, String expression) {
+            String tag = null;
+            String id = null;
+            List<String> classes = new ArrayList<>();
+            List<AttributeCondition> conditions = new ArrayList<>();
+
+            int i = 0;
+            int length = part.length();
+            if (i < length && (Character.isLetter(part.charAt(i)) || part.charAt(i) == '*')) {
+                int end = scanIdentifier(part, i + 1);
+                String token = part.substring(i, end).toLowerCase(Locale.ROOT);
+                tag = "*".equals(token) ? null : token;
+                i = end;
+            }
+
+            while (i < length) {
+                char c = part.charAt(i);
+                if (c == '.' || c == '#') {
+                    int end = scanIdentifier(part, i + 1);
+                    if (end == i + 1) {
+                        throw invalid(expression);
+                    }
+                    String token = part.substring(i + 1, end);
+                    if (c == '.') {
+                        classes.add(token);
+                    } else {
+                        id = token;
+                    }
+                    i = end;
+                } else if (c == '[') {
+                    int close = part.indexOf(']', i);
+                    if (close < 0) {
+                        throw invalid(expression);
+                    }
+                    conditions.add(AttributeCondition.parse(part.substring(i + 1, close), expression));
+                    i = close + 1;
+                } else {
+                    throw invalid(expression);
+                }
+            }
+            return new Compound(tag, id, List.copyOf(classes), List.copyOf(conditions));
+        }
+
+        boolean matches(String name, HtmlAttributes attributes) {
+            if (tag != null && !tag.equals(name)) {
+                return false;
+            }
+            if (id != null && !id.equals(attributes.get("id"))) {
+                return false;
+            }
+            if (!classes.isEmpty()) {
+                String classAttribute = attributes.get("class");
+                if (classAttribute == null) {
+                    return false;
+                }
+                for (String cls : classes) {
+                    if (!containsWord(classAttribute, cls)) {
+                        return false;
+                    }
+                }
+            }
+            for (AttributeCondition condition : conditions) {
+                if (!condition.matches(attributes)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int scanIdentifier(String s, int from) {
+            int i = from;
+            while (i < s.length()) {
+                char c = s.charAt(i);
+                if (!(Character.isLetterOrDigit(c) || c == '-' || c == '_')) {
+                    break;
+                }
+                i++;
+            }
+            return i;
+        }
+    }
+
+    private record AttributeCondition(String name, char operator, String value) {
+
+        static AttributeCondition parse(String body, String expression) {
+            int eq = body.indexOf('=');
+            if (eq < 0) {
+                return new AttributeCondition(body.trim().toLowerCase(Locale.ROOT), ' ', null);
+            }
+            char operator = '=';
+            int nameEnd = eq;
+            if (eq > 0 && (body.charAt(eq - 1) == '~' || body.charAt(eq - 1) == '*')) {
+                operator = body.charAt(eq - 1);
+                nameEnd = eq - 1;
+            }
+            String name = body.substring(0, nameEnd).trim().toLowerCase(Locale.ROOT);
+            String value = body.substring(eq + 1).trim();
+            if (value.length() >= 2 && (value.charAt(0) == '"' || value.charAt(0) == '\'')
+                    && value.charAt(value.length() - 1) == value.charAt(0)) {
+                value = value.substring(1, value.length() - 1);
+            }
+            if (name.isEmpty()) {
+                throw invalid(expression);
+            }
+            return new AttributeCondition(name, operator, value);
+        }
+
+        boolean matches(HtmlAttributes attributes) {
+            String actual = attributes.get(name);
+            if (actual == null) {
+                return false;
+            }
+            return switch (operator) {
+                case '=' -> actual.equals(value);
+                case '~' -> containsWord(actual, value);
+                case '*' -> actual.contains(value);
+                default -> true;
+            };
+        }
+    }
+
+    private static boolean containsWord(String list, String word) {
+        int from = 0;
+        while (true) {
+            int index = list.indexOf(word, from);
+            if (index < 0) {
+                return false;
+            }
+            int end = index + word.length();
+            boolean startOk = index == 0 || Character.isWhitespace(list.charAt(index - 1));
+            boolean endOk = end == list.length() || Character.isWhitespace(list.charAt(end));
+            if (startOk && endOk) {
+                return true;
+            }
+            from = index + 1;
+        }
+    }
+
+    private static IllegalArgumentException invalid(String expression) {
+        return new IllegalArgumentException("Unsupported CSS selector: '" + expression + "'");
+    }
+}
@@ -0,0 +1,158 @@
+package com.github.neshali.price_parser.extraction;
+
+import com.github.neshali.price_parser.domain.Price;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Цена по CSS-селекторам из правил конкретного магазина.
+ * Для каждого селектора берётся первый подходящий элемент документа.
+ */
+public class CssSelectorPriceExtractor implements PriceExtractor {
+
+    private final String name;
+    private final CssSelector priceSelector;
+    private final CssSelector nameSelector;
+    private final CssSelector currencySelector;
+    private final String fixedCurrency;
+    private final boolean needsAncestors;
+
+    /**
+     * @param name             имя экстрактора для статистики
+     * @param priceSelector    селектор цены (обязателен)
+     * @param nameSelector     селектор названия или null
+     * @param currencySelector селектор валюты или null
+     * @param fixedCurrency    валюта магазина, если на странице её нет, или null
+     */
+    public CssSelectorPriceExtractor(String name,
+                                     CssSelector priceSelector,
+                                     CssSelector nameSelector,
+                                     CssSelector currencySelector,
+                                     String fixedCurrency) {
+        this.name = name;
+        this.priceSelector = priceSelector;
+        this.nameSelector = nameSelector;
+        this.currencySelector = currencySelector;
+        this.fixedCurrency = Price.normalizeCurrency(fixedCurrency);
+        this.needsAncestors = priceSelector.hasAncestors()
+                || (nameSelector != null && nameSelector.hasAncestors())
+                || (currencySelector != null && currencySelector.hasAncestors());
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Session open() {
+        return new CssSession();
+    }
+
+    private class CssSession implements Session {
+
+        private final ExtractedProduct result = new ExtractedProduct();
+        private final List<CssSelector.Element> ancestors = new ArrayList<>();
+
+        private final Target price = new Target(priceSelector, this::onPrice);
+        private final Target title = new Target(nameSelector, result::setName);
+        private final Target currency = new Target(currencySelector, this::onCurrency);
+
+        @Override
+        public void startElement(String element, HtmlAttributes attributes, boolean selfClosing) {
+            price.onStartElement(element, attributes, selfClosing);
+            title.onStartElement(element, attributes, selfClosing);
+            currency.onStartElement(element, attributes, selfClosing);
+
+            if (needsAncestors && !selfClosing) {
+                ancestors.add(new CssSelector.Element(element, attributes.copy()));
+            }
+        }
+
+        @Override
+        public void endElement(String element) {
+            price.onEndElement(element);
+            title.onEndElement(element);
+            currency.onEndElement(element);
+
+            if (needsAncestors) {
+                // Незакрытые потомки (<li>, <p>) снимаются вместе с родителем
+                for (int i = ancestors.size() - 1; i >= 0; i--) {
+                    if (ancestors.get(i).name().equals(element)) {
+                        ancestors.subList(i, ancestors.size()).clear();
+                        break;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void text(String text) {
+            price.capture.onText(text);
+            title.capture.onText(text);
+            currency.capture.onText(text);
+        }
+
+        @Override
+        public ExtractedProduct result() {
+            if (result.getCurrency() == null && fixedCurrency != null) {
+                result.setCurrency(fixedCurrency);
+            }
+            return result;
+        }
+
+        private void onPrice(String value) {
+            result.setPriceMinor(PriceTextParser.parseMinorUnits(value));
+            if (result.getCurrency() == null) {
+                result.setCurrency(PriceTextParser.detectCurrency(value));
+            }
+        }
+
+        private void onCurrency(String value) {
+            String detected = PriceTextParser.detectCurrency(value);
+            if (detected != null) {
+                result.setCurrency(detected);
+            }
+        }
+
+        /**
+         * Состояние поиска по одному селектору.
+         */
+        private class Target {
+
+            private final CssSelector selector;
+            private final Consumer<String> sink;
+            private final TextCapture capture = new TextCapture();
+            private boolean matched;
+
+            Target(CssSelector selector, Consumer<String> sink) {
+                this.selector = selector;
+                this.sink = sink;
+            }
+
+            void onStartElement(String element, HtmlAttributes attributes, boolean selfClosing) {
+                capture.onStartElement(element, selfClosing);
+                if (selector == null || matched || !selector.matches(element, attributes, ancestors)) {
+                    return;
+                }
+                matched = true;
+                if (selector.getValueAttribute() != null) {
+                    String attribute = attributes.get(selector.getValueAttribute());
+                    if (attribute != null && !attribute.isBlank()) {
+                        sink.accept(attribute.trim());
+                    }
+                } else if (!selfClosing) {
+                    capture.start(element);
+                }
+            }
+
+            void onEndElement(String element) {
+                if (capture.onEndElement(element) && capture.value() != null) {
+                    sink.accept(capture.value());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.github.neshali.price_parser.extraction;
+
+/**
+ * Данные о товаре, найденные на странице одним из экстракторов.
+ */
+public class ExtractedProduct {
+
+    private String name;
+    private Long priceMinor;
+    private String currency;
+    private String extractor;
+
+    public ExtractedProduct() {
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Цена в минимальных единицах (см. {@link com.github.neshali.price_parser.domain.Price}).
+     */
+    public Long getPriceMinor() {
+        return priceMinor;
+    }
+
+    public void setPriceMinor(Long priceMinor) {
+        this.priceMinor = priceMinor;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    /**
+     * Имя экстрактора, который нашёл цену.
+     */
+    public String getExtractor() {
+        return extractor;
+    }
+
+    public void setExtractor(String extractor) {
+        this.extractor = extractor;
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.neshali.price_parser.extraction;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Правила извлечения цен для отдельных магазинов.
+ *
+ * Пример (хост с точками задаётся в квадратных скобках):
+ * <pre>
+ * price-parser.extraction.sites[shop.example.net].price-selector=div.product span.price
+ * price-parser.extraction.sites[shop.example.net].name-selector=h1.title
+ * price-parser.extraction.sites[shop.example.net].currency=RUB
+ * price-parser.extraction.sites[example.org].price-regex=Цена:\\s*(?&lt;price&gt;[\\d\\s]+[.,]?\\d*)
+ * </pre>
+ * Для хостов без правил используются только JSON-LD и microdata.
+ */
+@ConfigurationProperties(prefix = "price-parser.extraction")
+public class ExtractionProperties {
+
+    private Map<String, SiteRule> sites = new LinkedHashMap<>();
+
+    public Map<String, SiteRule> getSites() {
+        return sites;
+    }
+
+    public void setSites(Map<String, SiteRule> sites) {
+        this.sites = sites;
+    }
+
+    public static class SiteRule {
+
+        private String priceSelector;
+        private String nameSelector;
+        private String currencySelector;
+        private String priceRegex;
+        private String currency;
+
+        public String getPriceSelector() {
+            return priceSelector;
+        }
+
+        public void setPriceSelector(String priceSelector) {
+            this.priceSelector = priceSelector;
+        }
+
+        public String getNameSelector() {
+            return nameSelector;
+        }
+
+        public void setNameSelector(String nameSelector) {
+            this.nameSelector = nameSelector;
+        }
+
+        public String getCurrencySelector() {
+            return currencySelector;
+        }
+
+        public void setCurrencySelector(String currencySelector) {
+            this.currencySelector = currencySelector;
+        }
+
+        public String getPriceRegex() {
+            return priceRegex;
+        }
+
+        public void setPriceRegex(String priceRegex) {
+            this.priceRegex = priceRegex;
+        }
+
+        /**
+         * Валюта магазина, если на странице она не указана.
+         */
+        public String getCurrency() {
+            return currency;
+        }
+
+        public void setCurrency(String currency) {
+            this.currency = currency;
+        }
+    }
+}
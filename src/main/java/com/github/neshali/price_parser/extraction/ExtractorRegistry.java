@@ -0,0 +1,125 @@
+package com.github.neshali.price_parser.extraction;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Реестр экстракторов: по хосту страницы выбирает цепочку правил.
+ *
+ * Сначала идут правила магазина из {@link ExtractionProperties} (CSS, regex),
+ * затем общие JSON-LD и microdata. Правила ищутся по точному хосту, затем без "www."
+ * и по родительским доменам. Скомпилированные селекторы и выражения кэшируются,
+ * цепочка для хоста вычисляется один раз.
+ */
+@Component
+public class ExtractorRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(ExtractorRegistry.class);
+
+    private static final int MAX_CACHED_HOSTS = 10_000;
+
+    private final List<PriceExtractor> defaultExtractors;
+    private final Map<String, List<PriceExtractor>> siteExtractors = new ConcurrentHashMap<>();
+    private final Map<String, List<PriceExtractor>> chainsByHost = new ConcurrentHashMap<>();
+
+    private final Map<String, CssSelector> selectorCache = new ConcurrentHashMap<>();
+    private final Map<String, Pattern> patternCache = new ConcurrentHashMap<>();
+
+    private final Map<String, ExtractorStats> stats = new ConcurrentHashMap<>();
+
+    public ExtractorRegistry(ExtractionProperties properties, ObjectMapper objectMapper) {
+        this.defaultExtractors = List.of(
+                new JsonLdPriceExtractor(objectMapper),
+                new MicrodataPriceExtractor()
+        );
+        properties.getSites().forEach(this::registerSite);
+    }
+
+    /**
+     * Цепочка экстракторов в порядке приоритета.
+     */
+    public List<PriceExtractor> extractorsFor(String host) {
+        String key = host == null ? "" : host.toLowerCase(Locale.ROOT);
+        if (chainsByHost.size() >= MAX_CACHED_HOSTS && !chainsByHost.containsKey(key)) {
+            chainsByHost.clear();
+        }
+        return chainsByHost.computeIfAbsent(key, this::resolveChain);
+    }
+
+    public ExtractorStats statsFor(String extractorName) {
+        return stats.computeIfAbsent(extractorName, ExtractorStats::new);
+    }
+
+    public Collection<ExtractorStats> getStats() {
+        return stats.values();
+    }
+
+    public CssSelector selector(String expression) {
+        return selectorCache.computeIfAbsent(expression.trim(), CssSelector::compile);
+    }
+
+    public Pattern pattern(String regex) {
+        return patternCache.computeIfAbsent(regex, Pattern::compile);
+    }
+
+    private void registerSite(String host, ExtractionProperties.SiteRule rule) {
+        String key = host.toLowerCase(Locale.ROOT);
+        List<PriceExtractor> extractors = new ArrayList<>();
+
+        if (rule.getPriceSelector() != null && !rule.getPriceSelector().isBlank()) {
+            extractors.add(new CssSelectorPriceExtractor(
+                    "css:" + key,
+                    selector(rule.getPriceSelector()),
+                    rule.getNameSelector() == null ? null : selector(rule.getNameSelector()),
+                    rule.getCurrencySelector() == null ? null : selector(rule.getCurrencySelector()),
+                    rule.getCurrency()
+            ));
+        }
+        if (rule.getPriceRegex() != null && !rule.getPriceRegex().isBlank()) {
+            extractors.add(new RegexPriceExtractor("regex:" + key, pattern(rule.getPriceRegex()), rule.getCurrency()));
+        }
+
+        if (extractors.isEmpty()) {
+            log.warn("Extraction rule for host {} has neither price-selector nor price-regex, ignoring", key);
+            return;
+        }
+        siteExtractors.put(key, List.copyOf(extractors));
+        log.info("Registered {} site extractor(s) for host {}", extractors.size(), key);
+    }
+
+    private List<PriceExtractor> resolveChain(String host) {
+        List<PriceExtractor> chain = new ArrayList<>(findSiteExtractors(host));
+        chain.addAll(defaultExtractors);
+        return List.copyOf(chain);
+    }
+
+    private List<PriceExtractor> findSiteExtractors(String host) {
+        String candidate = host.startsWith("www.") ? host.substring(4) : host;
+        List<PriceExtractor> exact = siteExtractors.get(host);
+        if (exact != null) {
+            return exact;
+        }
+        while (!candidate.isEmpty()) {
+            List<PriceExtractor> extractors = siteExtractors.get(candidate);
+            if (extractors != null) {
+                return extractors;
+            }
+            int dot = candidate.indexOf('.');
+            if (dot < 0) {
+                break;
+            }
+            candidate = candidate.substring(dot + 1);
+        }
+        return List.of();
+    }
+}
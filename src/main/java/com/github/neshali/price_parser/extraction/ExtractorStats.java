@@ -0,0 +1,57 @@
+package com.github.neshali.price_parser.extraction;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счётчики производительности одного экстрактора.
+ * Обновляются из многих потоков парсинга, поэтому на LongAdder.
+ */
+public class ExtractorStats {
+
+    private final String extractor;
+    private final LongAdder documents = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder chars = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+
+    public ExtractorStats(String extractor) {
+        this.extractor = extractor;
+    }
+
+    void record(long documentChars, long elapsedNanos, boolean hit) {
+        documents.increment();
+        chars.add(documentChars);
+        nanos.add(elapsedNanos);
+        if (hit) {
+            hits.increment();
+        }
+    }
+
+    public String getExtractor() {
+        return extractor;
+    }
+
+    public long getDocuments() {
+        return documents.sum();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getChars() {
+        return chars.sum();
+    }
+
+    public long getNanos() {
+        return nanos.sum();
+    }
+
+    /**
+     * Сколько символов HTML в секунду обрабатывает экстрактор (без учёта токенайзера).
+     */
+    public double getCharsPerSecond() {
+        long totalNanos = getNanos();
+        return totalNanos == 0 ? 0 : getChars() * 1_000_000_000.0 / totalNanos;
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.neshali.price_parser.extraction;
+
+import java.util.Arrays;
+
+/**
+ * Атрибуты текущего тега. Переиспользуется токенайзером между тегами,
+ * поэтому сохранять ссылку на объект нельзя - только нужные значения.
+ */
+public final class HtmlAttributes {
+
+    private String[] names = new String[8];
+    private String[] values = new String[8];
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public String name(int index) {
+        return names[index];
+    }
+
+    public String value(int index) {
+        return values[index];
+    }
+
+    /**
+     * Значение атрибута по имени (имена хранятся в нижнем регистре) или null.
+     */
+    public String get(String name) {
+        for (int i = 0; i < size; i++) {
+            if (names[i].equals(name)) {
+                return values[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Неизменяемая копия для случаев, когда атрибуты нужны после обработки тега.
+     */
+    public HtmlAttributes copy() {
+        HtmlAttributes copy = new HtmlAttributes();
+        copy.names = Arrays.copyOf(names, Math.max(size, 1));
+        copy.values = Arrays.copyOf(values, Math.max(size, 1));
+        copy.size = size;
+        return copy;
+    }
+
+    void add(String name, String value) {
+        // Повторный атрибут игнорируется, как и в браузере
+        if (get(name) != null) {
+            return;
+        }
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        names[size] = name;
+        values[size] = value;
+        size++;
+    }
+
+    void clear() {
+        Arrays.fill(names, 0, size, null);
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+    }
+}
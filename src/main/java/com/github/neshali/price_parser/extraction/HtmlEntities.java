@@ -0,0 +1,85 @@
+package com.github.neshali.price_parser.extraction;
+
+import java.util.Map;
+
+/**
+ * Раскодирование HTML-сущностей, которые встречаются в ценах и названиях товаров.
+ * Полная таблица HTML5 не нужна: неизвестные именованные сущности остаются как есть.
+ */
+final class HtmlEntities {
+
+    private static final Map<String, String> NAMED = Map.ofEntries(
+            Map.entry("amp", "&"),
+            Map.entry("lt", "<"),
+            Map.entry("gt", ">"),
+            Map.entry("quot", "\""),
+            Map.entry("apos", "'"),
+            Map.entry("nbsp", " "),
+            Map.entry("thinsp", " "),
+            Map.entry("euro", "€"),
+            Map.entry("pound", "£"),
+            Map.entry("yen", "¥"),
+            Map.entry("cent", "¢"),
+            Map.entry("laquo", "«"),
+            Map.entry("raquo", "»"),
+            Map.entry("ndash", "–"),
+            Map.entry("mdash", "—"),
+            Map.entry("hellip", "…")
+    );
+
+    private static final int MAX_ENTITY_LENGTH = 10;
+
+    private HtmlEntities() {
+    }
+
+    static String decode(CharSequence raw) {
+        int amp = indexOf(raw, '&', 0);
+        if (amp < 0) {
+            return raw.toString();
+        }
+
+        StringBuilder out = new StringBuilder(raw.length());
+        int i = 0;
+        while (amp >= 0) {
+            out.append(raw, i, amp);
+            int semicolon = indexOf(raw, ';', amp + 1);
+            String decoded = null;
+            if (semicolon > amp + 1 && semicolon - amp <= MAX_ENTITY_LENGTH) {
+                decoded = decodeEntity(raw.subSequence(amp + 1, semicolon).toString());
+            }
+            if (decoded != null) {
+                out.append(decoded);
+                i = semicolon + 1;
+            } else {
+                out.append('&');
+                i = amp + 1;
+            }
+            amp = indexOf(raw, '&', i);
+        }
+        out.append(raw, i, raw.length());
+        return out.toString();
+    }
+
+    private static String decodeEntity(String entity) {
+        if (entity.charAt(0) != '#') {
+            return NAMED.get(entity);
+        }
+        try {
+            int codePoint = entity.length() > 1 && (entity.charAt(1) == 'x' || entity.charAt(1) == 'X')
+                    ? Integer.parseInt(entity.substring(2), 16)
+                    : Integer.parseInt(entity.substring(1));
+            return Character.isValidCodePoint(codePoint) ? new String(Character.toChars(codePoint)) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static int indexOf(CharSequence s, char c, int from) {
+        for (int i = from; i < s.length(); i++) {
+            if (s.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
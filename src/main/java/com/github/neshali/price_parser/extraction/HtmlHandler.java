@@ -0,0 +1,27 @@
+package com.github.neshali.price_parser.extraction;
+
+/**
+ * Получатель событий потокового разбора HTML (по аналогии с SAX).
+ *
+ * Объекты, переданные в методы, действительны только на время вызова:
+ * токенайзер переиспользует их для следующих тегов.
+ */
+public interface HtmlHandler {
+
+    /**
+     * Открывающий тег. Для void-элементов (meta, img, br, ...) и тегов вида {@code <x/>}
+     * selfClosing = true, и закрывающего события не будет.
+     */
+    void startElement(String name, HtmlAttributes attributes, boolean selfClosing);
+
+    /**
+     * Закрывающий тег.
+     */
+    void endElement(String name);
+
+    /**
+     * Текст между тегами (сущности уже раскодированы, кроме содержимого script/style).
+     * Длинный текст может прийти несколькими вызовами подряд.
+     */
+    void text(String text);
+}
@@ -0,0 +1,391 @@
+package com.github.neshali.price_parser.extraction;
+
+import java.util.Set;
+
+/**
+ * Потоковый токенайзер HTML без построения DOM.
+ *
+ * Документ подаётся кусками произвольного размера через {@link #feed(CharSequence)},
+ * границы кусков могут проходить где угодно (внутри тега, атрибута, комментария).
+ * Состояние между кусками - конечный автомат и несколько ограниченных буферов,
+ * поэтому память не зависит от размера страницы.
+ *
+ * Это не полноценный парсер HTML5: неявное закрытие тегов и исправление
+ * разметки не выполняются, но для поиска цен этого достаточно.
+ */
+public final class HtmlTokenizer {
+
+    /**
+     * Элементы без закрывающего тега.
+     */
+    static final Set<String> VOID_ELEMENTS = Set.of(
+            "area", "base", "br", "col", "embed", "hr", "img", "input",
+            "link", "meta", "param", "source", "track", "wbr"
+    );
+
+    /**
+     * Элементы, содержимое которых не разбирается как разметка.
+     */
+    private static final Set<String> RAW_TEXT_ELEMENTS = Set.of("script", "style", "title", "textarea");
+
+    private static final int MAX_TEXT_CHUNK = 16 * 1024;
+    private static final int MAX_NAME_LENGTH = 64;
+    private static final int MAX_ATTRIBUTE_VALUE_LENGTH = 8 * 1024;
+
+    private enum State {
+        TEXT,
+        TAG_OPEN,
+        TAG_NAME,
+        END_TAG_OPEN,
+        END_TAG_NAME,
+        SKIP_TO_TAG_END,
+        BEFORE_ATTRIBUTE_NAME,
+        ATTRIBUTE_NAME,
+        AFTER_ATTRIBUTE_NAME,
+        BEFORE_ATTRIBUTE_VALUE,
+        ATTRIBUTE_VALUE_DOUBLE_QUOTED,
+        ATTRIBUTE_VALUE_SINGLE_QUOTED,
+        ATTRIBUTE_VALUE_UNQUOTED,
+        SELF_CLOSING,
+        MARKUP_DECLARATION,
+        COMMENT,
+        BOGUS_COMMENT,
+        RAW_TEXT
+    }
+
+    private final HtmlHandler handler;
+
+    private final StringBuilder text = new StringBuilder();
+    private final StringBuilder tagName = new StringBuilder();
+    private final StringBuilder attributeName = new StringBuilder();
+    private final StringBuilder attributeValue = new StringBuilder();
+    private final HtmlAttributes attributes = new HtmlAttributes();
+
+    private State state = State.TEXT;
+    private int dashes;
+
+    /**
+     * Имя элемента с "сырым" содержимым (script/style/...), в котором сейчас находимся.
+     */
+    private String rawTextElement;
+    private int rawTextMatch;
+
+    private boolean stopped;
+
+    public HtmlTokenizer(HtmlHandler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Останавливает разбор: оставшиеся символы текущего и следующих кусков игнорируются.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    public void feed(CharSequence chunk) {
+        int length = chunk.length();
+        for (int i = 0; i < length && !stopped; i++) {
+            consume(chunk.charAt(i));
+        }
+    }
+
+    /**
+     * Конец документа: отдаёт накопленный текст.
+     */
+    public void finish() {
+        if (!stopped && (state == State.TEXT || state == State.RAW_TEXT)) {
+            flushText();
+        }
+    }
+
+    private void consume(char c) {
+        switch (state) {
+            case TEXT -> {
+                if (c == '<') {
+                    state = State.TAG_OPEN;
+                } else {
+                    appendText(c);
+                }
+            }
+            case TAG_OPEN -> {
+                if (isAsciiLetter(c)) {
+                    flushText();
+                    tagName.setLength(0);
+                    attributes.clear();
+                    tagName.append(Character.toLowerCase(c));
+                    state = State.TAG_NAME;
+                } else if (c == '/') {
+                    state = State.END_TAG_OPEN;
+                } else if (c == '!') {
+                    flushText();
+                    dashes = 0;
+                    state = State.MARKUP_DECLARATION;
+                } else if (c == '?') {
+                    flushText();
+                    state = State.BOGUS_COMMENT;
+                } else {
+                    // Одинокий '<' - это просто текст
+                    appendText('<');
+                    state = State.TEXT;
+                    consume(c);
+                }
+            }
+            case TAG_NAME -> {
+                if (isWhitespace(c)) {
+                    state = State.BEFORE_ATTRIBUTE_NAME;
+                } else if (c == '/') {
+                    state = State.SELF_CLOSING;
+                } else if (c == '>') {
+                    emitStartTag(false);
+                } else {
+                    appendLimited(tagName, Character.toLowerCase(c), MAX_NAME_LENGTH);
+                }
+            }
+            case END_TAG_OPEN -> {
+                if (isAsciiLetter(c)) {
+                    flushText();
+                    tagName.setLength(0);
+                    tagName.append(Character.toLowerCase(c));
+                    state = State.END_TAG_NAME;
+                } else {
+                    flushText();
+                    state = c == '>' ? State.TEXT : State.BOGUS_COMMENT;
+                }
+            }
+            case END_TAG_NAME -> {
+                if (c == '>') {
+                    handler.endElement(tagName.toString());
+                    state = State.TEXT;
+                } else if (isWhitespace(c) || c == '/') {
+                    handler.endElement(tagName.toString());
+                    state = State.SKIP_TO_TAG_END;
+                } else {
+                    appendLimited(tagName, Character.toLowerCase(c), MAX_NAME_LENGTH);
+                }
+            }
+            case SKIP_TO_TAG_END, BOGUS_COMMENT -> {
+                if (c == '>') {
+                    state = State.TEXT;
+                }
+            }
+            case BEFORE_ATTRIBUTE_NAME -> {
+                if (c == '>') {
+                    emitStartTag(false);
+                } else if (c == '/') {
+                    state = State.SELF_CLOSING;
+                } else if (!isWhitespace(c)) {
+                    attributeName.setLength(0);
+                    attributeValue.setLength(0);
+                    attributeName.append(Character.toLowerCase(c));
+                    state = State.ATTRIBUTE_NAME;
+                }
+            }
+            case ATTRIBUTE_NAME -> {
+                if (c == '=') {
+                    state = State.BEFORE_ATTRIBUTE_VALUE;
+                } else if (isWhitespace(c)) {
+                    state = State.AFTER_ATTRIBUTE_NAME;
+                } else if (c == '>') {
+                    addAttribute();
+                    emitStartTag(false);
+                } else if (c == '/') {
+                    addAttribute();
+                    state = State.SELF_CLOSING;
+                } else {
+                    appendLimited(attributeName, Character.toLowerCase(c), MAX_NAME_LENGTH);
+                }
+            }
+            case AFTER_ATTRIBUTE_NAME -> {
+                if (c == '=') {
+                    state = State.BEFORE_ATTRIBUTE_VALUE;
+                } else if (c == '>') {
+                    addAttribute();
+                    emitStartTag(false);
+                } else if (c == '/') {
+                    addAttribute();
+                    state = State.SELF_CLOSING;
+                } else if (!isWhitespace(c)) {
+                    addAttribute();
+                    attributeName.setLength(0);
+                    attributeValue.setLength(0);
+                    attributeName.append(Character.toLowerCase(c));
+                    state = State.ATTRIBUTE_NAME;
+                }
+            }
+            case BEFORE_ATTRIBUTE_VALUE -> {
+                if (c == '"') {
+                    state = State.ATTRIBUTE_VALUE_DOUBLE_QUOTED;
+                } else if (c == '\'') {
+                    state = State.ATTRIBUTE_VALUE_SINGLE_QUOTED;
+                } else if (c == '>') {
+                    addAttribute();
+                    emitStartTag(false);
+                } else if (!isWhitespace(c)) {
+                    appendLimited(attributeValue, c, MAX_ATTRIBUTE_VALUE_LENGTH);
+                    state = State.ATTRIBUTE_VALUE_UNQUOTED;
+                }
+            }
+            case ATTRIBUTE_VALUE_DOUBLE_QUOTED -> {
+                if (c == '"') {
+                    addAttribute();
+                    state = State.BEFORE_ATTRIBUTE_NAME;
+                } else {
+                    appendLimited(attributeValue, c, MAX_ATTRIBUTE_VALUE_LENGTH);
+                }
+            }
+            case ATTRIBUTE_VALUE_SINGLE_QUOTED -> {
+                if (c == '\'') {
+                    addAttribute();
+                    state = State.BEFORE_ATTRIBUTE_NAME;
+                } else {
+                    appendLimited(attributeValue, c, MAX_ATTRIBUTE_VALUE_LENGTH);
+                }
+            }
+            case ATTRIBUTE_VALUE_UNQUOTED -> {
+                if (isWhitespace(c)) {
+                    addAttribute();
+                    state = State.BEFORE_ATTRIBUTE_NAME;
+                } else if (c == '>') {
+                    addAttribute();
+                    emitStartTag(false);
+                } else {
+                    appendLimited(attributeValue, c, MAX_ATTRIBUTE_VALUE_LENGTH);
+                }
+            }
+            case SELF_CLOSING -> {
+                if (c == '>') {
+                    emitStartTag(true);
+                } else if (!isWhitespace(c)) {
+                    state = State.BEFORE_ATTRIBUTE_NAME;
+                    consume(c);
+                }
+            }
+            case MARKUP_DECLARATION -> {
+                // "<!--" - комментарий, всё остальное (<!DOCTYPE ...>, <![CDATA[...) пропускаем до '>'
+                if (c == '-' && ++dashes == 2) {
+                    dashes = 0;
+                    state = State.COMMENT;
+                } else if (c != '-') {
+                    state = c == '>' ? State.TEXT : State.BOGUS_COMMENT;
+                }
+            }
+            case COMMENT -> {
+                if (c == '-') {
+                    dashes++;
+                } else if (c == '>' && dashes >= 2) {
+                    state = State.TEXT;
+                } else {
+                    dashes = 0;
+                }
+            }
+            case RAW_TEXT -> consumeRawText(c);
+        }
+    }
+
+    /**
+     * Внутри script/style ищем только "&lt;/имя" с последующим пробелом, '/' или '>'.
+     */
+    private void consumeRawText(char c) {
+        text.append(c);
+
+        int nameLength = rawTextElement.length();
+        if (rawTextMatch == nameLength + 2) {
+            if (c == '>' || c == '/' || isWhitespace(c)) {
+                // Убираем из текста "</имя" и текущий символ
+                text.setLength(text.length() - (nameLength + 3));
+                flushText();
+                String element = rawTextElement;
+                rawTextElement = null;
+                rawTextMatch = 0;
+                state = c == '>' ? State.TEXT : State.SKIP_TO_TAG_END;
+                handler.endElement(element);
+                return;
+            }
+            rawTextMatch = 0;
+        }
+
+        if (rawTextMatch == 0) {
+            rawTextMatch = c == '<' ? 1 : 0;
+        } else if (rawTextMatch == 1) {
+            rawTextMatch = c == '/' ? 2 : (c == '<' ? 1 : 0);
+        } else if (Character.toLowerCase(c) == rawTextElement.charAt(rawTextMatch - 2)) {
+            rawTextMatch++;
+        } else {
+            rawTextMatch = c == '<' ? 1 : 0;
+        }
+
+        // Нельзя резать буфер посреди возможного закрывающего тега
+        if (text.length() >= MAX_TEXT_CHUNK && rawTextMatch == 0) {
+            flushText();
+        }
+    }
+
+    private void emitStartTag(boolean selfClosing) {
+        String name = tagName.toString();
+        boolean isVoid = selfClosing || VOID_ELEMENTS.contains(name);
+        handler.startElement(name, attributes, isVoid);
+
+        if (!isVoid && RAW_TEXT_ELEMENTS.contains(name)) {
+            rawTextElement = name;
+            rawTextMatch = 0;
+            state = State.RAW_TEXT;
+        } else {
+            state = State.TEXT;
+        }
+    }
+
+    private void addAttribute() {
+        if (attributeName.length() > 0) {
+            attributes.add(attributeName.toString(), HtmlEntities.decode(attributeValue));
+        }
+        attributeName.setLength(0);
+        attributeValue.setLength(0);
+    }
+
+    private void appendText(char c) {
+        text.append(c);
+        if (text.length() >= MAX_TEXT_CHUNK) {
+            flushText();
+        }
+    }
+
+    private void flushText() {
+        if (text.length() == 0) {
+            return;
+        }
+        if (!isBlank(text)) {
+            boolean decodeEntities = rawTextElement == null
+                    || !(rawTextElement.equals("script") || rawTextElement.equals("style"));
+            handler.text(decodeEntities ? HtmlEntities.decode(text) : text.toString());
+        }
+        text.setLength(0);
+    }
+
+    private static void appendLimited(StringBuilder sb, char c, int limit) {
+        if (sb.length() < limit) {
+            sb.append(c);
+        }
+    }
+
+    private static boolean isBlank(CharSequence s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (!isWhitespace(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\n' || c == '\t' || c == '\r' || c == '\f';
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+}
@@ -0,0 +1,164 @@
+package com.github.neshali.price_parser.extraction;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.neshali.price_parser.domain.Price;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Цена из разметки schema.org в блоках {@code <script type="application/ld+json">}:
+ * Product -> offers (Offer / AggregateOffer) -> price / lowPrice / priceCurrency.
+ */
+public class JsonLdPriceExtractor implements PriceExtractor {
+
+    public static final String NAME = "json-ld";
+
+    private static final Logger log = LoggerFactory.getLogger(JsonLdPriceExtractor.class);
+
+    private static final String MEDIA_TYPE = "application/ld+json";
+
+    /**
+     * Блоки JSON-LD на страницах товаров редко больше нескольких килобайт.
+     */
+    private static final int MAX_SCRIPT_LENGTH = 256 * 1024;
+
+    private final ObjectMapper objectMapper;
+
+    public JsonLdPriceExtractor(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Session open() {
+        return new JsonLdSession();
+    }
+
+    private class JsonLdSession implements Session {
+
+        private final ExtractedProduct result = new ExtractedProduct();
+        private final StringBuilder script = new StringBuilder();
+        private boolean inJsonLd;
+
+        @Override
+        public void startElement(String name, HtmlAttributes attributes, boolean selfClosing) {
+            if ("script".equals(name) && !selfClosing && !hasPrice()) {
+                String type = attributes.get("type");
+                inJsonLd = type != null && type.trim().equalsIgnoreCase(MEDIA_TYPE);
+                script.setLength(0);
+            }
+        }
+
+        @Override
+        public void endElement(String name) {
+            if (inJsonLd && "script".equals(name)) {
+                inJsonLd = false;
+                parse();
+            }
+        }
+
+        @Override
+        public void text(String text) {
+            if (inJsonLd && script.length() + text.length() <= MAX_SCRIPT_LENGTH) {
+                script.append(text);
+            }
+        }
+
+        @Override
+        public ExtractedProduct result() {
+            return result;
+        }
+
+        private void parse() {
+            try {
+                visit(objectMapper.readTree(script.toString()));
+            } catch (Exception e) {
+                log.debug("Skipping malformed JSON-LD block: {}", e.getMessage());
+            }
+        }
+
+        private void visit(JsonNode node) {
+            if (node == null || hasPrice()) {
+                return;
+            }
+            if (node.isArray()) {
+                for (JsonNode item : node) {
+                    visit(item);
+                }
+                return;
+            }
+            if (!node.isObject()) {
+                return;
+            }
+            if (node.has("@graph")) {
+                visit(node.get("@graph"));
+                return;
+            }
+            if (isProduct(node)) {
+                if (result.getName() == null && node.path("name").isTextual()) {
+                    result.setName(node.get("name").asText().trim());
+                }
+                visitOffers(node.get("offers"));
+            }
+        }
+
+        private void visitOffers(JsonNode offers) {
+            if (offers == null || hasPrice()) {
+                return;
+            }
+            if (offers.isArray()) {
+                for (JsonNode offer : offers) {
+                    visitOffers(offer);
+                }
+                return;
+            }
+
+            Long price = readPrice(offers.get("price"));
+            if (price == null) {
+                price = readPrice(offers.get("lowPrice"));
+            }
+            if (price == null) {
+                price = readPrice(offers.path("priceSpecification").get("price"));
+            }
+            if (price != null) {
+                result.setPriceMinor(price);
+                String currency = offers.path("priceCurrency").asText(null);
+                if (currency == null) {
+                    currency = offers.path("priceSpecification").path("priceCurrency").asText(null);
+                }
+                result.setCurrency(Price.normalizeCurrency(currency));
+            }
+        }
+
+        private boolean isProduct(JsonNode node) {
+            JsonNode type = node.get("@type");
+            if (type == null) {
+                return false;
+            }
+            if (type.isArray()) {
+                for (JsonNode t : type) {
+                    if ("Product".equals(t.asText())) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            return "Product".equals(type.asText());
+        }
+
+        private Long readPrice(JsonNode node) {
+            if (node == null || node.isNull()) {
+                return null;
+            }
+            if (node.isNumber()) {
+                return Price.toMinorUnits(node.decimalValue());
+            }
+            return PriceTextParser.parseMinorUnits(node.asText());
+        }
+    }
+}
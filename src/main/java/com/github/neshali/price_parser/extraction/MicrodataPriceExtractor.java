@@ -0,0 +1,151 @@
+package com.github.neshali.price_parser.extraction;
+
+import com.github.neshali.price_parser.domain.Price;
+
+import java.util.Locale;
+
+/**
+ * Цена из атрибутов schema.org microdata ({@code itemprop="price"}, {@code itemprop="priceCurrency"})
+ * и мета-тегов Open Graph ({@code product:price:amount}, {@code og:price:amount}).
+ */
+public class MicrodataPriceExtractor implements PriceExtractor {
+
+    public static final String NAME = "microdata";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Session open() {
+        return new MicrodataSession();
+    }
+
+    private static class MicrodataSession implements Session {
+
+        private final ExtractedProduct result = new ExtractedProduct();
+
+        private final TextCapture price = new TextCapture();
+        private final TextCapture currency = new TextCapture();
+        private final TextCapture name = new TextCapture();
+
+        private String itempropName;
+
+        /**
+         * og:title - запасной вариант названия, если itemprop="name" не встретится.
+         */
+        private String openGraphTitle;
+
+        @Override
+        public void startElement(String element, HtmlAttributes attributes, boolean selfClosing) {
+            price.onStartElement(element, selfClosing);
+            currency.onStartElement(element, selfClosing);
+            name.onStartElement(element, selfClosing);
+
+            String itemprop = attributes.get("itemprop");
+            if (itemprop != null) {
+                onItemprop(itemprop, element, attributes, selfClosing);
+            }
+
+            if ("meta".equals(element)) {
+                onMeta(attributes);
+            }
+        }
+
+        @Override
+        public void endElement(String element) {
+            if (price.onEndElement(element) && result.getPriceMinor() == null) {
+                String text = price.value();
+                setPrice(text);
+                if (result.getCurrency() == null) {
+                    result.setCurrency(PriceTextParser.detectCurrency(text));
+                }
+            }
+            if (currency.onEndElement(element) && result.getCurrency() == null) {
+                result.setCurrency(Price.normalizeCurrency(currency.value()));
+            }
+            if (name.onEndElement(element) && itempropName == null) {
+                itempropName = name.value();
+            }
+        }
+
+        @Override
+        public void text(String text) {
+            price.onText(text);
+            currency.onText(text);
+            name.onText(text);
+        }
+
+        @Override
+        public ExtractedProduct result() {
+            result.setName(itempropName != null ? itempropName : openGraphTitle);
+            return result;
+        }
+
+        private void onItemprop(String itemprop, String element, HtmlAttributes attributes, boolean selfClosing) {
+            String content = attributes.get("content");
+            switch (itemprop.trim().toLowerCase(Locale.ROOT)) {
+                case "price" -> {
+                    if (result.getPriceMinor() != null) {
+                        return;
+                    }
+                    if (content != null) {
+                        setPrice(content);
+                    } else if (!selfClosing && !price.isActive()) {
+                        price.start(element);
+                    }
+                }
+                case "pricecurrency" -> {
+                    if (result.getCurrency() != null) {
+                        return;
+                    }
+                    if (content != null) {
+                        result.setCurrency(Price.normalizeCurrency(content));
+                    } else if (!selfClosing && !currency.isActive()) {
+                        currency.start(element);
+                    }
+                }
+                case "name" -> {
+                    if (itempropName != null) {
+                        return;
+                    }
+                    if (content != null) {
+                        itempropName = content.trim();
+                    } else if (!selfClosing && !name.isActive()) {
+                        name.start(element);
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+
+        private void onMeta(HtmlAttributes attributes) {
+            String property = attributes.get("property");
+            String content = attributes.get("content");
+            if (property == null || content == null) {
+                return;
+            }
+            switch (property) {
+                case "product:price:amount", "og:price:amount" -> {
+                    if (result.getPriceMinor() == null) {
+                        setPrice(content);
+                    }
+                }
+                case "product:price:currency", "og:price:currency" -> {
+                    if (result.getCurrency() == null) {
+                        result.setCurrency(Price.normalizeCurrency(content));
+                    }
+                }
+                case "og:title" -> openGraphTitle = content.trim();
+                default -> {
+                }
+            }
+        }
+
+        private void setPrice(String text) {
+            result.setPriceMinor(PriceTextParser.parseMinorUnits(text));
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.github.neshali.price_parser.extraction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Разбор одной страницы: один проход токенайзера раздаёт события всем экстракторам
+ * цепочки сразу. Страница подаётся кусками; как только экстрактор с наивысшим
+ * приоритетом из нашедших цену нашёл ещё и название, разбор останавливается,
+ * и остаток страницы можно не читать.
+ *
+ * Экземпляр не потокобезопасен и используется одним потоком от начала до конца.
+ */
+public class PageExtraction {
+
+    private final List<PriceExtractor> extractors;
+    private final List<PriceExtractor.Session> sessions;
+    private final long[] nanos;
+    private final List<ExtractorStats> stats;
+    private final HtmlTokenizer tokenizer;
+
+    private long chars;
+    private boolean finished;
+
+    PageExtraction(List<PriceExtractor> extractors, List<ExtractorStats> stats) {
+        this.extractors = extractors;
+        this.stats = stats;
+        this.sessions = new ArrayList<>(extractors.size());
+        for (PriceExtractor extractor : extractors) {
+            sessions.add(extractor.open());
+        }
+        this.nanos = new long[extractors.size()];
+        this.tokenizer = new HtmlTokenizer(new Dispatcher());
+    }
+
+    /**
+     * Очередной кусок HTML. После {@link #isComplete()} куски игнорируются.
+     */
+    public void feed(CharSequence chunk) {
+        if (tokenizer.isStopped()) {
+            return;
+        }
+        chars += chunk.length();
+        tokenizer.feed(chunk);
+    }
+
+    /**
+     * Цена и название уже найдены, дальше страницу можно не читать.
+     */
+    public boolean isComplete() {
+        return tokenizer.isStopped();
+    }
+
+    /**
+     * Завершает разбор и возвращает лучший результат или null, если цена не найдена.
+     */
+    public ExtractedProduct finish() {
+        if (!finished) {
+            finished = true;
+            tokenizer.finish();
+        }
+
+        ExtractedProduct best = null;
+        int bestIndex = -1;
+        for (int i = 0; i < sessions.size(); i++) {
+            if (sessions.get(i).hasPrice()) {
+                best = sessions.get(i).result();
+                bestIndex = i;
+                break;
+            }
+        }
+
+        for (int i = 0; i < stats.size(); i++) {
+            stats.get(i).record(chars, nanos[i], i == bestIndex);
+        }
+
+        if (best == null) {
+            return null;
+        }
+
+        ExtractedProduct product = new ExtractedProduct();
+        product.setExtractor(extractors.get(bestIndex).getName());
+        product.setPriceMinor(best.getPriceMinor());
+        product.setCurrency(best.getCurrency());
+        product.setName(best.getName());
+        // Недостающие поля берём у остальных экстракторов по порядку приоритета
+        for (PriceExtractor.Session session : sessions) {
+            ExtractedProduct other = session.result();
+            if (product.getName() == null) {
+                product.setName(other.getName());
+            }
+            if (product.getCurrency() == null && other.getPriceMinor() != null) {
+                product.setCurrency(other.getCurrency());
+            }
+        }
+        return product;
+    }
+
+    private void checkComplete() {
+        for (PriceExtractor.Session session : sessions) {
+            if (session.hasPrice()) {
+                if (session.result().getName() != null) {
+                    tokenizer.stop();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Раздаёт события токенайзера всем сессиям, замеряя время каждой.
+     */
+    private class Dispatcher implements HtmlHandler {
+
+        @Override
+        public void startElement(String name, HtmlAttributes attributes, boolean selfClosing) {
+            for (int i = 0; i < sessions.size(); i++) {
+                long start = System.nanoTime();
+                sessions.get(i).startElement(name, attributes, selfClosing);
+                nanos[i] += System.nanoTime() - start;
+            }
+            checkComplete();
+        }
+
+        @Override
+        public void endElement(String name) {
+            for (int i = 0; i < sessions.size(); i++) {
+                long start = System.nanoTime();
+                sessions.get(i).endElement(name);
+                nanos[i] += System.nanoTime() - start;
+            }
+            checkComplete();
+        }
+
+        @Override
+        public void text(String text) {
+            for (int i = 0; i < sessions.size(); i++) {
+                long start = System.nanoTime();
+                sessions.get(i).text(text);
+                nanos[i] += System.nanoTime() - start;
+            }
+        }
+    }
+}
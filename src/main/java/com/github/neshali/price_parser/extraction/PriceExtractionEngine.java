@@ -0,0 +1,56 @@
+package com.github.neshali.price_parser.extraction;
+
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Движок извлечения цены из HTML.
+ *
+ * Для каждой страницы выбирает цепочку экстракторов по хосту и разбирает
+ * документ потоково, без построения DOM. Страницу можно подать целиком
+ * ({@link #extract(String, CharSequence)}) или кусками по мере скачивания ({@link #open(String)}).
+ */
+@Service
+public class PriceExtractionEngine {
+
+    private final ExtractorRegistry extractorRegistry;
+
+    public PriceExtractionEngine(ExtractorRegistry extractorRegistry) {
+        this.extractorRegistry = extractorRegistry;
+    }
+
+    /**
+     * Начинает разбор страницы с указанным URL.
+     */
+    public PageExtraction open(String url) {
+        List<PriceExtractor> extractors = extractorRegistry.extractorsFor(hostOf(url));
+        List<ExtractorStats> stats = new ArrayList<>(extractors.size());
+        for (PriceExtractor extractor : extractors) {
+            stats.add(extractorRegistry.statsFor(extractor.getName()));
+        }
+        return new PageExtraction(extractors, stats);
+    }
+
+    /**
+     * Разбирает уже загруженную страницу целиком.
+     *
+     * @return найденные данные или null, если цену найти не удалось
+     */
+    public ExtractedProduct extract(String url, CharSequence html) {
+        PageExtraction extraction = open(url);
+        extraction.feed(html);
+        return extraction.finish();
+    }
+
+    static String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host == null ? "" : host;
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
+}
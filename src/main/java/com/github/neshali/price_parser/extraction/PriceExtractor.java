@@ -0,0 +1,35 @@
+package com.github.neshali.price_parser.extraction;
+
+/**
+ * Правило извлечения цены со страницы (JSON-LD, microdata, CSS-селекторы, regex).
+ *
+ * Сам экстрактор неизменяем и разделяется между потоками; всё состояние разбора
+ * конкретной страницы живёт в {@link Session}.
+ */
+public interface PriceExtractor {
+
+    /**
+     * Имя для логов и статистики.
+     */
+    String getName();
+
+    /**
+     * Новая сессия разбора одной страницы.
+     */
+    Session open();
+
+    /**
+     * Состояние разбора одной страницы одним экстрактором.
+     */
+    interface Session extends HtmlHandler {
+
+        /**
+         * Найденные данные; поля, которые не нашлись, равны null.
+         */
+        ExtractedProduct result();
+
+        default boolean hasPrice() {
+            return result().getPriceMinor() != null;
+        }
+    }
+}
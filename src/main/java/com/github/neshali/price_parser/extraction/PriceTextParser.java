@@ -0,0 +1,147 @@
+package com.github.neshali.price_parser.extraction;
+
+import com.github.neshali.price_parser.domain.Price;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Разбор цены из текста страницы: "1 299,90 ₽", "$1,299.90", "1.299,90 €", "85".
+ */
+public final class PriceTextParser {
+
+    /**
+     * Коды ISO 4217 из JDK. Без "валют" без дробной части по стандарту (XXX, XAU, XDR):
+     * в тексте цены это скорее слово, чем валюта.
+     */
+    private static final Set<String> ISO_CURRENCY_CODES = Currency.getAvailableCurrencies().stream()
+            .filter(currency -> currency.getDefaultFractionDigits() >= 0)
+            .map(Currency::getCurrencyCode)
+            .collect(Collectors.toUnmodifiableSet());
+
+    private PriceTextParser() {
+    }
+
+    /**
+     * Первое число в тексте в минимальных единицах или null, если числа нет.
+     *
+     * Если в числе есть и точка, и запятая, десятичным разделителем считается последний.
+     * Если разделитель один и после него 1-2 цифры - он десятичный, иначе - разделитель тысяч.
+     */
+    public static Long parseMinorUnits(CharSequence raw) {
+        if (raw == null) {
+            return null;
+        }
+
+        int start = -1;
+        for (int i = 0; i < raw.length(); i++) {
+            if (Character.isDigit(raw.charAt(i))) {
+                start = i;
+                break;
+            }
+        }
+        if (start < 0) {
+            return null;
+        }
+
+        StringBuilder number = new StringBuilder();
+        int lastDot = -1;
+        int lastComma = -1;
+        int dots = 0;
+        int commas = 0;
+        for (int i = start; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (c >= '0' && c <= '9') {
+                number.append(c);
+            } else if (c == '.') {
+                lastDot = number.length();
+                dots++;
+                number.append(c);
+            } else if (c == ',') {
+                lastComma = number.length();
+                commas++;
+                number.append(c);
+            } else if (!isGroupSeparator(c)) {
+                break;
+            }
+        }
+
+        // Хвостовые разделители ("85," или "85.") к числу не относятся
+        while (number.length() > 0 && !Character.isDigit(number.charAt(number.length() - 1))) {
+            number.setLength(number.length() - 1);
+        }
+
+        int decimalSeparator = -1;
+        if (lastDot >= 0 && lastComma >= 0) {
+            decimalSeparator = Math.max(lastDot, lastComma);
+        } else if (lastDot >= 0 && dots == 1 && isDecimalTail(number, lastDot)) {
+            decimalSeparator = lastDot;
+        } else if (lastComma >= 0 && commas == 1 && isDecimalTail(number, lastComma)) {
+            decimalSeparator = lastComma;
+        }
+
+        StringBuilder normalized = new StringBuilder(number.length());
+        for (int i = 0; i < number.length(); i++) {
+            char c = number.charAt(i);
+            if (i == decimalSeparator) {
+                normalized.append('.');
+            } else if (Character.isDigit(c)) {
+                normalized.append(c);
+            }
+        }
+        if (normalized.length() == 0 || normalized.charAt(normalized.length() - 1) == '.') {
+            return null;
+        }
+
+        try {
+            return Price.toMinorUnits(new BigDecimal(normalized.toString()));
+        } catch (NumberFormatException | ArithmeticException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Код валюты по символу или ISO-коду в тексте цены, либо null.
+     */
+    public static String detectCurrency(CharSequence raw) {
+        if (raw == null) {
+            return null;
+        }
+        String text = raw.toString();
+        if (text.indexOf('$') >= 0) {
+            return "USD";
+        }
+        if (text.indexOf('€') >= 0) {
+            return "EUR";
+        }
+        if (text.indexOf('£') >= 0) {
+            return "GBP";
+        }
+        if (text.indexOf('₽') >= 0 || text.toLowerCase(Locale.ROOT).contains("руб")) {
+            return "RUB";
+        }
+        if (text.indexOf('¥') >= 0) {
+            return "JPY";
+        }
+
+        // "1299.00 USD", "EUR 85"; "NEW", "SKU", "VAT" рядом с ценой - не валюта
+        for (String token : text.split("[^A-Za-z]+")) {
+            if (ISO_CURRENCY_CODES.contains(token)) {
+                return token;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isDecimalTail(CharSequence number, int separator) {
+        int digitsAfter = number.length() - separator - 1;
+        return digitsAfter == 1 || digitsAfter == 2;
+    }
+
+    private static boolean isGroupSeparator(char c) {
+        return c == ' ' || c == '\u00a0' || c == '\u2009' || c == '\u202f' || c == '\'';
+    }
+}
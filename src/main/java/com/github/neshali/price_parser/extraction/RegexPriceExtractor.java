@@ -0,0 +1,96 @@
+package com.github.neshali.price_parser.extraction;
+
+import com.github.neshali.price_parser.domain.Price;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Цена по регулярному выражению над видимым текстом страницы (без script/style).
+ *
+ * Цена берётся из именованной группы {@code price}, если она есть, иначе из первой группы
+ * или всего совпадения. Необязательная группа {@code currency} задаёт валюту.
+ * Выражение применяется к каждому текстовому узлу отдельно.
+ */
+public class RegexPriceExtractor implements PriceExtractor {
+
+    private final String name;
+    private final Pattern pattern;
+    private final String fixedCurrency;
+    private final boolean hasPriceGroup;
+    private final boolean hasCurrencyGroup;
+
+    public RegexPriceExtractor(String name, Pattern pattern, String fixedCurrency) {
+        this.name = name;
+        this.pattern = pattern;
+        this.fixedCurrency = Price.normalizeCurrency(fixedCurrency);
+        this.hasPriceGroup = pattern.pattern().contains("(?<price>");
+        this.hasCurrencyGroup = pattern.pattern().contains("(?<currency>");
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Session open() {
+        return new RegexSession();
+    }
+
+    private class RegexSession implements Session {
+
+        private final ExtractedProduct result = new ExtractedProduct();
+        private boolean inScriptOrStyle;
+
+        @Override
+        public void startElement(String element, HtmlAttributes attributes, boolean selfClosing) {
+            if (!selfClosing && ("script".equals(element) || "style".equals(element))) {
+                inScriptOrStyle = true;
+            }
+        }
+
+        @Override
+        public void endElement(String element) {
+            if ("script".equals(element) || "style".equals(element)) {
+                inScriptOrStyle = false;
+            }
+        }
+
+        @Override
+        public void text(String text) {
+            if (inScriptOrStyle || result.getPriceMinor() != null) {
+                return;
+            }
+            Matcher matcher = pattern.matcher(text);
+            if (!matcher.find()) {
+                return;
+            }
+
+            String priceText;
+            if (hasPriceGroup) {
+                priceText = matcher.group("price");
+            } else if (matcher.groupCount() > 0) {
+                priceText = matcher.group(1);
+            } else {
+                priceText = matcher.group();
+            }
+
+            Long price = PriceTextParser.parseMinorUnits(priceText);
+            if (price == null) {
+                return;
+            }
+            result.setPriceMinor(price);
+
+            String currency = hasCurrencyGroup
+                    ? PriceTextParser.detectCurrency(matcher.group("currency"))
+                    : PriceTextParser.detectCurrency(matcher.group());
+            result.setCurrency(currency != null ? currency : fixedCurrency);
+        }
+
+        @Override
+        public ExtractedProduct result() {
+            return result;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.neshali.price_parser.extraction;
+
+/**
+ * Накопление текста элемента от открывающего до парного закрывающего тега.
+ * Длина ограничена, чтобы ошибочно выбранный большой элемент не съел память.
+ */
+final class TextCapture {
+
+    private static final int DEFAULT_MAX_LENGTH = 1024;
+
+    private final StringBuilder text = new StringBuilder();
+    private final int maxLength;
+
+    private String element;
+    private int depth;
+
+    TextCapture() {
+        this(DEFAULT_MAX_LENGTH);
+    }
+
+    TextCapture(int maxLength) {
+        this.maxLength = maxLength;
+    }
+
+    boolean isActive() {
+        return element != null;
+    }
+
+    void start(String element) {
+        this.element = element;
+        this.depth = 1;
+        this.text.setLength(0);
+    }
+
+    void onStartElement(String name, boolean selfClosing) {
+        if (element != null && !selfClosing && element.equals(name)) {
+            depth++;
+        }
+    }
+
+    /**
+     * @return true, если этим тегом захват завершился
+     */
+    boolean onEndElement(String name) {
+        if (element != null && element.equals(name) && --depth == 0) {
+            element = null;
+            return true;
+        }
+        return false;
+    }
+
+    void onText(String chunk) {
+        if (element == null || text.length() >= maxLength) {
+            return;
+        }
+        if (text.length() > 0) {
+            text.append(' ');
+        }
+        text.append(chunk, 0, Math.min(chunk.length(), maxLength - text.length()));
+    }
+
+    /**
+     * Текст элемента с схлопнутыми пробелами, как его видит пользователь, или null.
+     */
+    String value() {
+        StringBuilder value = new StringBuilder(text.length());
+        boolean space = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = value.length() > 0;
+            } else {
+                if (space) {
+                    value.append(' ');
+                    space = false;
+                }
+                value.append(c);
+            }
+        }
+        return value.length() == 0 ? null : value.toString();
+    }
+}
@@ -0,0 +1,136 @@
+package com.github.neshali.price_parser.integration;
+
+import com.github.neshali.price_parser.extraction.PageExtraction;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Подача тела ответа в движок извлечения по мере прихода DataBuffer'ов.
+ *
+ * Байты декодируются прямо из буферов Netty в один переиспользуемый CharBuffer,
+ * промежуточные строки и копия всей страницы не создаются. Если многобайтовый символ
+ * разрезан границей буферов, его начало переносится в маленький буфер-хвост.
+ *
+ * Экземпляр обслуживает один запрос и используется из одного потока за раз.
+ */
+class PageBodyReader {
+
+    private static final int CHAR_BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * Хвост недекодированного символа: в любой кодировке это несколько байт.
+     */
+    private static final int CARRY_SIZE = 16;
+
+    private final PageExtraction extraction;
+    private final CharsetDecoder decoder;
+    private final long maxBytes;
+
+    private final CharBuffer chars = CharBuffer.allocate(CHAR_BUFFER_SIZE);
+    private final ByteBuffer carry = ByteBuffer.allocate(CARRY_SIZE);
+
+    private long bytesRead;
+    private boolean truncated;
+
+    PageBodyReader(PageExtraction extraction, Charset charset, long maxBytes) {
+        this.extraction = extraction;
+        this.decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Обрабатывает и освобождает буфер.
+     *
+     * @return true, если читать дальше не нужно: цена найдена или достигнут лимит байт
+     */
+    boolean consume(DataBuffer buffer) {
+        try {
+            if (isDone()) {
+                return true;
+            }
+            try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+                while (iterator.hasNext() && !isDone()) {
+                    consume(iterator.next());
+                }
+            }
+            return isDone();
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    boolean consume(ByteBuffer bytes) {
+        long allowed = maxBytes - bytesRead;
+        if (bytes.remaining() > allowed) {
+            bytes.limit(bytes.position() + (int) allowed);
+            truncated = true;
+        }
+        bytesRead += bytes.remaining();
+
+        // Сначала дописываем начало разрезанного символа из прошлого буфера
+        while (carry.position() > 0 && bytes.hasRemaining() && !extraction.isComplete()) {
+            carry.put(bytes.get());
+            carry.flip();
+            decode(carry, false);
+            carry.compact();
+        }
+
+        decode(bytes, false);
+        if (extraction.isComplete()) {
+            return true;
+        }
+        if (bytes.hasRemaining()) {
+            carry.put(bytes);
+        }
+        return isDone();
+    }
+
+    /**
+     * Тело закончилось: докодирует хвост.
+     */
+    void finish() {
+        carry.flip();
+        decode(carry, true);
+        carry.clear();
+        decoder.flush(chars);
+        flushChars();
+    }
+
+    boolean isDone() {
+        return truncated || extraction.isComplete();
+    }
+
+    long getBytesRead() {
+        return bytesRead;
+    }
+
+    boolean isTruncated() {
+        return truncated;
+    }
+
+    private void decode(ByteBuffer bytes, boolean endOfInput) {
+        while (true) {
+            boolean overflow = decoder.decode(bytes, chars, endOfInput).isOverflow();
+            flushChars();
+            if (!overflow || extraction.isComplete()) {
+                return;
+            }
+        }
+    }
+
+    private void flushChars() {
+        chars.flip();
+        if (chars.hasRemaining()) {
+            extraction.feed(chars);
+        }
+        chars.clear();
+    }
+}
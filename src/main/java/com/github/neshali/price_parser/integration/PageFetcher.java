@@ -0,0 +1,106 @@
+package com.github.neshali.price_parser.integration;
+
+import com.github.neshali.price_parser.extraction.ExtractedProduct;
+import com.github.neshali.price_parser.extraction.PageExtraction;
+import com.github.neshali.price_parser.extraction.PriceExtractionEngine;
+import io.netty.handler.codec.compression.Brotli;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Загрузка страниц товаров с потоковой передачей тела в движок извлечения цен.
+ *
+ * Тело ответа читается DataBuffer'ами и сразу разбирается; чтение прекращается
+ * (а соединение закрывается), как только цена найдена или прочитано max-bytes байт.
+ * gzip/deflate распаковывает Reactor Netty, br - если в classpath есть brotli4j.
+ *
+ * По умолчанию загрузка отключена (enabled = false) и PriceParsingService
+ * работает в демонстрационном режиме без обращений к сети.
+ */
+@Service
+public class PageFetcher {
+
+    private static final Logger log = LoggerFactory.getLogger(PageFetcher.class);
+
+    private static final String ACCEPT_ENCODING = Brotli.isAvailable() ? "gzip, deflate, br" : "gzip, deflate";
+
+    private final WebClient webClient;
+    private final PriceExtractionEngine priceExtractionEngine;
+    private final boolean enabled;
+    private final long maxBytes;
+    private final long timeoutMs;
+
+    public PageFetcher(
+            @Qualifier("pageFetcherWebClient") WebClient webClient,
+            PriceExtractionEngine priceExtractionEngine,
+            @Value("${price-parser.fetch.enabled:false}") boolean enabled,
+            @Value("${price-parser.fetch.max-bytes:524288}") long maxBytes,
+            @Value("${price-parser.fetch.timeout-ms:5000}") long timeoutMs
+    ) {
+        this.webClient = webClient;
+        this.priceExtractionEngine = priceExtractionEngine;
+        this.enabled = enabled;
+        this.maxBytes = maxBytes;
+        this.timeoutMs = timeoutMs;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Загружает страницу и извлекает из неё данные о товаре.
+     *
+     * @return найденные данные или null, если цены на странице (в пределах max-bytes) нет
+     * @throws PageStatusException при ответе не 2xx
+     */
+    public ExtractedProduct fetchAndExtract(String url) {
+        PageExtraction extraction = priceExtractionEngine.open(url);
+
+        return webClient.get()
+                .uri(URI.create(url))
+                .header(HttpHeaders.ACCEPT, MediaType.TEXT_HTML_VALUE + ", application/xhtml+xml;q=0.9, */*;q=0.5")
+                .header(HttpHeaders.ACCEPT_ENCODING, ACCEPT_ENCODING)
+                .exchangeToMono(response -> {
+                    if (!response.statusCode().is2xxSuccessful()) {
+                        return response.releaseBody()
+                                .then(Mono.error(new PageStatusException(response.statusCode().value(), url)));
+                    }
+
+                    Charset charset = response.headers().contentType()
+                            .map(MediaType::getCharset)
+                            .orElse(StandardCharsets.UTF_8);
+                    PageBodyReader reader = new PageBodyReader(extraction, charset, maxBytes);
+
+                    return response.bodyToFlux(DataBuffer.class)
+                            .map(reader::consume)
+                            // Отмена подписки закрывает соединение: остаток страницы не читается
+                            .takeUntil(done -> done)
+                            .then(Mono.fromSupplier(() -> {
+                                if (!reader.isDone()) {
+                                    reader.finish();
+                                }
+                                log.debug("Fetched {} bytes from {} (truncated={}, complete={})",
+                                        reader.getBytesRead(), url, reader.isTruncated(), extraction.isComplete());
+                                return extraction;
+                            }));
+                })
+                .timeout(Duration.ofMillis(timeoutMs))
+                // Страница без цены - пустой Mono, и block() вернёт null
+                .mapNotNull(PageExtraction::finish)
+                .block();
+    }
+}
@@ -0,0 +1,26 @@
+package com.github.neshali.price_parser.integration;
+
+/**
+ * Сайт ответил не 2xx. Код статуса нужен, чтобы отличить перегрузку (429, 5xx)
+ * от ошибок конкретной страницы (404 и т.п.).
+ */
+public class PageStatusException extends IllegalStateException {
+
+    private final int statusCode;
+
+    public PageStatusException(int statusCode, String url) {
+        super("Unexpected HTTP status " + statusCode + " for " + url);
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * 429 Too Many Requests или 5xx: сайт не справляется с нагрузкой.
+     */
+    public boolean isOverload() {
+        return statusCode == 429 || statusCode >= 500;
+    }
+}
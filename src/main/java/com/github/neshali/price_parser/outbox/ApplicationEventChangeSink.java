@@ -0,0 +1,38 @@
+package com.github.neshali.price_parser.outbox;
+
+import com.github.neshali.price_parser.domain.ProductChange;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Доставка изменений слушателям внутри приложения через {@link ProductChangesPublishedEvent}.
+ * Слушатели вызываются синхронно: исключение слушателя приведёт к повторной доставке пачки.
+ */
+@Component
+@ConditionalOnProperty(name = "price-parser.outbox.events.enabled", havingValue = "true", matchIfMissing = true)
+public class ApplicationEventChangeSink implements ProductChangeSink {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ApplicationEventChangeSink(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public boolean nodeLocal() {
+        return true;
+    }
+
+    @Override
+    public String name() {
+        return "events";
+    }
+
+    @Override
+    public void publish(List<ProductChange> changes) {
+        eventPublisher.publishEvent(new ProductChangesPublishedEvent(changes));
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.neshali.price_parser.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.neshali.price_parser.domain.ProductChange;
+import com.github.neshali.price_parser.web.dto.ProductChangeResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Журнал изменений в локальном файле: одна строка JSON на событие.
+ * Пачка сбрасывается на диск до того, как ретранслятор сдвинет смещение.
+ */
+@Component
+@ConditionalOnProperty(name = "price-parser.outbox.file.enabled", havingValue = "true")
+public class FileChangeSink implements ProductChangeSink {
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+
+    public FileChangeSink(ObjectMapper objectMapper,
+                          @Value("${price-parser.outbox.file.path:./data/product-changes.jsonl}") Path path) {
+        this.objectMapper = objectMapper;
+        this.path = path;
+    }
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public void publish(List<ProductChange> changes) {
+        StringBuilder lines = new StringBuilder();
+        try {
+            for (ProductChange change : changes) {
+                lines.append(objectMapper.writeValueAsString(ProductChangeResponse.of(change))).append('\n');
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize product changes", e);
+        }
+
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                ByteBuffer bytes = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append product changes to " + path, e);
+        }
+    }
+}
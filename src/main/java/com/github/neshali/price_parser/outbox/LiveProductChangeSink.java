@@ -0,0 +1,64 @@
+package com.github.neshali.price_parser.outbox;
+
+import com.github.neshali.price_parser.domain.ProductChange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Живая лента изменений для подписчиков (SSE /products/stream).
+ *
+ * Все подписчики получают события из одного multicast-синка: ретранслятор outbox
+ * публикует пачку один раз, сколько бы клиентов ни было подключено. У каждого подписчика
+ * свой ограниченный буфер: если клиент не успевает читать, теряются его самые старые
+ * события, а остальные подписчики и ретранслятор не ждут.
+ */
+@Component
+public class LiveProductChangeSink implements ProductChangeSink {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveProductChangeSink.class);
+
+    private final Sinks.Many<ProductChange> sink = Sinks.many().multicast().directBestEffort();
+
+    @Override
+    public boolean nodeLocal() {
+        return true;
+    }
+
+    @Override
+    public String name() {
+        return "live";
+    }
+
+    /**
+     * Без подписчиков события просто отбрасываются: пропущенное можно дочитать
+     * через /products/changes.
+     */
+    @Override
+    public synchronized void publish(List<ProductChange> changes) {
+        for (ProductChange change : changes) {
+            sink.tryEmitNext(change);
+        }
+    }
+
+    public int subscriberCount() {
+        return sink.currentSubscriberCount();
+    }
+
+    /**
+     * Поток подходящих под фильтр событий с буфером не более bufferSize на подписчика.
+     */
+    public Flux<ProductChange> changes(Predicate<ProductChange> filter, int bufferSize) {
+        return sink.asFlux()
+                .filter(filter)
+                .onBackpressureBuffer(bufferSize,
+                        dropped -> log.debug("Live subscriber is too slow, dropped product change {}", dropped.getId()),
+                        BufferOverflowStrategy.DROP_OLDEST);
+    }
+}
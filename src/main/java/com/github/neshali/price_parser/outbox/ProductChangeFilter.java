@@ -0,0 +1,54 @@
+package com.github.neshali.price_parser.outbox;
+
+import com.github.neshali.price_parser.domain.Price;
+import com.github.neshali.price_parser.domain.ProductChange;
+import com.github.neshali.price_parser.service.ProductFilterCriteria;
+
+import java.math.RoundingMode;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+/**
+ * Фильтр событий живой ленты с той же семантикой, что у /products/filtered:
+ * подстрока в названии без учёта регистра и границы цены в базовой валюте включительно.
+ * Сортировка и страницы критериев к потоку событий не применяются.
+ */
+public final class ProductChangeFilter implements Predicate<ProductChange> {
+
+    private final String query;
+    private final Long minPriceMinor;
+    private final Long maxPriceMinor;
+
+    private ProductChangeFilter(String query, Long minPriceMinor, Long maxPriceMinor) {
+        this.query = query;
+        this.minPriceMinor = minPriceMinor;
+        this.maxPriceMinor = maxPriceMinor;
+    }
+
+    public static ProductChangeFilter of(ProductFilterCriteria criteria) {
+        String query = criteria.getQuery() != null && !criteria.getQuery().isBlank()
+                ? criteria.getQuery().toLowerCase(Locale.ROOT)
+                : null;
+        // Границы переводим в фиксированную точку один раз, дальше сравниваем long
+        Long minPrice = criteria.getMinPrice() != null
+                ? Price.toMinorUnits(criteria.getMinPrice(), RoundingMode.CEILING)
+                : null;
+        Long maxPrice = criteria.getMaxPrice() != null
+                ? Price.toMinorUnits(criteria.getMaxPrice(), RoundingMode.FLOOR)
+                : null;
+        return new ProductChangeFilter(query, minPrice, maxPrice);
+    }
+
+    @Override
+    public boolean test(ProductChange change) {
+        if (query != null
+                && (change.getName() == null || !change.getName().toLowerCase(Locale.ROOT).contains(query))) {
+            return false;
+        }
+        Long price = change.getBasePriceMinor();
+        if (minPriceMinor != null && (price == null || price < minPriceMinor)) {
+            return false;
+        }
+        return maxPriceMinor == null || (price != null && price <= maxPriceMinor);
+    }
+}
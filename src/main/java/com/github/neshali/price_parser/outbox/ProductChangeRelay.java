@@ -0,0 +1,244 @@
+package com.github.neshali.price_parser.outbox;
+
+import com.github.neshali.price_parser.domain.ChangeConsumerOffset;
+import com.github.neshali.price_parser.domain.ProductChange;
+import com.github.neshali.price_parser.repository.ChangeConsumerOffsetRepository;
+import com.github.neshali.price_parser.repository.ProductChangeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Ретранслятор outbox: читает product_changes после смещения каждого получателя
+ * и передаёт события ему пачками.
+ *
+ * Смещение получателя сохраняется после успешной доставки пачки, поэтому при сбое
+ * (исключение получателя, остановка приложения) пачка доставляется повторно.
+ * Получатели независимы: сбой одного не задерживает остальных.
+ *
+ * id событий выдаются при вставке, а видны они после коммита: транзакция с меньшим id
+ * (другой поток PERSIST или другой узел) может зафиксироваться позже транзакции с большим.
+ * Поэтому смещение в БД - это "нижняя граница": все события не старше его доставлены.
+ * Выше неё ретранслятор помнит доставленные id, на каждом тике дочитывает пропуски
+ * между ними и сдвигает границу через пропуск, только когда следующий id доставлен
+ * или пропуск старше price-parser.outbox.gap-timeout-ms (транзакция откатилась).
+ * После перезапуска события выше сохранённой границы приходят повторно.
+ *
+ * Смещения получателей узла ({@link ProductChangeSink#nodeLocal()}) в БД не пишутся:
+ * общее смещение делило бы события между узлами, а каждый узел должен отдать своим
+ * подписчикам все изменения.
+ */
+@Component
+public class ProductChangeRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductChangeRelay.class);
+
+    /**
+     * Сколько пачек одному получателю за тик, чтобы отстающий не занимал планировщик надолго.
+     */
+    private static final int MAX_BATCHES_PER_TICK = 10;
+
+    /**
+     * Сколько пропущенных id дочитывать за тик.
+     */
+    private static final int MAX_GAPS_PER_TICK = 1000;
+
+    private final ProductChangeRepository productChangeRepository;
+    private final ChangeConsumerOffsetRepository offsetRepository;
+    private final List<ProductChangeSink> sinks;
+    private final int batchSize;
+    private final Duration retention;
+    private final long gapTimeoutMs;
+    private final LongSupplier clock;
+
+    private final Map<String, Cursor> cursors = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ProductChangeRelay(
+            ProductChangeRepository productChangeRepository,
+            ChangeConsumerOffsetRepository offsetRepository,
+            List<ProductChangeSink> sinks,
+            @Value("${price-parser.outbox.batch-size:100}") int batchSize,
+            @Value("${price-parser.outbox.retention-hours:168}") long retentionHours,
+            @Value("${price-parser.outbox.gap-timeout-ms:60000}") long gapTimeoutMs
+    ) {
+        this(productChangeRepository, offsetRepository, sinks, batchSize, retentionHours, gapTimeoutMs,
+                System::currentTimeMillis);
+    }
+
+    ProductChangeRelay(ProductChangeRepository productChangeRepository,
+                       ChangeConsumerOffsetRepository offsetRepository,
+                       List<ProductChangeSink> sinks,
+                       int batchSize,
+                       long retentionHours,
+                       long gapTimeoutMs,
+                       LongSupplier clock) {
+        this.productChangeRepository = productChangeRepository;
+        this.offsetRepository = offsetRepository;
+        this.sinks = sinks;
+        this.batchSize = batchSize;
+        this.retention = Duration.ofHours(retentionHours);
+        this.gapTimeoutMs = gapTimeoutMs;
+        this.clock = clock;
+    }
+
+    @Scheduled(fixedDelayString = "${price-parser.outbox.relay-ms:1000}")
+    public void relay() {
+        for (ProductChangeSink sink : sinks) {
+            try {
+                relayTo(sink);
+            } catch (Exception e) {
+                log.warn("Failed to deliver product changes to sink '{}', will retry: {}", sink.name(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Удаляет события старше price-parser.outbox.retention-hours.
+     * Получатель, отставший больше чем на этот срок, пропустит удалённые события.
+     */
+    @Scheduled(fixedDelayString = "${price-parser.outbox.cleanup-ms:3600000}")
+    public void deleteExpired() {
+        int deleted = productChangeRepository.deleteCreatedBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Deleted {} expired product change events", deleted);
+        }
+    }
+
+    private void relayTo(ProductChangeSink sink) {
+        ChangeConsumerOffset offset;
+        Cursor cursor;
+        if (sink.nodeLocal()) {
+            offset = null;
+            cursor = cursors.computeIfAbsent(sink.name(),
+                    name -> new Cursor(productChangeRepository.findMaxId()));
+        } else {
+            offset = offsetRepository.findById(sink.name())
+                    .orElseGet(() -> new ChangeConsumerOffset(sink.name(), 0L, LocalDateTime.now()));
+            cursor = cursors.computeIfAbsent(sink.name(), name -> new Cursor(offset.getLastChangeId()));
+            // Другой узел мог сдвинуть общее смещение дальше нас
+            cursor.catchUp(offset.getLastChangeId());
+        }
+
+        // Сначала события, зафиксированные позже событий с большими id
+        List<Long> gaps = cursor.gaps(MAX_GAPS_PER_TICK);
+        if (!gaps.isEmpty()) {
+            List<ProductChange> late = new ArrayList<>(productChangeRepository.findAllById(gaps));
+            if (!late.isEmpty()) {
+                late.sort(Comparator.comparing(ProductChange::getId));
+                sink.publish(late);
+                cursor.delivered(late, clock.getAsLong());
+                log.debug("Delivered {} late product changes to sink '{}'", late.size(), sink.name());
+            }
+        }
+
+        for (int batch = 0; batch < MAX_BATCHES_PER_TICK; batch++) {
+            List<ProductChange> changes = productChangeRepository.findByIdGreaterThanOrderByIdAsc(
+                    cursor.highest, PageRequest.of(0, batchSize));
+            if (changes.isEmpty()) {
+                break;
+            }
+
+            sink.publish(changes);
+            cursor.delivered(changes, clock.getAsLong());
+            log.debug("Delivered {} product changes to sink '{}' up to {}",
+                    changes.size(), sink.name(), cursor.highest);
+
+            if (changes.size() < batchSize) {
+                break;
+            }
+        }
+
+        long watermark = cursor.advance(clock.getAsLong(), gapTimeoutMs);
+        if (offset != null && watermark > offset.getLastChangeId()) {
+            offset.setLastChangeId(cursor.watermark);
+            offset.setUpdatedAt(LocalDateTime.now());
+            offsetRepository.save(offset);
+        }
+    }
+
+    /**
+     * Положение получателя в ленте: граница watermark и доставленные id выше неё.
+     */
+    private static final class Cursor {
+
+        /**
+         * Все события с id не больше границы доставлены (или их транзакции откатились).
+         */
+        private long watermark;
+
+        /**
+         * Наибольший доставленный id.
+         */
+        private long highest;
+
+        /**
+         * Доставленные id выше границы и время доставки.
+         */
+        private final TreeMap<Long, Long> deliveredAbove = new TreeMap<>();
+
+        private Cursor(long watermark) {
+            this.watermark = watermark;
+            this.highest = watermark;
+        }
+
+        private void catchUp(long stored) {
+            if (stored > watermark) {
+                watermark = stored;
+                highest = Math.max(highest, stored);
+                deliveredAbove.headMap(stored, true).clear();
+            }
+        }
+
+        private List<Long> gaps(int limit) {
+            List<Long> gaps = new ArrayList<>();
+            for (long id = watermark + 1; id < highest && gaps.size() < limit; id++) {
+                if (!deliveredAbove.containsKey(id)) {
+                    gaps.add(id);
+                }
+            }
+            return gaps;
+        }
+
+        private void delivered(List<ProductChange> changes, long now) {
+            for (ProductChange change : changes) {
+                deliveredAbove.put(change.getId(), now);
+                highest = Math.max(highest, change.getId());
+            }
+        }
+
+        /**
+         * Сдвигает границу по подряд доставленным id; пропуск перед доставленным id
+         * пропускается, если тот доставлен больше gapTimeoutMs назад.
+         */
+        private long advance(long now, long gapTimeoutMs) {
+            Map.Entry<Long, Long> next;
+            while ((next = deliveredAbove.firstEntry()) != null) {
+                if (next.getKey() != watermark + 1) {
+                    if (now - next.getValue() < gapTimeoutMs) {
+                        break;
+                    }
+                    log.debug("Giving up on product change ids {}..{}, assuming rolled back",
+                            watermark + 1, next.getKey() - 1);
+                }
+                watermark = next.getKey();
+                deliveredAbove.pollFirstEntry();
+            }
+            return watermark;
+        }
+    }
+}
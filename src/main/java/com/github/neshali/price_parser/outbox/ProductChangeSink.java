@@ -0,0 +1,33 @@
+package com.github.neshali.price_parser.outbox;
+
+import com.github.neshali.price_parser.domain.ProductChange;
+
+import java.util.List;
+
+/**
+ * Получатель событий ленты изменений товаров.
+ *
+ * {@link ProductChangeRelay} передаёт события пачками по возрастанию id внутри пачки и сдвигает
+ * смещение получателя только после успешного publish. Если publish бросил исключение, та же пачка
+ * будет передана повторно (доставка "хотя бы один раз"): получатель должен переносить дубли.
+ * Событие, транзакция которого зафиксировалась позже событий с большими id, приходит позже них,
+ * поэтому дубли отбрасываются по id события, а не по "id не больше уже обработанного".
+ */
+public interface ProductChangeSink {
+
+    /**
+     * Имя получателя: под ним хранится его смещение в change_consumer_offsets.
+     */
+    String name();
+
+    /**
+     * Получатель этого узла (подписчики SSE, слушатели в памяти): каждый узел кластера должен
+     * доставить ему все события, а не свою долю. Его смещение не хранится в БД, а живёт в памяти
+     * узла и начинается с последнего события на момент старта.
+     */
+    default boolean nodeLocal() {
+        return false;
+    }
+
+    void publish(List<ProductChange> changes);
+}
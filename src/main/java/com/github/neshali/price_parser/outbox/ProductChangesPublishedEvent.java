@@ -0,0 +1,11 @@
+package com.github.neshali.price_parser.outbox;
+
+import com.github.neshali.price_parser.domain.ProductChange;
+
+import java.util.List;
+
+/**
+ * Пачка изменений товаров для слушателей внутри приложения (@EventListener).
+ */
+public record ProductChangesPublishedEvent(List<ProductChange> changes) {
+}
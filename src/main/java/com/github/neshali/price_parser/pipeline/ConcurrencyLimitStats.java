@@ -0,0 +1,136 @@
+package com.github.neshali.price_parser.pipeline;
+
+import java.time.Instant;
+
+/**
+ * Снимок адаптивного лимита задач в работе.
+ */
+public class ConcurrencyLimitStats {
+
+    private boolean adaptive;
+    private int limit;
+    private int minLimit;
+    private int maxLimit;
+    private int inFlight;
+    private double shortLatencyMs;
+    private double longLatencyMs;
+    private long successes;
+    private long failures;
+    private double errorRate;
+    private long increases;
+    private long decreases;
+    private String lastDecision;
+    private Instant lastDecisionAt;
+
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    public void setAdaptive(boolean adaptive) {
+        this.adaptive = adaptive;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public void setInFlight(int inFlight) {
+        this.inFlight = inFlight;
+    }
+
+    public double getShortLatencyMs() {
+        return shortLatencyMs;
+    }
+
+    public void setShortLatencyMs(double shortLatencyMs) {
+        this.shortLatencyMs = shortLatencyMs;
+    }
+
+    public double getLongLatencyMs() {
+        return longLatencyMs;
+    }
+
+    public void setLongLatencyMs(double longLatencyMs) {
+        this.longLatencyMs = longLatencyMs;
+    }
+
+    public long getSuccesses() {
+        return successes;
+    }
+
+    public void setSuccesses(long successes) {
+        this.successes = successes;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    public void setFailures(long failures) {
+        this.failures = failures;
+    }
+
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    public long getIncreases() {
+        return increases;
+    }
+
+    public void setIncreases(long increases) {
+        this.increases = increases;
+    }
+
+    public long getDecreases() {
+        return decreases;
+    }
+
+    public void setDecreases(long decreases) {
+        this.decreases = decreases;
+    }
+
+    public String getLastDecision() {
+        return lastDecision;
+    }
+
+    public void setLastDecision(String lastDecision) {
+        this.lastDecision = lastDecision;
+    }
+
+    public Instant getLastDecisionAt() {
+        return lastDecisionAt;
+    }
+
+    public void setLastDecisionAt(Instant lastDecisionAt) {
+        this.lastDecisionAt = lastDecisionAt;
+    }
+}
@@ -0,0 +1,227 @@
+package com.github.neshali.price_parser.pipeline;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Адаптивный лимит задач в работе (взятых, но ещё не завершённых) по схеме AIMD
+ * с градиентом задержки.
+ *
+ * Каждая завершённая задача - замер: время от взятия до записи результата.
+ * - Успех при задержке не выше tolerance * базовая, когда лимит реально используется
+ *   (в работе хотя бы половина лимита): лимит растёт на 1/limit, то есть на 1 за "окно" задач.
+ * - Перегрузка (таймаут, 429/5xx, переполнение очереди) или задержка выше tolerance * базовая:
+ *   лимит умножается на backoff-ratio.
+ * - Прочие ошибки (страница без цены, 404 и т.п.) о нагрузке не говорят и лимит не снижают,
+ *   пока скользящая доля ошибок не превысит error-rate-threshold.
+ * Короткая задержка - быстрое скользящее среднее замеров, базовая - медленное.
+ * После снижения замеры задач, взятых до него, снижений больше не вызывают:
+ * одна перегрузка уменьшает лимит один раз, а не на каждую задачу из неё.
+ *
+ * При adaptive = false лимит остаётся равным initialLimit, замеры только учитываются в метриках.
+ */
+public class ConcurrencyLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyLimiter.class);
+
+    private static final double SHORT_ALPHA = 0.3;
+    private static final double LONG_ALPHA = 0.02;
+    private static final double ERROR_ALPHA = 0.05;
+
+    private final boolean adaptive;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+    private final double errorRateThreshold;
+    private final LongSupplier nanoClock;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder increases = new LongAdder();
+    private final LongAdder decreases = new LongAdder();
+
+    private volatile double limit;
+    private double shortLatencyNanos;
+    private double longLatencyNanos;
+    private double recentErrorRate;
+    private long lastDecreaseNanos;
+    private volatile String lastDecision;
+    private volatile Instant lastDecisionAt;
+
+    public ConcurrencyLimiter(boolean adaptive, int initialLimit, int minLimit, int maxLimit,
+                              double backoffRatio, double latencyTolerance, double errorRateThreshold) {
+        this(adaptive, initialLimit, minLimit, maxLimit, backoffRatio, latencyTolerance, errorRateThreshold,
+                System::nanoTime);
+    }
+
+    ConcurrencyLimiter(boolean adaptive, int initialLimit, int minLimit, int maxLimit,
+                       double backoffRatio, double latencyTolerance, double errorRateThreshold,
+                       LongSupplier nanoClock) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= max");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1 || latencyTolerance < 1) {
+            throw new IllegalArgumentException("backoff-ratio must be in (0, 1) and latency-tolerance >= 1");
+        }
+        if (errorRateThreshold <= 0 || errorRateThreshold > 1) {
+            throw new IllegalArgumentException("error-rate-threshold must be in (0, 1]");
+        }
+        this.adaptive = adaptive;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyTolerance = latencyTolerance;
+        this.errorRateThreshold = errorRateThreshold;
+        this.nanoClock = nanoClock;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.lastDecreaseNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Сколько задач можно взять прямо сейчас.
+     */
+    public int available() {
+        return Math.max(0, getLimit() - inFlight.get());
+    }
+
+    /**
+     * Занимает место под задачу.
+     *
+     * @return разрешение, которое нужно вернуть одним из onSuccess/onFailure/release,
+     * или null, если лимит исчерпан
+     */
+    public Permit tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return null;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return new Permit(nanoClock.getAsLong(), current + 1);
+            }
+        }
+    }
+
+    /**
+     * Задача завершена успешно: замер задержки.
+     */
+    public void onSuccess(Permit permit) {
+        inFlight.decrementAndGet();
+        successes.increment();
+        long latency = nanoClock.getAsLong() - permit.startNanos();
+        synchronized (this) {
+            recentErrorRate -= ERROR_ALPHA * recentErrorRate;
+            if (longLatencyNanos == 0) {
+                shortLatencyNanos = latency;
+                longLatencyNanos = latency;
+            } else {
+                shortLatencyNanos += SHORT_ALPHA * (latency - shortLatencyNanos);
+                longLatencyNanos += LONG_ALPHA * (latency - longLatencyNanos);
+            }
+            if (shortLatencyNanos > latencyTolerance * longLatencyNanos) {
+                decrease(permit, "latency");
+            } else if (adaptive && permit.inFlightAtStart() * 2 >= limit && limit < maxLimit) {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+                increases.increment();
+                decided("increase");
+            }
+        }
+    }
+
+    /**
+     * Задача завершилась признаком перегрузки: таймаут, 429/5xx, не поместилась в конвейер.
+     */
+    public void onFailure(Permit permit) {
+        inFlight.decrementAndGet();
+        failures.increment();
+        synchronized (this) {
+            recentErrorRate += ERROR_ALPHA * (1 - recentErrorRate);
+            decrease(permit, "failure");
+        }
+    }
+
+    /**
+     * Задача завершилась ошибкой, не связанной с нагрузкой (нет цены на странице, 404 и т.п.).
+     * Лимит снижается, только если такие ошибки стали большинством.
+     */
+    public void onError(Permit permit) {
+        inFlight.decrementAndGet();
+        failures.increment();
+        synchronized (this) {
+            recentErrorRate += ERROR_ALPHA * (1 - recentErrorRate);
+            if (recentErrorRate > errorRateThreshold) {
+                decrease(permit, "error rate");
+            }
+        }
+    }
+
+    /**
+     * Место освобождается без замера (остановка, задачу взял кто-то другой).
+     */
+    public void release(Permit permit) {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public ConcurrencyLimitStats stats() {
+        ConcurrencyLimitStats stats = new ConcurrencyLimitStats();
+        stats.setAdaptive(adaptive);
+        stats.setLimit(getLimit());
+        stats.setMinLimit(minLimit);
+        stats.setMaxLimit(maxLimit);
+        stats.setInFlight(inFlight.get());
+        synchronized (this) {
+            stats.setShortLatencyMs(shortLatencyNanos / TimeUnit.MILLISECONDS.toNanos(1));
+            stats.setLongLatencyMs(longLatencyNanos / TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        long ok = successes.sum();
+        long failed = failures.sum();
+        stats.setSuccesses(ok);
+        stats.setFailures(failed);
+        stats.setErrorRate(ok + failed == 0 ? 0 : (double) failed / (ok + failed));
+        stats.setIncreases(increases.sum());
+        stats.setDecreases(decreases.sum());
+        stats.setLastDecision(lastDecision);
+        stats.setLastDecisionAt(lastDecisionAt);
+        return stats;
+    }
+
+    private void decrease(Permit permit, String reason) {
+        // Задача взята до прошлого снижения: та же перегрузка, лимит уже уменьшен
+        if (!adaptive || permit.startNanos() - lastDecreaseNanos < 0) {
+            return;
+        }
+        double previous = limit;
+        limit = Math.max(minLimit, limit * backoffRatio);
+        lastDecreaseNanos = nanoClock.getAsLong();
+        decreases.increment();
+        decided("decrease on " + reason);
+        log.info("Concurrency limit decreased from {} to {} on {}", (int) previous, getLimit(), reason);
+    }
+
+    private void decided(String decision) {
+        lastDecision = decision;
+        lastDecisionAt = Instant.now();
+    }
+
+    /**
+     * Место под задачу: момент взятия и сколько задач было в работе вместе с ней.
+     */
+    public record Permit(long startNanos, int inFlightAtStart) {
+    }
+}
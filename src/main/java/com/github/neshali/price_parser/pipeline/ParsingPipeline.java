@@ -0,0 +1,118 @@
+package com.github.neshali.price_parser.pipeline;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Конвейер обработки задач парсинга: стадии {@link ParsingStage} со своими
+ * потоками и очередями. Каждую стадию можно масштабировать отдельно,
+ * а по метрикам очередей видно, какая из них узкое место.
+ */
+public class ParsingPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(ParsingPipeline.class);
+
+    private static final long STAGE_TERMINATION_TIMEOUT_SECONDS = 30;
+
+    private final Map<ParsingStage, PipelineStage> stages = new EnumMap<>(ParsingStage.class);
+
+    public ParsingPipeline(List<PipelineStage> stages) {
+        for (PipelineStage stage : stages) {
+            this.stages.put(stage.getStage(), stage);
+        }
+        for (ParsingStage stage : ParsingStage.values()) {
+            if (!this.stages.containsKey(stage)) {
+                throw new IllegalArgumentException("Pipeline stage " + stage + " is not configured");
+            }
+        }
+    }
+
+    /**
+     * Вход в конвейер без ожидания.
+     *
+     * @return false, если очередь стадии заполнена - задачу стоит отложить до следующего тика
+     */
+    public boolean submit(ParsingStage stage, Runnable task) {
+        return stages.get(stage).offer(task);
+    }
+
+    /**
+     * Передача задачи следующей стадии; ждёт, пока в её очереди освободится место.
+     */
+    public void handOff(ParsingStage stage, Runnable task) throws InterruptedException {
+        stages.get(stage).put(task);
+    }
+
+    public List<PipelineStageStats> stats() {
+        return stages.values().stream()
+                .map(PipelineStage::stats)
+                .toList();
+    }
+
+    /**
+     * Плавная остановка: ещё не начатые загрузки выбрасываются, а задачи, которые уже
+     * в работе, доводятся до конца за отведённое время. Стадии останавливаются по порядку;
+     * если время вышло, оставшиеся стадии прерываются.
+     *
+     * @return true, если все задачи в работе успели завершиться
+     */
+    public boolean drain(Duration gracePeriod) {
+        long deadline = System.nanoTime() + gracePeriod.toNanos();
+
+        int discarded = stages.get(ParsingStage.FETCH).discardQueued();
+        if (discarded > 0) {
+            log.info("Discarded {} queued fetches on shutdown", discarded);
+        }
+
+        List<PipelineStage> ordered = List.copyOf(stages.values());
+        for (int i = 0; i < ordered.size(); i++) {
+            PipelineStage stage = ordered.get(i);
+            stage.shutdown();
+            boolean terminated;
+            try {
+                terminated = stage.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                terminated = false;
+            }
+            if (!terminated) {
+                log.warn("Grace period of {} ms expired in stage {}, interrupting remaining stages",
+                        gracePeriod.toMillis(), stage.getStage());
+                ordered.subList(i, ordered.size()).forEach(PipelineStage::shutdownNow);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Останавливает стадии по порядку: следующая останавливается только после того,
+     * как предыдущая доделала свою очередь и передала ей результаты.
+     */
+    public void shutdown() {
+        boolean interrupted = false;
+        for (PipelineStage stage : stages.values()) {
+            stage.shutdown();
+            if (interrupted) {
+                continue;
+            }
+            try {
+                if (!stage.awaitTermination(STAGE_TERMINATION_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    log.warn("Pipeline stage {} did not finish in {} s", stage.getStage(), STAGE_TERMINATION_TIMEOUT_SECONDS);
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+                log.warn("Interrupted while stopping pipeline stage {}", stage.getStage());
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.neshali.price_parser.pipeline;
+
+/**
+ * Стадии обработки задачи парсинга, в порядке прохождения.
+ */
+public enum ParsingStage {
+
+    /**
+     * Загрузка страницы и потоковое извлечение цены (или демо-парсинг).
+     */
+    FETCH,
+
+    /**
+     * Обогащение товара данными внешнего сервиса.
+     */
+    ENRICH,
+
+    /**
+     * Сохранение товара и статуса задачи в БД.
+     */
+    PERSIST
+}
@@ -0,0 +1,186 @@
+package com.github.neshali.price_parser.pipeline;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Одна стадия конвейера: фиксированное число потоков и ограниченная очередь.
+ *
+ * Задачи принимаются двумя способами:
+ * - {@link #offer(Runnable)} - без ожидания, для входа в конвейер (планировщик не блокируется);
+ * - {@link #put(Runnable)} - с ожиданием места в очереди, для передачи между стадиями.
+ *   Так медленная стадия тормозит предыдущие, а не копит задачи в памяти.
+ */
+public class PipelineStage {
+
+    private static final Logger log = LoggerFactory.getLogger(PipelineStage.class);
+
+    private final ParsingStage stage;
+    private final int workers;
+    private final int queueCapacity;
+    private final BlockingQueue<Runnable> queue;
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder serviceNanos = new LongAdder();
+    private final AtomicLong maxServiceNanos = new AtomicLong();
+
+    public PipelineStage(ParsingStage stage, int workers, int queueCapacity) {
+        if (workers < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Stage " + stage + " needs at least one worker and one queue slot");
+        }
+        this.stage = stage;
+        this.workers = workers;
+        this.queueCapacity = queueCapacity;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS, queue,
+                new StageThreadFactory(stage), new ThreadPoolExecutor.AbortPolicy());
+        // Потоки запущены заранее, поэтому put() прямо в очередь не теряет задачи
+        this.executor.prestartAllCoreThreads();
+    }
+
+    public ParsingStage getStage() {
+        return stage;
+    }
+
+    /**
+     * Ставит задачу в очередь, если там есть место.
+     *
+     * @return false, если очередь заполнена или стадия остановлена
+     */
+    public boolean offer(Runnable task) {
+        try {
+            executor.execute(new StageTask(task));
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return false;
+        }
+    }
+
+    /**
+     * Ставит задачу в очередь, ожидая свободного места.
+     *
+     * @throws RejectedExecutionException если стадия уже остановлена
+     */
+    public void put(Runnable task) throws InterruptedException {
+        if (executor.isShutdown()) {
+            rejected.increment();
+            throw new RejectedExecutionException("Stage " + stage + " is shut down");
+        }
+        StageTask stageTask = new StageTask(task);
+        queue.put(stageTask);
+        // Остановка могла начаться между проверкой и put: потоки, уже увидевшие пустую очередь,
+        // задачу не возьмут. Если её ещё никто не взял - забираем обратно, как это делает execute()
+        if (executor.isShutdown() && queue.remove(stageTask)) {
+            rejected.increment();
+            throw new RejectedExecutionException("Stage " + stage + " is shut down");
+        }
+    }
+
+    /**
+     * Перестаёт принимать задачи; уже поставленные в очередь будут выполнены.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Останавливает стадию, прерывая работающие задачи.
+     */
+    public void shutdownNow() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Убирает из очереди ещё не начатые задачи.
+     *
+     * @return сколько задач выброшено
+     */
+    public int discardQueued() {
+        List<Runnable> discarded = new ArrayList<>();
+        queue.drainTo(discarded);
+        return discarded.size();
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+
+    public PipelineStageStats stats() {
+        long done = processed.sum();
+        PipelineStageStats stats = new PipelineStageStats();
+        stats.setStage(stage);
+        stats.setWorkers(workers);
+        stats.setActiveWorkers(executor.getActiveCount());
+        stats.setQueueDepth(queue.size());
+        stats.setQueueCapacity(queueCapacity);
+        stats.setProcessed(done);
+        stats.setFailed(failed.sum());
+        stats.setRejected(rejected.sum());
+        stats.setAvgWaitMs(done == 0 ? 0 : waitNanos.sum() / 1_000_000.0 / done);
+        stats.setAvgServiceMs(done == 0 ? 0 : serviceNanos.sum() / 1_000_000.0 / done);
+        stats.setMaxServiceMs(maxServiceNanos.get() / 1_000_000.0);
+        return stats;
+    }
+
+    /**
+     * Обёртка задачи, измеряющая время ожидания в очереди и время выполнения.
+     */
+    private class StageTask implements Runnable {
+
+        private final Runnable delegate;
+        private final long enqueuedAt = System.nanoTime();
+
+        StageTask(Runnable delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void run() {
+            long startedAt = System.nanoTime();
+            waitNanos.add(startedAt - enqueuedAt);
+            try {
+                delegate.run();
+            } catch (Exception e) {
+                failed.increment();
+                log.error("Unexpected error in pipeline stage {}", stage, e);
+            } finally {
+                long elapsed = System.nanoTime() - startedAt;
+                serviceNanos.add(elapsed);
+                maxServiceNanos.accumulateAndGet(elapsed, Math::max);
+                processed.increment();
+            }
+        }
+    }
+
+    private static class StageThreadFactory implements ThreadFactory {
+
+        private final String prefix;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        StageThreadFactory(ParsingStage stage) {
+            this.prefix = "pipeline-" + stage.name().toLowerCase() + "-";
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            return new Thread(runnable, prefix + counter.incrementAndGet());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.github.neshali.price_parser.pipeline;
+
+/**
+ * Снимок метрик одной стадии конвейера.
+ */
+public class PipelineStageStats {
+
+    private ParsingStage stage;
+    private int workers;
+    private int activeWorkers;
+    private int queueDepth;
+    private int queueCapacity;
+    private long processed;
+    private long failed;
+    private long rejected;
+    private double avgWaitMs;
+    private double avgServiceMs;
+    private double maxServiceMs;
+
+    public ParsingStage getStage() {
+        return stage;
+    }
+
+    public void setStage(ParsingStage stage) {
+        this.stage = stage;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    public int getActiveWorkers() {
+        return activeWorkers;
+    }
+
+    public void setActiveWorkers(int activeWorkers) {
+        this.activeWorkers = activeWorkers;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public void setQueueDepth(int queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public void setProcessed(long processed) {
+        this.processed = processed;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public double getAvgWaitMs() {
+        return avgWaitMs;
+    }
+
+    public void setAvgWaitMs(double avgWaitMs) {
+        this.avgWaitMs = avgWaitMs;
+    }
+
+    public double getAvgServiceMs() {
+        return avgServiceMs;
+    }
+
+    public void setAvgServiceMs(double avgServiceMs) {
+        this.avgServiceMs = avgServiceMs;
+    }
+
+    public double getMaxServiceMs() {
+        return maxServiceMs;
+    }
+
+    public void setMaxServiceMs(double maxServiceMs) {
+        this.maxServiceMs = maxServiceMs;
+    }
+}
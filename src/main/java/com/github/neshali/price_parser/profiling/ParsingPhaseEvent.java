@@ -0,0 +1,28 @@
+package com.github.neshali.price_parser.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR-событие: один отрезок обработки задачи парсинга.
+ */
+@Name("com.github.neshali.price_parser.ParsingPhase")
+@Label("Parsing Phase")
+@Category({"Price Parser", "Parsing"})
+@Description("One phase of a parsing task: claim, fetch, enrichment or a database write")
+@StackTrace(false)
+class ParsingPhaseEvent extends Event {
+
+    @Label("Task Id")
+    long taskId;
+
+    @Label("Host")
+    String host;
+
+    @Label("Phase")
+    String phase;
+}
@@ -0,0 +1,28 @@
+package com.github.neshali.price_parser.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR-событие: задача парсинга целиком, от взятия в работу до записи статуса.
+ */
+@Name("com.github.neshali.price_parser.ParsingTask")
+@Label("Parsing Task")
+@Category({"Price Parser", "Parsing"})
+@Description("A parsing task from claim to its final status")
+@StackTrace(false)
+class ParsingTaskEvent extends Event {
+
+    @Label("Task Id")
+    long taskId;
+
+    @Label("Host")
+    String host;
+
+    @Label("Completed")
+    boolean completed;
+}
@@ -0,0 +1,32 @@
+package com.github.neshali.price_parser.profiling;
+
+/**
+ * Отрезки обработки задачи парсинга, которые замеряются отдельно.
+ * Время в очередях стадий конвейера - остаток от общего времени задачи.
+ */
+public enum TaskPhase {
+    /**
+     * UPDATE NEW -> IN_PROGRESS.
+     */
+    CLAIM,
+    /**
+     * Загрузка страницы вместе с извлечением цены (разбор идёт по мере чтения тела).
+     */
+    FETCH,
+    /**
+     * Ожидание результата такой же задачи, уже загружающей тот же URL.
+     */
+    COALESCED,
+    /**
+     * Обогащение через внешний сервис.
+     */
+    ENRICH,
+    /**
+     * Сравнение с прошлой ценой и запись товара с событием изменения.
+     */
+    SAVE_PRODUCT,
+    /**
+     * UPDATE статуса задачи в COMPLETED или FAILED.
+     */
+    SAVE_STATUS
+}
@@ -0,0 +1,107 @@
+package com.github.neshali.price_parser.profiling;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Замер одной задачи парсинга: время по отрезкам {@link TaskPhase}.
+ *
+ * Отрезки выполняются в разных потоках стадий, но по очереди, поэтому время
+ * копится в AtomicLongArray без блокировок. Каждый отрезок - ещё и JFR-событие.
+ */
+public final class TaskTimer {
+
+    private final long taskId;
+    private final String url;
+    private final String host;
+    private final Instant startedAt = Instant.now();
+    private final long startNanos = System.nanoTime();
+    private final AtomicLongArray phaseNanos = new AtomicLongArray(TaskPhase.values().length);
+    private final ParsingTaskEvent taskEvent = new ParsingTaskEvent();
+
+    TaskTimer(long taskId, String url) {
+        this.taskId = taskId;
+        this.url = url;
+        this.host = hostOf(url);
+        taskEvent.begin();
+    }
+
+    /**
+     * Начинает отрезок; закрытие Span фиксирует его длительность.
+     */
+    public Span phase(TaskPhase phase) {
+        return new Span(phase);
+    }
+
+    public long getTaskId() {
+        return taskId;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    Instant getStartedAt() {
+        return startedAt;
+    }
+
+    long getPhaseNanos(TaskPhase phase) {
+        return phaseNanos.get(phase.ordinal());
+    }
+
+    /**
+     * Закрывает задачу: JFR-событие задачи и общее время в наносекундах.
+     */
+    long finish(boolean completed) {
+        long total = System.nanoTime() - startNanos;
+        taskEvent.end();
+        if (taskEvent.shouldCommit()) {
+            taskEvent.taskId = taskId;
+            taskEvent.host = host;
+            taskEvent.completed = completed;
+            taskEvent.commit();
+        }
+        return total;
+    }
+
+    static String hostOf(String url) {
+        try {
+            String host = URI.create(url.trim()).getHost();
+            return host != null ? host : "unknown";
+        } catch (IllegalArgumentException e) {
+            return "unknown";
+        }
+    }
+
+    /**
+     * Отрезок в работе.
+     */
+    public final class Span implements AutoCloseable {
+
+        private final TaskPhase phase;
+        private final long begin = System.nanoTime();
+        private final ParsingPhaseEvent event = new ParsingPhaseEvent();
+
+        private Span(TaskPhase phase) {
+            this.phase = phase;
+            event.begin();
+        }
+
+        @Override
+        public void close() {
+            phaseNanos.addAndGet(phase.ordinal(), System.nanoTime() - begin);
+            event.end();
+            if (event.shouldCommit()) {
+                event.taskId = taskId;
+                event.host = host;
+                event.phase = phase.name();
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.neshali.price_parser.profiling;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Разбивка времени одной завершённой задачи парсинга по отрезкам.
+ */
+public class TaskTiming {
+
+    private long taskId;
+    private String url;
+    private String host;
+    private boolean completed;
+    private Instant startedAt;
+    private double totalMs;
+    private double queueMs;
+    private Map<TaskPhase, Double> phasesMs = new EnumMap<>(TaskPhase.class);
+
+    public long getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(long taskId) {
+        this.taskId = taskId;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(boolean completed) {
+        this.completed = completed;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public double getTotalMs() {
+        return totalMs;
+    }
+
+    public void setTotalMs(double totalMs) {
+        this.totalMs = totalMs;
+    }
+
+    public double getQueueMs() {
+        return queueMs;
+    }
+
+    public void setQueueMs(double queueMs) {
+        this.queueMs = queueMs;
+    }
+
+    public Map<TaskPhase, Double> getPhasesMs() {
+        return phasesMs;
+    }
+
+    public void setPhasesMs(Map<TaskPhase, Double> phasesMs) {
+        this.phasesMs = phasesMs;
+    }
+}
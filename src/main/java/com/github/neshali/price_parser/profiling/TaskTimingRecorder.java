@@ -0,0 +1,90 @@
+package com.github.neshali.price_parser.profiling;
+
+import com.github.neshali.price_parser.service.TopKCollector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.IntStream;
+
+/**
+ * Замеры задач парсинга.
+ *
+ * JFR-события ({@link ParsingPhaseEvent}, {@link ParsingTaskEvent}) пишутся для каждой задачи,
+ * когда запись JFR включена (-XX:StartFlightRecording); без неё они почти ничего не стоят.
+ * Кроме того, доля sample-rate завершённых задач попадает в кольцевой буфер на capacity записей,
+ * из которого отбираются самые медленные задачи за последнее окно.
+ */
+@Component
+public class TaskTimingRecorder {
+
+    private static final double NANOS_PER_MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final double sampleRate;
+    private final AtomicReferenceArray<TaskTiming> samples;
+    private final AtomicLong written = new AtomicLong();
+
+    public TaskTimingRecorder(
+            @Value("${price-parser.profiling.sample-rate:0.1}") double sampleRate,
+            @Value("${price-parser.profiling.capacity:1000}") int capacity
+    ) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Timing buffer capacity must be positive: " + capacity);
+        }
+        this.sampleRate = sampleRate;
+        this.samples = new AtomicReferenceArray<>(capacity);
+    }
+
+    public TaskTimer start(long taskId, String url) {
+        return new TaskTimer(taskId, url);
+    }
+
+    /**
+     * Задача получила итоговый статус.
+     */
+    public void finish(TaskTimer timer, boolean completed) {
+        long totalNanos = timer.finish(completed);
+        if (sampleRate <= 0 || (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return;
+        }
+
+        TaskTiming timing = new TaskTiming();
+        timing.setTaskId(timer.getTaskId());
+        timing.setUrl(timer.getUrl());
+        timing.setHost(timer.getHost());
+        timing.setCompleted(completed);
+        timing.setStartedAt(timer.getStartedAt());
+        long measured = 0;
+        for (TaskPhase phase : TaskPhase.values()) {
+            long nanos = timer.getPhaseNanos(phase);
+            if (nanos > 0) {
+                timing.getPhasesMs().put(phase, nanos / NANOS_PER_MS);
+                measured += nanos;
+            }
+        }
+        timing.setTotalMs(totalNanos / NANOS_PER_MS);
+        timing.setQueueMs(Math.max(0, totalNanos - measured) / NANOS_PER_MS);
+
+        samples.set((int) (written.getAndIncrement() % samples.length()), timing);
+    }
+
+    /**
+     * Самые медленные из замеренных задач, начатых не раньше window назад.
+     */
+    public List<TaskTiming> slowest(int limit, Duration window) {
+        Instant since = Instant.now().minus(window);
+        return IntStream.range(0, samples.length())
+                .mapToObj(samples::get)
+                .filter(Objects::nonNull)
+                .filter(timing -> !timing.getStartedAt().isBefore(since))
+                .collect(TopKCollector.of(Comparator.comparingDouble(TaskTiming::getTotalMs).reversed(), limit));
+    }
+}
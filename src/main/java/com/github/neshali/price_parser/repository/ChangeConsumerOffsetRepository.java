@@ -0,0 +1,22 @@
+package com.github.neshali.price_parser.repository;
+
+import com.github.neshali.price_parser.domain.ChangeConsumerOffset;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Репозиторий смещений потребителей ленты изменений.
+ */
+@Repository
+public interface ChangeConsumerOffsetRepository extends JpaRepository<ChangeConsumerOffset, String> {
+
+    /**
+     * Читает с основной БД: смещение с реплики может отстать и повторить уже доставленные события.
+     */
+    @Override
+    @Transactional
+    Optional<ChangeConsumerOffset> findById(String consumer);
+}
@@ -0,0 +1,55 @@
+package com.github.neshali.price_parser.repository;
+
+import com.github.neshali.price_parser.domain.ClusterNode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Репозиторий узлов кластера.
+ *
+ * Время heartbeat и порог живости берутся по часам БД (local datetime), а не узла:
+ * расхождение системных часов узлов не должно делать живой узел мёртвым и наоборот.
+ */
+@Repository
+public interface ClusterNodeRepository extends JpaRepository<ClusterNode, String> {
+
+    /**
+     * Обновить heartbeat узла.
+     *
+     * @return 0, если узла ещё нет в таблице
+     */
+    @Modifying
+    @Transactional
+    @Query("update ClusterNode n set n.lastHeartbeat = local datetime where n.nodeId = :nodeId")
+    int touch(@Param("nodeId") String nodeId);
+
+    /**
+     * Текущее время по часам БД, для первой записи узла.
+     */
+    @Transactional
+    @Query("select local datetime")
+    LocalDateTime databaseNow();
+
+    /**
+     * Идентификаторы узлов с heartbeat не старше ttlSeconds по часам БД, по порядку.
+     * Читает с основной БД: от результата зависит распределение партиций.
+     */
+    @Transactional
+    @Query("select n.nodeId from ClusterNode n where n.lastHeartbeat >= local datetime - :ttlSeconds second order by n.nodeId")
+    List<String> findAliveNodeIds(@Param("ttlSeconds") long ttlSeconds);
+
+    /**
+     * Удалить узлы без heartbeat дольше staleAfterSeconds по часам БД.
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from ClusterNode n where n.lastHeartbeat < local datetime - :staleAfterSeconds second")
+    int deleteStale(@Param("staleAfterSeconds") long staleAfterSeconds);
+}
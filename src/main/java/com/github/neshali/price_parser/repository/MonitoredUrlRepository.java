@@ -0,0 +1,47 @@
+package com.github.neshali.price_parser.repository;
+
+import com.github.neshali.price_parser.domain.MonitoredUrl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Репозиторий URL под мониторингом.
+ */
+@Repository
+public interface MonitoredUrlRepository extends JpaRepository<MonitoredUrl, Long> {
+
+    Optional<MonitoredUrl> findByUrl(String url);
+
+    /**
+     * Наступившие проверки, самые просроченные первыми, по индексу next_due_at.
+     */
+    List<MonitoredUrl> findByNextDueAtLessThanEqualOrderByNextDueAtAsc(LocalDateTime now, Pageable pageable);
+
+    /**
+     * То же для кластерного режима: только указанные партиции.
+     */
+    List<MonitoredUrl> findByPartitionInAndNextDueAtLessThanEqualOrderByNextDueAtAsc(Collection<Integer> partitions,
+                                                                                  LocalDateTime now,
+                                                                                  Pageable pageable);
+
+    /**
+     * Забрать наступившую проверку: срок переносится, только если он ещё тот, что был прочитан.
+     * Если запись уже забрал другой узел или тик, обновится 0 строк.
+     */
+    @Modifying
+    @Query("update MonitoredUrl m set m.nextDueAt = :next, m.lastScheduledAt = :now "
+            + "where m.id = :id and m.nextDueAt = :due")
+    int claimDue(@Param("id") Long id,
+                 @Param("due") LocalDateTime due,
+                 @Param("now") LocalDateTime now,
+                 @Param("next") LocalDateTime next);
+}
@@ -2,9 +2,16 @@ package com.github.neshali.price_parser.repository;
 
 import com.github.neshali.price_parser.domain.ParsingTask;
 import com.github.neshali.price_parser.domain.ParsingTaskStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +21,13 @@ import java.util.Optional;
 @Repository
 public interface ParsingTaskRepository extends JpaRepository<ParsingTask, Long> {
 
+    /**
+     * Читает с основной БД: задачу синхронной обработки сразу захватывают по её версии.
+     */
+    @Override
+    @Transactional
+    Optional<ParsingTask> findById(Long id);
+
     /**
      * Найти самую старую задачу в указанном статусе.
      */
@@ -23,5 +37,151 @@ public interface ParsingTaskRepository extends JpaRepository<ParsingTask, Long>
      * Найти все задачи с указанным статусом.
      */
     List<ParsingTask> findByStatus(ParsingTaskStatus status);
-}
 
+    /**
+     * Самые старые задачи в указанном статусе, не больше размера страницы.
+     * Идёт по индексу (status, created_at) и не читает всю очередь.
+     * Читает с основной БД, а не с реплики: по результату задачи сразу захватываются.
+     */
+    @Transactional
+    List<ParsingTask> findByStatusOrderByCreatedAtAsc(ParsingTaskStatus status, Pageable pageable);
+
+    /**
+     * То же для кластерного режима: только задачи из указанных партиций.
+     */
+    @Transactional
+    List<ParsingTask> findByStatusAndPartitionInOrderByCreatedAtAsc(ParsingTaskStatus status,
+                                                                   Collection<Integer> partitions,
+                                                                   Pageable pageable);
+
+    /**
+     * Захват задачи: NEW -> IN_PROGRESS с записью узла-владельца, как compare-and-set по версии.
+     *
+     * @return 1, если задача захвачена, 0 - если её уже изменили
+     */
+    @Modifying
+    @Transactional
+    @Query("update ParsingTask t set t.status = com.github.neshali.price_parser.domain.ParsingTaskStatus.IN_PROGRESS, "
+            + "t.ownerNode = :ownerNode, t.errorMessage = null, t.updatedAt = :now, t.version = t.version + 1 "
+            + "where t.id = :id and t.status = com.github.neshali.price_parser.domain.ParsingTaskStatus.NEW "
+            + "and t.version = :version")
+    int claim(@Param("id") Long id,
+              @Param("version") long version,
+              @Param("ownerNode") String ownerNode,
+              @Param("now") LocalDateTime now);
+
+    /**
+     * Вернуть в NEW задачи, взятые узлами, которых больше нет в кластере
+     * (или взятые до включения кластерного режима).
+     */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("update ParsingTask t set t.status = com.github.neshali.price_parser.domain.ParsingTaskStatus.NEW, "
+            + "t.ownerNode = null, t.updatedAt = :now, t.version = t.version + 1 "
+            + "where t.status = com.github.neshali.price_parser.domain.ParsingTaskStatus.IN_PROGRESS "
+            + "and (t.ownerNode is null or t.ownerNode not in :aliveNodes)")
+    int releaseOrphaned(@Param("aliveNodes") Collection<String> aliveNodes, @Param("now") LocalDateTime now);
+
+    /**
+     * Вернуть в NEW задачи, взятые указанным узлом (его прошлым запуском).
+     */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("update ParsingTask t set t.status = com.github.neshali.price_parser.domain.ParsingTaskStatus.NEW, "
+            + "t.ownerNode = null, t.updatedAt = :now, t.version = t.version + 1 "
+            + "where t.status = com.github.neshali.price_parser.domain.ParsingTaskStatus.IN_PROGRESS "
+            + "and t.ownerNode = :ownerNode")
+    int releaseOwnedBy(@Param("ownerNode") String ownerNode, @Param("now") LocalDateTime now);
+
+    /**
+     * Задачи без партиции (созданные до её появления), порциями.
+     * Читает с основной БД: найденным задачам сразу проставляется партиция.
+     */
+    @Transactional
+    @Query("select t.id as id, t.url as url from ParsingTask t where t.partition is null order by t.id")
+    List<TaskUrl> findWithoutPartition(Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("update ParsingTask t set t.partition = :partition where t.id in :ids")
+    int assignPartition(@Param("ids") Collection<Long> ids, @Param("partition") int partition);
+
+    /**
+     * Перевести все задачи из статуса from в статус to (восстановление после аварийной остановки).
+     *
+     * @return сколько задач обновлено
+     */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("update ParsingTask t set t.status = :to, t.updatedAt = :now, t.version = t.version + 1 "
+            + "where t.status = :from")
+    int transitionAll(@Param("from") ParsingTaskStatus from,
+                      @Param("to") ParsingTaskStatus to,
+                      @Param("now") LocalDateTime now);
+
+    /**
+     * Количество задач по статусам одним GROUP BY.
+     */
+    @Query("select t.status as status, count(t) as count from ParsingTask t group by t.status")
+    List<StatusCount> countByStatus();
+
+    /**
+     * Время создания самой старой задачи в статусе или null, если таких нет.
+     */
+    @Query("select min(t.createdAt) from ParsingTask t where t.status = :status")
+    LocalDateTime findOldestCreatedAt(@Param("status") ParsingTaskStatus status);
+
+    /**
+     * Вернуть в NEW взятые этим узлом задачи одним UPDATE, сняв с них владельца,
+     * чтобы после перезапуска их мог взять любой узел.
+     * Задачи, которые уже успели сменить статус, не затрагиваются.
+     *
+     * @return сколько задач обновлено
+     */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("update ParsingTask t set t.status = com.github.neshali.price_parser.domain.ParsingTaskStatus.NEW, "
+            + "t.ownerNode = null, t.updatedAt = :now, t.version = t.version + 1 "
+            + "where t.id in :ids "
+            + "and t.status = com.github.neshali.price_parser.domain.ParsingTaskStatus.IN_PROGRESS")
+    int releaseToNew(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * Смена статуса одной задачи как compare-and-set: один UPDATE без чтения сущности.
+     * Срабатывает, только если задача всё ещё в статусе from и версии version
+     * (никто другой - поток или узел - не изменил её с момента чтения).
+     *
+     * @return 1, если статус изменён, 0 - если задачу уже изменили
+     */
+    @Modifying
+    @Transactional
+    @Query("update ParsingTask t set t.status = :to, t.errorMessage = :errorMessage, "
+            + "t.updatedAt = :now, t.version = t.version + 1 "
+            + "where t.id = :id and t.status = :from and t.version = :version")
+    int compareAndSetStatus(@Param("id") Long id,
+                            @Param("from") ParsingTaskStatus from,
+                            @Param("version") long version,
+                            @Param("to") ParsingTaskStatus to,
+                            @Param("errorMessage") String errorMessage,
+                            @Param("now") LocalDateTime now);
+
+    /**
+     * Строка результата countByStatus.
+     */
+    interface StatusCount {
+
+        ParsingTaskStatus getStatus();
+
+        long getCount();
+    }
+
+    /**
+     * Строка результата findWithoutPartition.
+     */
+    interface TaskUrl {
+
+        Long getId();
+
+        String getUrl();
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.neshali.price_parser.repository;
+
+import com.github.neshali.price_parser.domain.ProductChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Репозиторий outbox изменений товаров.
+ */
+@Repository
+public interface ProductChangeRepository extends JpaRepository<ProductChange, Long> {
+
+    /**
+     * События после смещения after, по порядку.
+     * Читает с основной БД: по результату relay сдвигает смещения потребителей.
+     */
+    @Transactional
+    List<ProductChange> findByIdGreaterThanOrderByIdAsc(long after, Pageable pageable);
+
+    /**
+     * Последний id события или 0, если событий нет.
+     */
+    @Transactional
+    @Query("select coalesce(max(c.id), 0) from ProductChange c")
+    long findMaxId();
+
+    /**
+     * Перечитывание пропусков relay - тоже с основной БД.
+     */
+    @Override
+    @Transactional
+    List<ProductChange> findAllById(Iterable<Long> ids);
+
+    /**
+     * Удалить события старше срока хранения.
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from ProductChange c where c.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
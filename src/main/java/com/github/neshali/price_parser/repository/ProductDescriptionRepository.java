@@ -0,0 +1,36 @@
+package com.github.neshali.price_parser.repository;
+
+import com.github.neshali.price_parser.domain.ProductDescription;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Репозиторий описаний товаров (ключ - хеш текста).
+ */
+@Repository
+public interface ProductDescriptionRepository extends JpaRepository<ProductDescription, String> {
+
+    /**
+     * Вставка описания, если такого хеша ещё нет: один INSERT без предварительного SELECT.
+     * Выполняется в своей транзакции: конфликт с параллельной вставкой того же текста
+     * (нарушение ключа) откатывает только её, а не запись товара.
+     *
+     * @return 1 - описание добавлено, 0 - уже было
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query(value = "insert into product_descriptions (hash, content, original_length, created_at) "
+            + "select :hash, :content, :originalLength, :createdAt "
+            + "where not exists (select 1 from product_descriptions where hash = :hash)", nativeQuery = true)
+    int insertIfAbsent(@Param("hash") String hash,
+                       @Param("content") byte[] content,
+                       @Param("originalLength") int originalLength,
+                       @Param("createdAt") LocalDateTime createdAt);
+}
@@ -0,0 +1,89 @@
+package com.github.neshali.price_parser.repository;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Поля товара, которые можно запросить параметром fields= в выборках каталога.
+ * apiName - имя в JSON-ответе, attribute - атрибут сущности Product.
+ */
+public enum ProductField {
+    ID("id", "id"),
+    NAME("name", "name"),
+    /**
+     * Выбирается хеш описания; текст подставляет {@link ProductRowRepositoryImpl}.
+     */
+    DESCRIPTION("description", "descriptionHash"),
+    PRICE("price", "priceMinor"),
+    CURRENCY("currency", "currency"),
+    /**
+     * Цена в базовой валюте (см. FxRateService).
+     */
+    BASE_PRICE("basePrice", "basePriceMinor"),
+    PUBLICATION_DATE("publicationDate", "publicationDate"),
+    SOURCE_URL("sourceUrl", "sourceUrl");
+
+    public static final Set<ProductField> ALL = Collections.unmodifiableSet(EnumSet.allOf(ProductField.class));
+
+    private final String apiName;
+    private final String attribute;
+
+    ProductField(String apiName, String attribute) {
+        this.apiName = apiName;
+        this.attribute = attribute;
+    }
+
+    public String getApiName() {
+        return apiName;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    /**
+     * Разбирает список через запятую ("id,name,price"). Пустой параметр - все поля;
+     * id добавляется всегда.
+     *
+     * @throws IllegalArgumentException для неизвестного поля
+     */
+    public static Set<ProductField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<ProductField> result = EnumSet.of(ID);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            result.add(byApiName(trimmed));
+        }
+        return Collections.unmodifiableSet(result);
+    }
+
+    /**
+     * Атрибут сущности для сортировки по полю API (sort=price - по priceMinor).
+     *
+     * @throws IllegalArgumentException для неизвестного поля и для description:
+     *                                  текст описания хранится отдельно, сортировать по нему нельзя
+     */
+    public static String sortAttribute(String name) {
+        ProductField field = byApiName(name);
+        if (field == DESCRIPTION) {
+            throw new IllegalArgumentException("Sorting by 'description' is not supported");
+        }
+        return field.attribute;
+    }
+
+    private static ProductField byApiName(String name) {
+        for (ProductField field : values()) {
+            if (field.apiName.equalsIgnoreCase(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown product field '" + name.toLowerCase(Locale.ROOT) + "'");
+    }
+}
@@ -1,9 +1,79 @@
 package com.github.neshali.price_parser.repository;
 
 import com.github.neshali.price_parser.domain.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRowRepository {
+
+    /**
+     * Цены и валюты товаров с id меньше beforeId, от новых к старым (загрузка LastPriceIndex порциями).
+     * Читает с основной БД: индекс сверяет с этими ценами новые записи.
+     */
+    @Transactional
+    @Query("select p.id as id, p.sourceUrl as sourceUrl, p.priceMinor as priceMinor, p.currency as currency "
+            + "from Product p where p.id < :beforeId order by p.id desc")
+    List<ProductPrice> findPricesBefore(@Param("beforeId") long beforeId, Pageable pageable);
+
+    /**
+     * Товар, цена в базовой валюте которого посчитана не по таблице курсов version
+     * (не больше limit id; по индексу fx_rates_version).
+     */
+    @Query("select p.id from Product p where p.fxRatesVersion is null "
+            + "or p.fxRatesVersion < :version or p.fxRatesVersion > :version")
+    List<Long> findStaleBasePriceIds(@Param("version") String version, Pageable limit);
+
+    /**
+     * Пересчёт цены в базовой валюте для товаров в валюте currency, посчитанных
+     * не по таблице version, одним UPDATE.
+     */
+    @Modifying
+    @Query("update Product p set p.basePriceMinor = cast(round(cast(p.priceMinor as BigDecimal) * :rate, 0) as Long), "
+            + "p.fxRatesVersion = :version "
+            + "where p.currency = :currency and (p.fxRatesVersion is null or p.fxRatesVersion <> :version)")
+    int updateBasePrices(@Param("currency") String currency, @Param("rate") BigDecimal rate,
+                         @Param("version") String version);
+
+    /**
+     * Товары в базовой валюте и без валюты: цена в базовой валюте совпадает с исходной.
+     */
+    @Modifying
+    @Query("update Product p set p.basePriceMinor = p.priceMinor, p.fxRatesVersion = :version "
+            + "where (p.currency is null or p.currency = :baseCurrency) "
+            + "and (p.fxRatesVersion is null or p.fxRatesVersion <> :version)")
+    int copyBasePrices(@Param("baseCurrency") String baseCurrency, @Param("version") String version);
+
+    /**
+     * Товары в валютах, которых нет в таблице курсов: цены в базовой валюте нет.
+     */
+    @Modifying
+    @Query("update Product p set p.basePriceMinor = null, p.fxRatesVersion = :version "
+            + "where p.currency is not null and p.currency not in :knownCurrencies "
+            + "and (p.fxRatesVersion is null or p.fxRatesVersion <> :version)")
+    int clearBasePrices(@Param("knownCurrencies") Collection<String> knownCurrencies,
+                        @Param("version") String version);
+
+    /**
+     * Строка результата findPricesBefore.
+     */
+    interface ProductPrice {
+
+        Long getId();
+
+        String getSourceUrl();
+
+        Long getPriceMinor();
+
+        String getCurrency();
+    }
 }
@@ -0,0 +1,21 @@
+package com.github.neshali.price_parser.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Строка товара для выборок каталога: только значения колонок, без управляемой сущности
+ * и снимка для dirty checking. Поля, не попавшие в выборку, равны null.
+ */
+public record ProductRow(Long id,
+                         String name,
+                         String description,
+                         Long priceMinor,
+                         String currency,
+                         Long basePriceMinor,
+                         LocalDateTime publicationDate,
+                         String sourceUrl) {
+
+    public ProductRow withDescription(String description) {
+        return new ProductRow(id, name, description, priceMinor, currency, basePriceMinor, publicationDate, sourceUrl);
+    }
+}
@@ -0,0 +1,20 @@
+package com.github.neshali.price_parser.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Выборки товаров проекциями: в SELECT попадают только колонки запрошенных полей.
+ */
+public interface ProductRowRepository {
+
+    Page<ProductRow> findRows(Set<ProductField> fields, Pageable pageable);
+
+    List<ProductRow> findRows(Set<ProductField> fields);
+
+    List<ProductRow> findRowsByIds(Set<ProductField> fields, Collection<Long> ids);
+}
@@ -0,0 +1,140 @@
+package com.github.neshali.price_parser.repository;
+
+import com.github.neshali.price_parser.domain.Product;
+import com.github.neshali.price_parser.domain.ProductDescription;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Реализация {@link ProductRowRepository} на Criteria API с кортежами:
+ * список колонок SELECT строится по набору полей, результат не попадает в persistence context.
+ *
+ * Описание выбирается как хеш; тексты страницы догружаются из product_descriptions
+ * одним запросом и распаковываются по разу на каждый различный хеш.
+ */
+@Transactional(readOnly = true)
+class ProductRowRepositoryImpl implements ProductRowRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ProductDescriptionRepository productDescriptionRepository;
+
+    ProductRowRepositoryImpl(ProductDescriptionRepository productDescriptionRepository) {
+        this.productDescriptionRepository = productDescriptionRepository;
+    }
+
+    @Override
+    public Page<ProductRow> findRows(Set<ProductField> fields, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> root = query.from(Product.class);
+        query.multiselect(selections(root, fields));
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        List<ProductRow> content = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultStream()
+                .map(tuple -> toRow(tuple, fields))
+                .toList();
+        content = withDescriptions(content, fields);
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> {
+            CriteriaQuery<Long> count = cb.createQuery(Long.class);
+            count.select(cb.count(count.from(Product.class)));
+            return entityManager.createQuery(count).getSingleResult();
+        });
+    }
+
+    @Override
+    public List<ProductRow> findRows(Set<ProductField> fields) {
+        CriteriaQuery<Tuple> query = entityManager.getCriteriaBuilder().createTupleQuery();
+        Root<Product> root = query.from(Product.class);
+        query.multiselect(selections(root, fields));
+
+        return withDescriptions(entityManager.createQuery(query).getResultStream()
+                .map(tuple -> toRow(tuple, fields))
+                .toList(), fields);
+    }
+
+    @Override
+    public List<ProductRow> findRowsByIds(Set<ProductField> fields, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        CriteriaQuery<Tuple> query = entityManager.getCriteriaBuilder().createTupleQuery();
+        Root<Product> root = query.from(Product.class);
+        query.multiselect(selections(root, fields));
+        query.where(root.get(ProductField.ID.getAttribute()).in(ids));
+
+        return withDescriptions(entityManager.createQuery(query).getResultStream()
+                .map(tuple -> toRow(tuple, fields))
+                .toList(), fields);
+    }
+
+    /**
+     * Заменяет хеши описаний в строках текстами.
+     */
+    private List<ProductRow> withDescriptions(List<ProductRow> rows, Set<ProductField> fields) {
+        if (!fields.contains(ProductField.DESCRIPTION)) {
+            return rows;
+        }
+        Set<String> hashes = rows.stream()
+                .map(ProductRow::description)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (hashes.isEmpty()) {
+            return rows;
+        }
+        Map<String, String> texts = productDescriptionRepository.findAllById(hashes).stream()
+                .collect(Collectors.toMap(ProductDescription::getHash, ProductDescription::text));
+        return rows.stream()
+                .map(row -> row.description() == null ? row : row.withDescription(texts.get(row.description())))
+                .toList();
+    }
+
+    private static List<Selection<?>> selections(Root<Product> root, Set<ProductField> fields) {
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (ProductField field : fields) {
+            selections.add(root.get(field.getAttribute()).alias(field.name()));
+        }
+        return selections;
+    }
+
+    private static ProductRow toRow(Tuple tuple, Set<ProductField> fields) {
+        return new ProductRow(
+                value(tuple, fields, ProductField.ID, Long.class),
+                value(tuple, fields, ProductField.NAME, String.class),
+                value(tuple, fields, ProductField.DESCRIPTION, String.class),
+                value(tuple, fields, ProductField.PRICE, Long.class),
+                value(tuple, fields, ProductField.CURRENCY, String.class),
+                value(tuple, fields, ProductField.BASE_PRICE, Long.class),
+                value(tuple, fields, ProductField.PUBLICATION_DATE, LocalDateTime.class),
+                value(tuple, fields, ProductField.SOURCE_URL, String.class)
+        );
+    }
+
+    private static <T> T value(Tuple tuple, Set<ProductField> fields, ProductField field, Class<T> type) {
+        return fields.contains(field) ? tuple.get(field.name(), type) : null;
+    }
+}
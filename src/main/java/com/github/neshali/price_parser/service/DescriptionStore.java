@@ -0,0 +1,69 @@
+package com.github.neshali.price_parser.service;
+
+import com.github.neshali.price_parser.domain.DescriptionCodec;
+import com.github.neshali.price_parser.domain.ProductDescription;
+import com.github.neshali.price_parser.repository.ProductDescriptionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Запись описаний товаров в хранилище с адресацией по содержимому.
+ *
+ * Повторный парсинг обычно даёт тот же текст: хеши недавно записанных описаний
+ * (до known-hashes штук) помнятся, и для них в БД не ходим вовсе.
+ */
+@Service
+public class DescriptionStore {
+
+    private final ProductDescriptionRepository productDescriptionRepository;
+    private final Set<String> knownHashes;
+
+    public DescriptionStore(
+            ProductDescriptionRepository productDescriptionRepository,
+            @Value("${price-parser.descriptions.known-hashes:10000}") int knownHashesCapacity
+    ) {
+        this.productDescriptionRepository = productDescriptionRepository;
+        this.knownHashes = Collections.synchronizedSet(Collections.newSetFromMap(
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                        return size() > knownHashesCapacity;
+                    }
+                }));
+    }
+
+    /**
+     * Сохраняет текст, если такого ещё нет.
+     *
+     * @return хеш для Product.descriptionHash или null, если описания нет
+     * @throws IllegalArgumentException если текст длиннее {@link DescriptionCodec#MAX_LENGTH}
+     */
+    public String store(String text) {
+        if (text == null) {
+            return null;
+        }
+        if (text.length() > DescriptionCodec.MAX_LENGTH) {
+            throw new IllegalArgumentException("Description is longer than " + DescriptionCodec.MAX_LENGTH + " characters");
+        }
+
+        String hash = DescriptionCodec.hash(text);
+        if (knownHashes.contains(hash)) {
+            return hash;
+        }
+        ProductDescription description = ProductDescription.of(text);
+        try {
+            productDescriptionRepository.insertIfAbsent(description.getHash(), description.getContent(),
+                    description.getOriginalLength(), description.getCreatedAt());
+        } catch (DataIntegrityViolationException e) {
+            // Тот же текст только что вставил другой поток - он уже в хранилище
+        }
+        knownHashes.add(hash);
+        return hash;
+    }
+}
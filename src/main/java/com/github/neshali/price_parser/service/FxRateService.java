@@ -0,0 +1,149 @@
+package com.github.neshali.price_parser.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Таблица курсов валют для цены в базовой валюте (Product.basePriceMinor).
+ *
+ * Курсы читаются из price-parser.fx.rates-location - файла (file:, classpath:) или HTTP-адреса -
+ * в формате properties ("USD=92.50") и держатся в памяти неизменяемым снимком {@link FxRates}.
+ * Перечитываются раз в price-parser.fx.refresh-ms; новый снимок подменяет старый целиком,
+ * и только если таблица изменилась, цены товаров пересчитываются массово
+ * (слушатель {@link FxRatesChangedEvent}), а кэш выборок сбрасывается.
+ * Если источник недоступен или файл с ошибкой, остаётся прежняя таблица.
+ *
+ * Сохранение товара берёт снимок через {@link #snapshotForSave()} и до конца своей транзакции
+ * не даёт заменить таблицу; замена ждёт такие транзакции. Поэтому массовый пересчёт
+ * после замены видит все товары, посчитанные по старой таблице, и ни один не остаётся со старой ценой.
+ */
+@Service
+public class FxRateService {
+
+    private static final Logger log = LoggerFactory.getLogger(FxRateService.class);
+
+    private final ResourceLoader resourceLoader;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductQueryCache productQueryCache;
+    private final String location;
+    private final String baseCurrency;
+
+    private final AtomicReference<FxRates> current;
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+    public FxRateService(
+            ResourceLoader resourceLoader,
+            ApplicationEventPublisher eventPublisher,
+            ProductQueryCache productQueryCache,
+            @Value("${price-parser.fx.rates-location:classpath:fx-rates.properties}") String location,
+            @Value("${price-parser.fx.base-currency:RUB}") String baseCurrency
+    ) {
+        this.resourceLoader = resourceLoader;
+        this.eventPublisher = eventPublisher;
+        this.productQueryCache = productQueryCache;
+        this.location = location;
+        this.baseCurrency = baseCurrency;
+
+        FxRates loaded = load();
+        this.current = new AtomicReference<>(loaded != null ? loaded : FxRates.empty(baseCurrency));
+    }
+
+    /**
+     * Текущая таблица курсов.
+     */
+    public FxRates current() {
+        return current.get();
+    }
+
+    /**
+     * Текущая таблица для записи товара. В активной транзакции таблица не заменяется
+     * до её завершения, иначе товар мог бы зафиксироваться со старой ценой уже после пересчёта.
+     */
+    public FxRates snapshotForSave() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return current.get();
+        }
+        Lock lock = swapLock.readLock();
+        lock.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+        return current.get();
+    }
+
+    /**
+     * Цены, сохранённые прошлым запуском, могли быть посчитаны по другой таблице;
+     * если таблица та же, пересчёт ничего не найдёт и каталог не перепишет.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recomputeOnStartup() {
+        publish(null, current.get());
+    }
+
+    /**
+     * Перечитывает таблицу курсов.
+     *
+     * @return true, если таблица изменилась и цены пересчитаны
+     */
+    @Scheduled(initialDelayString = "${price-parser.fx.refresh-ms:3600000}",
+            fixedDelayString = "${price-parser.fx.refresh-ms:3600000}")
+    public boolean refresh() {
+        FxRates loaded = load();
+        if (loaded == null || loaded.equals(current.get())) {
+            return false;
+        }
+        FxRates previous;
+        swapLock.writeLock().lock();
+        try {
+            previous = current.getAndSet(loaded);
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        log.info("FX rates changed: {} -> {}", previous, loaded);
+        publish(previous, loaded);
+        return true;
+    }
+
+    private void publish(FxRates previous, FxRates rates) {
+        // Слушатели синхронные: к сбросу кэша цены уже пересчитаны
+        eventPublisher.publishEvent(new FxRatesChangedEvent(previous, rates));
+        productQueryCache.invalidate();
+    }
+
+    private FxRates load() {
+        Resource resource = resourceLoader.getResource(location);
+        try (InputStream in = resource.getInputStream();
+             Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            Properties properties = new Properties();
+            properties.load(reader);
+            return FxRates.parse(baseCurrency, properties);
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Failed to load FX rates from {}: {}", location, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.github.neshali.price_parser.service;
+
+import com.github.neshali.price_parser.domain.Price;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Неизменяемый снимок таблицы курсов: сколько единиц базовой валюты стоит единица валюты.
+ * {@link FxRateService} подменяет снимок целиком, поэтому читатель всегда видит согласованную таблицу.
+ *
+ * Товар без валюты считается товаром в базовой валюте; для валюты без курса
+ * нормализованной цены нет (null).
+ */
+public final class FxRates {
+
+    private final String baseCurrency;
+    private final Map<String, BigDecimal> rates;
+    private final String version;
+
+    public FxRates(String baseCurrency, Map<String, BigDecimal> rates) {
+        this.baseCurrency = Objects.requireNonNull(Price.normalizeCurrency(baseCurrency), "baseCurrency");
+        TreeMap<String, BigDecimal> copy = new TreeMap<>();
+        // Без хвостовых нулей: 92.5 и 92.50 - одна и та же таблица
+        rates.forEach((code, rate) -> copy.put(code, rate.stripTrailingZeros()));
+        copy.remove(this.baseCurrency);
+        this.rates = Collections.unmodifiableMap(copy);
+        this.version = versionOf(this.baseCurrency + " " + this.rates);
+    }
+
+    public static FxRates empty(String baseCurrency) {
+        return new FxRates(baseCurrency, Map.of());
+    }
+
+    /**
+     * Таблица из properties: "USD=92.50" на строку.
+     *
+     * @throws IllegalArgumentException для неверного кода валюты или неположительного курса
+     */
+    public static FxRates parse(String baseCurrency, Properties properties) {
+        Map<String, BigDecimal> rates = new TreeMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            String code = Price.normalizeCurrency(name);
+            if (code == null) {
+                throw new IllegalArgumentException("Invalid currency code '" + name + "' in FX rates");
+            }
+            BigDecimal rate = new BigDecimal(properties.getProperty(name).trim());
+            if (rate.signum() <= 0) {
+                throw new IllegalArgumentException("FX rate for " + code + " must be positive");
+            }
+            rates.put(code, rate);
+        }
+        return new FxRates(baseCurrency, rates);
+    }
+
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+
+    /**
+     * Курсы без базовой валюты, по коду.
+     */
+    public Map<String, BigDecimal> getRates() {
+        return rates;
+    }
+
+    /**
+     * Версия таблицы: первые 8 байт SHA-256 её содержимого в hex. Одинаковые таблицы
+     * (в том числе после перезапуска) имеют одну версию.
+     */
+    public String version() {
+        return version;
+    }
+
+    public boolean isBase(String currency) {
+        return currency == null || baseCurrency.equals(currency);
+    }
+
+    /**
+     * Цена в минимальных единицах базовой валюты (округление HALF_UP) или null,
+     * если цены нет или для валюты нет курса.
+     * Минимальные единицы у всех валют одного масштаба ({@link Price#SCALE}),
+     * поэтому курс применяется к ним без перевода в крупные единицы.
+     */
+    public Long toBaseMinor(Long priceMinor, String currency) {
+        if (priceMinor == null) {
+            return null;
+        }
+        if (isBase(currency)) {
+            return priceMinor;
+        }
+        BigDecimal rate = rates.get(currency);
+        if (rate == null) {
+            return null;
+        }
+        return BigDecimal.valueOf(priceMinor).multiply(rate)
+                .setScale(0, RoundingMode.HALF_UP)
+                .longValueExact();
+    }
+
+    private static String versionOf(String content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FxRates other)) {
+            return false;
+        }
+        return baseCurrency.equals(other.baseCurrency) && rates.equals(other.rates);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(baseCurrency, rates);
+    }
+
+    @Override
+    public String toString() {
+        return baseCurrency + " " + rates;
+    }
+}
@@ -0,0 +1,10 @@
+package com.github.neshali.price_parser.service;
+
+/**
+ * Сменилась таблица курсов (или при старте нужно привести цены к ней).
+ *
+ * @param previous  прежняя таблица или null при старте
+ * @param current   новая таблица, уже доступная через {@link FxRateService#current()}
+ */
+public record FxRatesChangedEvent(FxRates previous, FxRates current) {
+}
@@ -0,0 +1,211 @@
+package com.github.neshali.price_parser.service;
+
+import com.github.neshali.price_parser.cluster.ClusterMembershipChangedEvent;
+import com.github.neshali.price_parser.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Последняя сохранённая цена по каждому URL: 64-битный хеш URL -> цена в минимальных единицах.
+ *
+ * Хранится в двух {@link LongLongMap} (цена и код валюты), поэтому миллион URL занимает
+ * десятки мегабайт, а не сотни.
+ * Заполняется из products при старте (новые товары первыми, старые записи того же URL
+ * не перетирают более свежие) и обновляется после каждого сохранения товара.
+ *
+ * Перечитывание строит новую таблицу рядом и подменяет ею текущую целиком, поэтому
+ * поиск в это время отвечает по старой таблице, а не "URL неизвестен".
+ */
+@Component
+public class LastPriceIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(LastPriceIndex.class);
+
+    /**
+     * Значение для товара без цены: отличается от любой настоящей цены.
+     */
+    private static final long NO_PRICE = Long.MIN_VALUE;
+    private static final long MISSING = Long.MIN_VALUE + 1;
+
+    /**
+     * Валюта хранится тремя символами в младших байтах long; 0 - валюта неизвестна.
+     */
+    private static final long NO_CURRENCY = 0;
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+
+    private final Object lock = new Object();
+    private final Object loadLock = new Object();
+
+    /**
+     * Текущая таблица. Под lock.
+     */
+    private Table table = new Table(0);
+
+    /**
+     * Таблица, которая сейчас заполняется из БД, или null. Под lock.
+     */
+    private Table reloading;
+
+    public LastPriceIndex(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    /**
+     * Последняя известная цена URL и её валюта.
+     *
+     * @return {@link Lookup#unknown()}, если товаров с этим URL ещё не было
+     */
+    public Lookup lookup(String url) {
+        long key = hash(url);
+        long value;
+        long currency;
+        synchronized (lock) {
+            value = table.prices.get(key, MISSING);
+            currency = table.currencies.get(key, NO_CURRENCY);
+        }
+        if (value == MISSING) {
+            return Lookup.UNKNOWN;
+        }
+        return new Lookup(true, value == NO_PRICE ? null : value, decodeCurrency(currency));
+    }
+
+    /**
+     * Запомнить цену и валюту только что сохранённого товара.
+     */
+    public void record(String url, Long priceMinor, String currency) {
+        long key = hash(url);
+        long value = priceMinor == null ? NO_PRICE : priceMinor;
+        long code = encodeCurrency(currency);
+        synchronized (lock) {
+            table.put(key, value, code);
+            // Заполняемая таблица не должна потерять цену, сохранённую во время загрузки
+            if (reloading != null) {
+                reloading.put(key, value, code);
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (lock) {
+            return table.prices.size();
+        }
+    }
+
+    /**
+     * Заполнить новую таблицу из products порциями, от новых товаров к старым, и подменить ею текущую.
+     * Можно вызывать параллельно с record(): более свежая цена не будет перетёрта.
+     */
+    public void load() {
+        synchronized (loadLock) {
+            long started = System.nanoTime();
+            Table target;
+            synchronized (lock) {
+                target = new Table(table.prices.size());
+                reloading = target;
+            }
+
+            long beforeId = Long.MAX_VALUE;
+            int rows = 0;
+            List<ProductRepository.ProductPrice> batch;
+            while (!(batch = productRepository.findPricesBefore(beforeId, PageRequest.of(0, LOAD_BATCH_SIZE))).isEmpty()) {
+                synchronized (lock) {
+                    for (ProductRepository.ProductPrice row : batch) {
+                        target.putIfAbsent(hash(row.getSourceUrl()),
+                                row.getPriceMinor() == null ? NO_PRICE : row.getPriceMinor(),
+                                encodeCurrency(row.getCurrency()));
+                    }
+                }
+                rows += batch.size();
+                beforeId = batch.get(batch.size() - 1).getId();
+            }
+
+            synchronized (lock) {
+                table = target;
+                reloading = null;
+            }
+            log.info("Loaded last prices of {} URLs from {} products in {} ms",
+                    size(), rows, (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    /**
+     * В кластере после смены состава узел получает новые партиции: цены их URL
+     * могли меняться другими узлами, поэтому индекс перечитывается (старая таблица
+     * отвечает до готовности новой).
+     */
+    @EventListener
+    public void onMembershipChanged(ClusterMembershipChangedEvent event) {
+        load();
+    }
+
+    /**
+     * 64-битный FNV-1a по символам URL. Ноль зарезервирован в {@link LongLongMap}.
+     */
+    static long hash(String url) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < url.length(); i++) {
+            h ^= url.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h == 0 ? 1 : h;
+    }
+
+    static long encodeCurrency(String currency) {
+        if (currency == null || currency.length() != 3) {
+            return NO_CURRENCY;
+        }
+        return ((long) currency.charAt(0) << 32) | ((long) currency.charAt(1) << 16) | currency.charAt(2);
+    }
+
+    static String decodeCurrency(long code) {
+        if (code == NO_CURRENCY) {
+            return null;
+        }
+        return new String(new char[]{(char) (code >>> 32), (char) (code >>> 16), (char) code});
+    }
+
+    /**
+     * Цены и валюты URL; заменяются вместе.
+     */
+    private static final class Table {
+
+        private final LongLongMap prices;
+        private final LongLongMap currencies;
+
+        private Table(int expectedSize) {
+            prices = new LongLongMap(expectedSize);
+            currencies = new LongLongMap(expectedSize);
+        }
+
+        private void put(long key, long price, long currency) {
+            prices.put(key, price);
+            currencies.put(key, currency);
+        }
+
+        private void putIfAbsent(long key, long price, long currency) {
+            if (prices.get(key, MISSING) == MISSING) {
+                put(key, price, currency);
+            }
+        }
+    }
+
+    /**
+     * Результат поиска: known = false, если URL ещё не встречался; priceMinor и currency могут быть null.
+     */
+    public record Lookup(boolean known, Long priceMinor, String currency) {
+
+        private static final Lookup UNKNOWN = new Lookup(false, null, null);
+
+        public static Lookup unknown() {
+            return UNKNOWN;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.github.neshali.price_parser.service;
+
+/**
+ * Компактное отображение long -> long с открытой адресацией (линейное пробирование)
+ * на двух массивах примитивов: ~32 байта на запись вместо ~100 у HashMap<Long, Long>.
+ *
+ * Ключ 0 зарезервирован под пустую ячейку. Удаления не поддерживаются.
+ * Не потокобезопасно: синхронизирует владелец.
+ */
+final class LongLongMap {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private long[] values;
+    private int size;
+
+    LongLongMap() {
+        this(MIN_CAPACITY);
+    }
+
+    LongLongMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(MIN_CAPACITY, expectedSize * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new long[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    long get(long key, long missing) {
+        checkKey(key);
+        int mask = keys.length - 1;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+            if (keys[i] == 0) {
+                return missing;
+            }
+        }
+    }
+
+    void put(long key, long value) {
+        insert(key, value, true);
+    }
+
+    void putIfAbsent(long key, long value) {
+        insert(key, value, false);
+    }
+
+    private void insert(long key, long value, boolean overwrite) {
+        checkKey(key);
+        int mask = keys.length - 1;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                if (overwrite) {
+                    values[i] = value;
+                }
+                return;
+            }
+            if (keys[i] == 0) {
+                keys[i] = key;
+                values[i] = value;
+                // Заполненность не больше половины: цепочки пробирования остаются короткими
+                if (++size * 2 > keys.length) {
+                    rehash(keys.length << 1);
+                }
+                return;
+            }
+        }
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = new long[capacity];
+        values = new long[capacity];
+        int mask = capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != 0) {
+                int i = mix(oldKeys[j]) & mask;
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static void checkKey(long key) {
+        if (key == 0) {
+            throw new IllegalArgumentException("Key 0 is reserved");
+        }
+    }
+}
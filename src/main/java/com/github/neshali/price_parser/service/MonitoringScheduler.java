@@ -0,0 +1,24 @@
+package com.github.neshali.price_parser.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class MonitoringScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(MonitoringScheduler.class);
+
+    private final MonitoringService monitoringService;
+
+    public MonitoringScheduler(MonitoringService monitoringService) {
+        this.monitoringService = monitoringService;
+    }
+
+    @Scheduled(fixedDelayString = "${price-parser.monitoring.tick-ms:5000}")
+    public void scheduleMonitoringCycle() {
+        log.debug("MonitoringScheduler tick: checking for due monitoring checks");
+        monitoringService.scheduleDueChecks();
+    }
+}
@@ -0,0 +1,149 @@
+package com.github.neshali.price_parser.service;
+
+import com.github.neshali.price_parser.cluster.ClusterMembership;
+import com.github.neshali.price_parser.domain.MonitoredUrl;
+import com.github.neshali.price_parser.domain.ParsingTask;
+import com.github.neshali.price_parser.domain.ParsingTaskStatus;
+import com.github.neshali.price_parser.repository.MonitoredUrlRepository;
+import com.github.neshali.price_parser.repository.ParsingTaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Регулярный мониторинг цен: URL с периодом проверки превращаются в задачи парсинга по расписанию.
+ *
+ * Расписание - индекс по next_due_at: за тик читается не больше batch-size наступивших записей,
+ * поэтому стоимость тика зависит от числа наступивших проверок, а не от числа URL под мониторингом.
+ * Следующий срок сдвигается на период со случайным отклонением jitter-percent, чтобы URL,
+ * добавленные одновременно, не приходили пачкой каждый период. Пока очередь NEW
+ * больше max-pending-tasks, новые задачи не создаются: просроченные проверки подождут.
+ * Каждая наступившая запись забирается условным UPDATE по прочитанному next_due_at,
+ * поэтому одну проверку не превратят в задачу дважды ни параллельные тики, ни два узла.
+ */
+@Service
+public class MonitoringService {
+
+    private static final Logger log = LoggerFactory.getLogger(MonitoringService.class);
+
+    private final MonitoredUrlRepository monitoredUrlRepository;
+    private final ParsingTaskRepository parsingTaskRepository;
+    private final ParsingTaskStats parsingTaskStats;
+    private final ClusterMembership clusterMembership;
+    private final int batchSize;
+    private final int jitterPercent;
+    private final long maxPendingTasks;
+
+    public MonitoringService(
+            MonitoredUrlRepository monitoredUrlRepository,
+            ParsingTaskRepository parsingTaskRepository,
+            ParsingTaskStats parsingTaskStats,
+            ClusterMembership clusterMembership,
+            @Value("${price-parser.monitoring.batch-size:500}") int batchSize,
+            @Value("${price-parser.monitoring.jitter-percent:10}") int jitterPercent,
+            @Value("${price-parser.monitoring.max-pending-tasks:10000}") long maxPendingTasks
+    ) {
+        this.monitoredUrlRepository = monitoredUrlRepository;
+        this.parsingTaskRepository = parsingTaskRepository;
+        this.parsingTaskStats = parsingTaskStats;
+        this.clusterMembership = clusterMembership;
+        this.batchSize = batchSize;
+        this.jitterPercent = jitterPercent;
+        this.maxPendingTasks = maxPendingTasks;
+    }
+
+    /**
+     * Поставить URL на мониторинг или изменить период уже поставленного.
+     * Первая проверка нового URL - в пределах jitter-percent от периода.
+     */
+    @Transactional
+    public MonitoredUrl monitor(String url, long intervalSeconds) {
+        LocalDateTime now = LocalDateTime.now();
+        MonitoredUrl monitored = monitoredUrlRepository.findByUrl(url).orElse(null);
+        if (monitored == null) {
+            monitored = new MonitoredUrl();
+            monitored.setUrl(url);
+            monitored.setNextDueAt(now.plusSeconds(randomSeconds(intervalSeconds * jitterPercent / 100)));
+        } else if (monitored.getLastScheduledAt() != null) {
+            // Новый период действует от последней проверки, а не от момента изменения
+            LocalDateTime next = monitored.getLastScheduledAt().plusSeconds(intervalSeconds);
+            monitored.setNextDueAt(next.isBefore(now) ? now : next);
+        }
+        monitored.setIntervalSeconds(intervalSeconds);
+        return monitoredUrlRepository.save(monitored);
+    }
+
+    /**
+     * Создать задачи для наступивших проверок (не больше batch-size за вызов).
+     *
+     * @return сколько задач создано
+     */
+    @Transactional
+    public int scheduleDueChecks() {
+        long pending = parsingTaskStats.count(ParsingTaskStatus.NEW);
+        if (pending >= maxPendingTasks) {
+            log.debug("Parsing queue has {} NEW tasks, postponing due monitoring checks", pending);
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Set<Integer> partitions = clusterMembership.ownedPartitions();
+        PageRequest batch = PageRequest.of(0, (int) Math.min(batchSize, maxPendingTasks - pending));
+        List<MonitoredUrl> due;
+        if (partitions == null) {
+            due = monitoredUrlRepository.findByNextDueAtLessThanEqualOrderByNextDueAtAsc(now, batch);
+        } else if (partitions.isEmpty()) {
+            return 0;
+        } else {
+            due = monitoredUrlRepository.findByPartitionInAndNextDueAtLessThanEqualOrderByNextDueAtAsc(
+                    partitions, now, batch);
+        }
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        List<ParsingTask> tasks = new ArrayList<>(due.size());
+        for (MonitoredUrl monitored : due) {
+            // От текущего момента, а не от прошлого срока: после простоя нет лавины догоняющих проверок.
+            // Задача создаётся только если запись забрана этим тиком: параллельный тик или узел
+            // после ребалансировки партиций уже сдвинул next_due_at и получит 0 строк
+            LocalDateTime next = nextDueAt(now, monitored.getIntervalSeconds());
+            if (monitoredUrlRepository.claimDue(monitored.getId(), monitored.getNextDueAt(), now, next) != 1) {
+                continue;
+            }
+            ParsingTask task = new ParsingTask();
+            task.setUrl(monitored.getUrl());
+            task.setStatus(ParsingTaskStatus.NEW);
+            task.setPartition(monitored.getPartition());
+            tasks.add(task);
+        }
+        if (tasks.isEmpty()) {
+            return 0;
+        }
+        for (ParsingTask saved : parsingTaskRepository.saveAll(tasks)) {
+            parsingTaskStats.onCreated(saved.getCreatedAt());
+        }
+
+        log.info("Scheduled {} monitoring checks", tasks.size());
+        return tasks.size();
+    }
+
+    LocalDateTime nextDueAt(LocalDateTime now, long intervalSeconds) {
+        long jitter = intervalSeconds * jitterPercent / 100;
+        long offset = jitter == 0 ? 0 : ThreadLocalRandom.current().nextLong(-jitter, jitter + 1);
+        return now.plusSeconds(Math.max(1, intervalSeconds + offset));
+    }
+
+    private static long randomSeconds(long bound) {
+        return bound <= 0 ? 0 : ThreadLocalRandom.current().nextLong(bound + 1);
+    }
+}
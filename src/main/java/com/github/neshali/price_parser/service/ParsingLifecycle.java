@@ -0,0 +1,56 @@
+package com.github.neshali.price_parser.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Жизненный цикл обработки задач: при старте загружает последние цены товаров
+ * и возвращает в очередь задачи, брошенные аварийно остановленным процессом,
+ * при закрытии контекста - плавная остановка.
+ *
+ * Фаза DEFAULT_PHASE: останавливается раньше веб-сервера и до уничтожения бинов,
+ * поэтому БД ещё доступна для возврата незавершённых задач в NEW.
+ */
+@Component
+public class ParsingLifecycle implements SmartLifecycle {
+
+    private final ParsingTaskProcessingService processingService;
+    private final LastPriceIndex lastPriceIndex;
+    private final Duration gracePeriod;
+
+    private volatile boolean running;
+
+    public ParsingLifecycle(
+            ParsingTaskProcessingService processingService,
+            LastPriceIndex lastPriceIndex,
+            @Value("${price-parser.shutdown.grace-period-ms:20000}") long gracePeriodMs
+    ) {
+        this.processingService = processingService;
+        this.lastPriceIndex = lastPriceIndex;
+        this.gracePeriod = Duration.ofMillis(gracePeriodMs);
+    }
+
+    @Override
+    public void start() {
+        // До первой задачи: иначе неизменившиеся товары ушли бы в запись как новые
+        lastPriceIndex.load();
+        processingService.recoverOrphanedTasks();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        if (running) {
+            running = false;
+            processingService.shutdownGracefully(gracePeriod);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -1,96 +1,515 @@
 package com.github.neshali.price_parser.service;
 
+import com.github.neshali.price_parser.cluster.ClusterMembership;
+import com.github.neshali.price_parser.cluster.ClusterMembershipChangedEvent;
 import com.github.neshali.price_parser.domain.ParsingTask;
 import com.github.neshali.price_parser.domain.ParsingTaskStatus;
 import com.github.neshali.price_parser.domain.Product;
+import com.github.neshali.price_parser.domain.TaskPartitions;
+import com.github.neshali.price_parser.integration.PageStatusException;
+import com.github.neshali.price_parser.pipeline.ConcurrencyLimiter;
+import com.github.neshali.price_parser.pipeline.ParsingPipeline;
+import com.github.neshali.price_parser.pipeline.ParsingStage;
+import com.github.neshali.price_parser.profiling.TaskPhase;
+import com.github.neshali.price_parser.profiling.TaskTimer;
+import com.github.neshali.price_parser.profiling.TaskTimingRecorder;
 import com.github.neshali.price_parser.repository.ParsingTaskRepository;
-import com.github.neshali.price_parser.repository.ProductRepository;
+import io.netty.channel.ConnectTimeoutException;
+import io.netty.handler.timeout.ReadTimeoutException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
+/**
+ * Обработка задач парсинга.
+ *
+ * Задача проходит стадии конвейера {@link ParsingPipeline}:
+ * FETCH (загрузка и извлечение) -> ENRICH (внешний сервис) -> PERSIST (товар и статус в БД).
+ * Перед записью цена сравнивается с последней сохранённой ({@link PriceChangeDetector}):
+ * если она не изменилась, товар не пишется.
+ * Ошибка на любой стадии передаётся сразу в PERSIST, чтобы записать статус FAILED.
+ * Статус меняется одним UPDATE с проверкой текущего статуса и версии (compare-and-set),
+ * без загрузки и сохранения всей сущности.
+ *
+ * Одновременные задачи с одним URL (с точностью до нормализации) загружаются и обогащаются
+ * один раз ({@link SingleFlight}): остальные ждут результат первой, не занимая поток загрузки,
+ * и каждая сохраняет его и меняет свой статус сама.
+ *
+ * Сколько задач одновременно в работе, решает {@link ConcurrencyLimiter}: за тик берётся не больше
+ * свободных мест в лимите (и не больше max-tasks-per-tick), а по завершении каждой задачи
+ * лимиту сообщается её задержка и исход.
+ *
+ * Время каждого отрезка задачи (взятие, загрузка, обогащение, записи в БД) замеряет
+ * {@link TaskTimingRecorder}: JFR-события и выборка самых медленных задач.
+ *
+ * Задачи, взятые в работу (IN_PROGRESS), но ещё не сохранённые, учитываются в claimedTasks:
+ * при остановке приложения те из них, что не успели завершиться, возвращаются в NEW.
+ *
+ * В кластерном режиме ({@link ClusterMembership}) узел берёт только задачи своих партиций
+ * и записывает себя владельцем; задачи ушедших узлов возвращаются в NEW при смене состава.
+ */
 @Service
 public class ParsingTaskProcessingService {
 
     private static final Logger log = LoggerFactory.getLogger(ParsingTaskProcessingService.class);
 
+    /**
+     * Ограничение колонки parsing_tasks.error_message.
+     */
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 2000;
+
     private final ParsingTaskRepository parsingTaskRepository;
-    private final ProductRepository productRepository;
+    private final ProductPersistenceService productPersistenceService;
+    private final PriceChangeDetector priceChangeDetector;
     private final PriceParsingService priceParsingService;
-    private final ExecutorService parsingExecutorService;
+    private final ProductQueryCache productQueryCache;
+    private final ParsingPipeline parsingPipeline;
+    private final ParsingTaskStats parsingTaskStats;
+    private final ClusterMembership clusterMembership;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final TaskTimingRecorder taskTimingRecorder;
     private final int maxTasksPerTick;
 
+    private final Set<Long> claimedTasks = ConcurrentHashMap.newKeySet();
+    private final SingleFlight<String, Product> parseFlights = new SingleFlight<>();
+    private volatile boolean accepting = true;
+
     public ParsingTaskProcessingService(
             ParsingTaskRepository parsingTaskRepository,
-            ProductRepository productRepository,
+            ProductPersistenceService productPersistenceService,
+            PriceChangeDetector priceChangeDetector,
             PriceParsingService priceParsingService,
-            @Qualifier("parsingExecutorService") ExecutorService parsingExecutorService,
+            ProductQueryCache productQueryCache,
+            ParsingPipeline parsingPipeline,
+            ParsingTaskStats parsingTaskStats,
+            ClusterMembership clusterMembership,
+            ConcurrencyLimiter concurrencyLimiter,
+            TaskTimingRecorder taskTimingRecorder,
             @Value("${price-parser.parser.max-tasks-per-tick:10}") int maxTasksPerTick
     ) {
         this.parsingTaskRepository = parsingTaskRepository;
-        this.productRepository = productRepository;
+        this.productPersistenceService = productPersistenceService;
+        this.priceChangeDetector = priceChangeDetector;
         this.priceParsingService = priceParsingService;
-        this.parsingExecutorService = parsingExecutorService;
+        this.productQueryCache = productQueryCache;
+        this.parsingPipeline = parsingPipeline;
+        this.parsingTaskStats = parsingTaskStats;
+        this.clusterMembership = clusterMembership;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.taskTimingRecorder = taskTimingRecorder;
         this.maxTasksPerTick = maxTasksPerTick;
     }
 
     public void submitNewTasksForParsing() {
-        List<ParsingTask> newTasks = parsingTaskRepository.findByStatus(ParsingTaskStatus.NEW);
+        if (!accepting) {
+            log.debug("Parsing is shutting down, not claiming new tasks");
+            return;
+        }
 
-        if (newTasks.isEmpty()) {
-            log.debug("No NEW parsing tasks found");
+        int batchSize = Math.min(maxTasksPerTick, concurrencyLimiter.available());
+        if (batchSize == 0) {
+            log.debug("Concurrency limit {} reached, not claiming new tasks", concurrencyLimiter.getLimit());
+            return;
+        }
+
+        // Читаем только очередную порцию, а не всю очередь NEW
+        Set<Integer> partitions = clusterMembership.ownedPartitions();
+        List<ParsingTask> tasksToProcess;
+        if (partitions == null) {
+            tasksToProcess = parsingTaskRepository.findByStatusOrderByCreatedAtAsc(
+                    ParsingTaskStatus.NEW, PageRequest.of(0, batchSize));
+        } else if (partitions.isEmpty()) {
+            log.debug("Node {} owns no partitions yet", clusterMembership.getNodeId());
             return;
+        } else {
+            tasksToProcess = parsingTaskRepository.findByStatusAndPartitionInOrderByCreatedAtAsc(
+                    ParsingTaskStatus.NEW, partitions, PageRequest.of(0, batchSize));
         }
 
-        List<ParsingTask> tasksToProcess = newTasks.stream()
-                .limit(maxTasksPerTick)
-                .toList();
+        if (tasksToProcess.isEmpty()) {
+            log.debug("No NEW parsing tasks found");
+            return;
+        }
 
         log.info("Submitting {} parsing tasks for processing", tasksToProcess.size());
 
         for (ParsingTask task : tasksToProcess) {
-            Long taskId = task.getId();
+            ConcurrencyLimiter.Permit permit = concurrencyLimiter.tryAcquire();
+            if (permit == null) {
+                // Лимит снизился, пока читалась порция
+                log.debug("Concurrency limit reached, postponing remaining tasks starting from {}", task.getId());
+                return;
+            }
+            // IN_PROGRESS ставится одним UPDATE; если задачу уже взял другой поток или узел - пропускаем
+            Claim claim = tryClaim(task, permit);
+            if (claim == null) {
+                concurrencyLimiter.release(permit);
+                log.debug("Task {} was claimed concurrently, skipping", task.getId());
+                continue;
+            }
+            claimedTasks.add(claim.taskId());
 
-            task.setStatus(ParsingTaskStatus.IN_PROGRESS);
-            task.setErrorMessage(null);
-            parsingTaskRepository.save(task); // статус IN_PROGRESS сохранили
+            if (!parsingPipeline.submit(ParsingStage.FETCH, () -> fetchStage(claim))) {
+                // Очередь загрузки заполнена: лимит выше пропускной способности, остальные задачи - до следующего тика
+                claimedTasks.remove(claim.taskId());
+                concurrencyLimiter.onFailure(permit);
+                transition(claim, ParsingTaskStatus.NEW, null);
+                log.info("Fetch stage queue is full, postponing remaining tasks starting from {}", claim.taskId());
+                return;
+            }
+        }
+    }
 
-            parsingExecutorService.submit(() -> {
-                try {
-                    processTask(taskId);
-                } catch (Exception ex) {
-                    log.error("Unexpected error while processing task {}", taskId, ex);
-                }
-            });
+    /**
+     * Возвращает в NEW задачи, оставшиеся IN_PROGRESS после аварийной остановки
+     * (при плавной остановке их не остаётся). Вызывается при старте, пока конвейер пуст.
+     */
+    public void recoverOrphanedTasks() {
+        if (clusterMembership.isEnabled()) {
+            // Задачи других узлов трогать нельзя: их вернёт onMembershipChanged
+            return;
+        }
+        int released = parsingTaskRepository.transitionAll(
+                ParsingTaskStatus.IN_PROGRESS, ParsingTaskStatus.NEW, LocalDateTime.now());
+        if (released > 0) {
+            parsingTaskStats.onTransition(ParsingTaskStatus.IN_PROGRESS, ParsingTaskStatus.NEW, released);
+            log.warn("Released {} parsing tasks left IN_PROGRESS by a previous run", released);
+        }
+    }
+
+    /**
+     * Смена состава кластера: задачи узлов, выпавших из него, возвращаются в NEW.
+     * При первом входе узла возвращаются и задачи его прошлого запуска с тем же node-id.
+     */
+    @EventListener
+    public void onMembershipChanged(ClusterMembershipChangedEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        int released = parsingTaskRepository.releaseOrphaned(event.aliveNodes(), now);
+        if (event.firstJoin()) {
+            released += parsingTaskRepository.releaseOwnedBy(event.nodeId(), now);
+            assignMissingPartitions();
+        }
+        if (released > 0) {
+            parsingTaskStats.onTransition(ParsingTaskStatus.IN_PROGRESS, ParsingTaskStatus.NEW, released);
+            log.warn("Released {} parsing tasks owned by nodes that left the cluster", released);
+        }
+    }
+
+    /**
+     * Проставляет партицию задачам, созданным до её появления: без неё их не возьмёт ни один узел.
+     */
+    private void assignMissingPartitions() {
+        List<ParsingTaskRepository.TaskUrl> batch;
+        while (!(batch = parsingTaskRepository.findWithoutPartition(PageRequest.of(0, 500))).isEmpty()) {
+            Map<Integer, List<Long>> byPartition = batch.stream().collect(Collectors.groupingBy(
+                    task -> TaskPartitions.of(task.getUrl()),
+                    Collectors.mapping(ParsingTaskRepository.TaskUrl::getId, Collectors.toCollection(ArrayList::new))));
+            byPartition.forEach((partition, ids) -> parsingTaskRepository.assignPartition(ids, partition));
+            log.info("Assigned partitions to {} parsing tasks", batch.size());
+        }
+    }
+
+    /**
+     * Плавная остановка обработки: новые задачи не берутся, задачи в работе
+     * доводятся до конца за gracePeriod, остальные взятые задачи одним UPDATE
+     * возвращаются в NEW и будут обработаны после перезапуска.
+     */
+    public void shutdownGracefully(Duration gracePeriod) {
+        accepting = false;
+        log.info("Draining parsing pipeline: {} claimed tasks, grace period {} ms",
+                claimedTasks.size(), gracePeriod.toMillis());
+
+        boolean drained = parsingPipeline.drain(gracePeriod);
+
+        List<Long> unfinished = List.copyOf(claimedTasks);
+        if (!unfinished.isEmpty()) {
+            int released = parsingTaskRepository.releaseToNew(unfinished, LocalDateTime.now());
+            claimedTasks.removeAll(unfinished);
+            parsingTaskStats.onTransition(ParsingTaskStatus.IN_PROGRESS, ParsingTaskStatus.NEW, released);
+            log.info("Released {} unfinished parsing tasks back to NEW", released);
         }
+        log.info("Parsing pipeline stopped (drained in time: {})", drained);
     }
 
+    /**
+     * Синхронная обработка задачи в текущем потоке, все стадии подряд.
+     */
     public void processTask(Long taskId) {
-        ParsingTask task = parsingTaskRepository.findById(taskId)
-                .orElseThrow(() -> new IllegalStateException("ParsingTask not found: " + taskId));
+        ParsingTask task = findTask(taskId);
+        Claim claim = new Claim(taskId, task.getUrl(), task.getStatus(), task.getVersion(), null,
+                taskTimingRecorder.start(taskId, task.getUrl()));
+        log.debug("Started processing task {} with URL {}", taskId, task.getUrl());
 
+        boolean succeeded = false;
         try {
-            log.debug("Started processing task {} with URL {}", taskId, task.getUrl());
+            Product product;
+            try (TaskTimer.Span ignored = claim.timer().phase(TaskPhase.FETCH)) {
+                product = priceParsingService.fetch(task.getUrl());
+            }
+            try (TaskTimer.Span ignored = claim.timer().phase(TaskPhase.ENRICH)) {
+                priceParsingService.enrich(product);
+            }
+            persist(claim, product);
+            succeeded = true;
+        } catch (Exception e) {
+            markFailed(claim, e);
+        } finally {
+            taskTimingRecorder.finish(claim.timer(), succeeded);
+        }
+    }
 
-            Product product = priceParsingService.parseProduct(task.getUrl());
-            productRepository.save(product);
+    private void fetchStage(Claim claim) {
+        if (!accepting) {
+            // Остановка уже началась: задача останется в claimedTasks и вернётся в NEW
+            return;
+        }
+        String key = flightKey(claim.url());
+        SingleFlight.Flight<Product> flight = parseFlights.join(key);
+        if (!flight.leader()) {
+            log.debug("Task {} joined in-flight parse of {}", claim.taskId(), key);
+            TaskTimer.Span waiting = claim.timer().phase(TaskPhase.COALESCED);
+            flight.result().whenComplete((product, error) -> {
+                waiting.close();
+                if (error != null) {
+                    Exception cause = error instanceof Exception e ? e : new IllegalStateException(error);
+                    handOff(claim, ParsingStage.PERSIST, () -> failStage(claim, cause));
+                } else {
+                    Product copy = copyOf(product, claim.url());
+                    handOff(claim, ParsingStage.PERSIST, () -> persistStage(claim, copy));
+                }
+            });
+            return;
+        }
 
-            task.setStatus(ParsingTaskStatus.COMPLETED);
-            task.setErrorMessage(null);
+        log.debug("Started processing task {} with URL {}", claim.taskId(), claim.url());
+        Product product;
+        try (TaskTimer.Span ignored = claim.timer().phase(TaskPhase.FETCH)) {
+            product = priceParsingService.fetch(claim.url());
+        } catch (Exception e) {
+            parseFlights.fail(key, flight, e);
+            handOff(claim, ParsingStage.PERSIST, () -> failStage(claim, e));
+            return;
+        }
+        if (!handOff(claim, ParsingStage.ENRICH, () -> enrichStage(claim, key, flight, product))) {
+            parseFlights.fail(key, flight, new IllegalStateException("Parsing of " + claim.url() + " was interrupted"));
+        }
+    }
 
-            log.info("Task {} completed successfully", taskId);
+    private void enrichStage(Claim claim, String key, SingleFlight.Flight<Product> flight, Product product) {
+        try (TaskTimer.Span ignored = claim.timer().phase(TaskPhase.ENRICH)) {
+            priceParsingService.enrich(product);
         } catch (Exception e) {
-            task.setStatus(ParsingTaskStatus.FAILED);
-            task.setErrorMessage(e.getMessage());
-            log.warn("Failed to process task {} for url {}: {}",
-                    taskId, task.getUrl(), e.getMessage());
+            parseFlights.fail(key, flight, e);
+            handOff(claim, ParsingStage.PERSIST, () -> failStage(claim, e));
+            return;
         }
+        // Ожидающие задачи получают копии до того, как свой товар уйдёт на сохранение
+        parseFlights.complete(key, flight, product);
+        handOff(claim, ParsingStage.PERSIST, () -> persistStage(claim, product));
+    }
+
+    private void persistStage(Claim claim, Product product) {
+        Exception error = null;
+        try {
+            persist(claim, product);
+        } catch (Exception e) {
+            error = e;
+            markFailed(claim, e);
+        } finally {
+            finish(claim, error);
+        }
+    }
+
+    private void failStage(Claim claim, Exception error) {
+        try {
+            markFailed(claim, error);
+        } finally {
+            finish(claim, error);
+        }
+    }
+
+    /**
+     * @param error ошибка задачи или null, если она завершилась успешно
+     */
+    private void finish(Claim claim, Exception error) {
+        claimedTasks.remove(claim.taskId());
+        taskTimingRecorder.finish(claim.timer(), error == null);
+        if (error == null) {
+            concurrencyLimiter.onSuccess(claim.permit());
+        } else if (isOverload(error)) {
+            concurrencyLimiter.onFailure(claim.permit());
+        } else {
+            concurrencyLimiter.onError(claim.permit());
+        }
+    }
+
+    /**
+     * Ошибка говорит о перегрузке сайта или конвейера, а не о содержимом страницы:
+     * таймаут, 429/5xx или отказ пула. Причины просматриваются по цепочке,
+     * так как block() и CompletableFuture оборачивают исходное исключение.
+     */
+    static boolean isOverload(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException
+                    || cause instanceof SocketTimeoutException
+                    || cause instanceof ReadTimeoutException
+                    || cause instanceof ConnectTimeoutException
+                    || cause instanceof RejectedExecutionException
+                    || (cause instanceof PageStatusException status && status.isOverload())) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private void persist(Claim claim, Product product) {
+        try (TaskTimer.Span ignored = claim.timer().phase(TaskPhase.SAVE_PRODUCT)) {
+            PriceChange change = priceChangeDetector.detect(product);
+            if (change.isUnchanged()) {
+                // Цена не сдвинулась больше порога: товар и событие не пишем, задача всё равно завершена
+                log.debug("Price for {} has not changed, skipping write", claim.url());
+            } else {
+                // Товар и событие для ленты изменений - одной транзакцией
+                productPersistenceService.save(product, change);
+                priceChangeDetector.onSaved(product);
+                productQueryCache.invalidate();
+            }
+        }
+
+        if (transition(claim, ParsingTaskStatus.COMPLETED, null)) {
+            log.info("Task {} completed successfully", claim.taskId());
+        }
+    }
+
+    private void markFailed(Claim claim, Exception e) {
+        log.warn("Failed to process task {} for url {}: {}",
+                claim.taskId(), claim.url(), e.getMessage());
+        transition(claim, ParsingTaskStatus.FAILED, truncate(e.getMessage()));
+    }
+
+    private Claim tryClaim(ParsingTask task, ConcurrencyLimiter.Permit permit) {
+        TaskTimer timer = taskTimingRecorder.start(task.getId(), task.getUrl());
+        int updated;
+        try (TaskTimer.Span ignored = timer.phase(TaskPhase.CLAIM)) {
+            updated = parsingTaskRepository.claim(
+                    task.getId(), task.getVersion(), clusterMembership.getNodeId(), LocalDateTime.now());
+        }
+        if (updated == 1) {
+            parsingTaskStats.onTransition(ParsingTaskStatus.NEW, ParsingTaskStatus.IN_PROGRESS, 1);
+        }
+        return updated == 1
+                ? new Claim(task.getId(), task.getUrl(), ParsingTaskStatus.IN_PROGRESS, task.getVersion() + 1,
+                        permit, timer)
+                : null;
+    }
+
+    /**
+     * Переводит задачу из статуса и версии, зафиксированных в claim, в статус to.
+     *
+     * @return false, если задачу за это время изменил кто-то другой
+     */
+    private boolean transition(Claim claim, ParsingTaskStatus to, String errorMessage) {
+        int updated;
+        try (TaskTimer.Span ignored = claim.timer().phase(TaskPhase.SAVE_STATUS)) {
+            updated = parsingTaskRepository.compareAndSetStatus(
+                    claim.taskId(), claim.status(), claim.version(), to, errorMessage, LocalDateTime.now());
+        }
+        if (updated == 0) {
+            log.warn("Task {} was modified concurrently, status {} -> {} skipped", claim.taskId(), claim.status(), to);
+            return false;
+        }
+        parsingTaskStats.onTransition(claim.status(), to, 1);
+        return true;
+    }
+
+    /**
+     * @return false, если задача не передана (остановка): она останется в claimedTasks
+     */
+    private boolean handOff(Claim claim, ParsingStage stage, Runnable next) {
+        try {
+            parsingPipeline.handOff(stage, next);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while handing task {} to stage {}", claim.taskId(), stage);
+        } catch (RejectedExecutionException e) {
+            log.warn("Task {} dropped: stage {} is shut down", claim.taskId(), stage);
+        }
+        return false;
+    }
+
+    /**
+     * Ключ объединения: схема и хост без учёта регистра, без порта по умолчанию и фрагмента.
+     */
+    static String flightKey(String url) {
+        try {
+            URI uri = new URI(url.trim());
+            if (uri.getScheme() == null || uri.getHost() == null) {
+                return url.trim();
+            }
+            String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+            int port = uri.getPort();
+            if (("http".equals(scheme) && port == 80) || ("https".equals(scheme) && port == 443)) {
+                port = -1;
+            }
+            String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+            return scheme + "://" + uri.getHost().toLowerCase(Locale.ROOT)
+                    + (port == -1 ? "" : ":" + port)
+                    + path
+                    + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery());
+        } catch (URISyntaxException e) {
+            return url.trim();
+        }
+    }
+
+    private static Product copyOf(Product product, String sourceUrl) {
+        return Product.builder()
+                .name(product.getName())
+                .description(product.getDescription())
+                .priceMinor(product.getPriceMinor())
+                .currency(product.getCurrency())
+                .publicationDate(product.getPublicationDate())
+                .sourceUrl(sourceUrl)
+                .build();
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > MAX_ERROR_MESSAGE_LENGTH
+                ? message.substring(0, MAX_ERROR_MESSAGE_LENGTH)
+                : message;
+    }
+
+    private ParsingTask findTask(Long taskId) {
+        return parsingTaskRepository.findById(taskId)
+                .orElseThrow(() -> new IllegalStateException("ParsingTask not found: " + taskId));
+    }
 
-        parsingTaskRepository.save(task);
+    /**
+     * Задача, взятая в работу: статус и версия, которые она имела на момент последнего UPDATE,
+     * место в лимите задач в работе (null при синхронной обработке) и замер времени.
+     */
+    private record Claim(Long taskId, String url, ParsingTaskStatus status, long version,
+                         ConcurrencyLimiter.Permit permit, TaskTimer timer) {
     }
 }
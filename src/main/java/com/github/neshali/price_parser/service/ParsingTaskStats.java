@@ -0,0 +1,155 @@
+package com.github.neshali.price_parser.service;
+
+import com.github.neshali.price_parser.domain.ParsingTaskStatus;
+import com.github.neshali.price_parser.repository.ParsingTaskRepository;
+import com.github.neshali.price_parser.web.dto.TaskStatsResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счётчики задач парсинга по статусам, которые обновляются на каждом переходе,
+ * а не считаются запросом к parsing_tasks.
+ *
+ * Счётчики периодически сверяются с БД (price-parser.task-stats.reconcile-ms):
+ * так исправляются переходы, сделанные мимо этого узла (другие узлы, ручные правки).
+ * Возраст самой старой задачи NEW тоже берётся из сверки.
+ *
+ * Время от старта JVM до первой завершённой задачи пишется в лог и в снимок:
+ * по нему видно, когда новый узел начал приносить пользу.
+ */
+@Component
+public class ParsingTaskStats {
+
+    private static final Logger log = LoggerFactory.getLogger(ParsingTaskStats.class);
+
+    private final ParsingTaskRepository parsingTaskRepository;
+
+    private final Map<ParsingTaskStatus, LongAdder> counts = new EnumMap<>(ParsingTaskStatus.class);
+    private final RateMeter completed = new RateMeter();
+    private final RateMeter failed = new RateMeter();
+    private final CompletableFuture<Long> firstCompletion = new CompletableFuture<>();
+
+    private volatile LocalDateTime oldestNewCreatedAt;
+    private volatile LocalDateTime reconciledAt;
+
+    public ParsingTaskStats(ParsingTaskRepository parsingTaskRepository) {
+        this.parsingTaskRepository = parsingTaskRepository;
+        for (ParsingTaskStatus status : ParsingTaskStatus.values()) {
+            counts.put(status, new LongAdder());
+        }
+    }
+
+    /**
+     * Создана новая задача.
+     */
+    public void onCreated(LocalDateTime createdAt) {
+        counts.get(ParsingTaskStatus.NEW).increment();
+        if (oldestNewCreatedAt == null) {
+            oldestNewCreatedAt = createdAt;
+        }
+    }
+
+    /**
+     * count задач перешли из статуса from в статус to.
+     */
+    public void onTransition(ParsingTaskStatus from, ParsingTaskStatus to, long count) {
+        if (count <= 0) {
+            return;
+        }
+        counts.get(from).add(-count);
+        counts.get(to).add(count);
+        if (to == ParsingTaskStatus.COMPLETED) {
+            completed.mark(count);
+            if (!firstCompletion.isDone()) {
+                long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+                if (firstCompletion.complete(uptime)) {
+                    log.info("First parsing task completed {} ms after JVM start", uptime);
+                }
+            }
+        } else if (to == ParsingTaskStatus.FAILED) {
+            failed.mark(count);
+        }
+    }
+
+    /**
+     * Текущее количество задач в статусе (по счётчикам, без запроса к БД).
+     */
+    public long count(ParsingTaskStatus status) {
+        return Math.max(0, counts.get(status).sum());
+    }
+
+    /**
+     * Завершается временем (мс от старта JVM), когда первая задача получила статус COMPLETED.
+     */
+    public CompletableFuture<Long> firstCompletion() {
+        return firstCompletion;
+    }
+
+    public TaskStatsResponse snapshot() {
+        Map<ParsingTaskStatus, Long> snapshot = new EnumMap<>(ParsingTaskStatus.class);
+        counts.forEach((status, count) -> snapshot.put(status, Math.max(0, count.sum())));
+
+        TaskStatsResponse response = new TaskStatsResponse();
+        response.setCounts(snapshot);
+
+        LocalDateTime oldest = oldestNewCreatedAt;
+        if (oldest != null && snapshot.get(ParsingTaskStatus.NEW) > 0) {
+            response.setOldestNewAgeSeconds(Math.max(0, Duration.between(oldest, LocalDateTime.now()).toSeconds()));
+        }
+
+        double completed5m = completed.getFiveMinuteRate();
+        double failed5m = failed.getFiveMinuteRate();
+        response.setThroughput1m(completed.getOneMinuteRate() + failed.getOneMinuteRate());
+        response.setThroughput5m(completed5m + failed5m);
+        response.setThroughput15m(completed.getFifteenMinuteRate() + failed.getFifteenMinuteRate());
+        response.setFailureRate(completed5m + failed5m == 0 ? 0 : failed5m / (completed5m + failed5m));
+        response.setCompletedSinceStart(completed.getTotal());
+        response.setFailedSinceStart(failed.getTotal());
+        response.setReconciledAt(reconciledAt);
+        response.setTimeToFirstTaskMs(firstCompletion.getNow(null));
+        return response;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+
+    /**
+     * Сверка с БД: один GROUP BY по статусам и MIN(created_at) для NEW.
+     * Счётчики сдвигаются на разницу, а не перезаписываются, чтобы не потерять
+     * переходы, сделанные во время сверки; остаточная неточность уйдёт при следующей.
+     */
+    @Scheduled(initialDelayString = "${price-parser.task-stats.reconcile-ms:60000}",
+            fixedDelayString = "${price-parser.task-stats.reconcile-ms:60000}")
+    public void reconcile() {
+        Map<ParsingTaskStatus, Long> actual = new EnumMap<>(ParsingTaskStatus.class);
+        for (ParsingTaskRepository.StatusCount row : parsingTaskRepository.countByStatus()) {
+            actual.put(row.getStatus(), row.getCount());
+        }
+
+        for (ParsingTaskStatus status : ParsingTaskStatus.values()) {
+            LongAdder counter = counts.get(status);
+            long drift = actual.getOrDefault(status, 0L) - counter.sum();
+            if (drift != 0) {
+                counter.add(drift);
+                log.debug("Reconciled {} task counter by {}", status, drift);
+            }
+        }
+
+        oldestNewCreatedAt = parsingTaskRepository.findOldestCreatedAt(ParsingTaskStatus.NEW);
+        reconciledAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,31 @@
+package com.github.neshali.price_parser.service;
+
+import com.github.neshali.price_parser.domain.ProductChangeType;
+
+/**
+ * Итог сравнения спарсенной цены с последней сохранённой.
+ *
+ * @param type               тип события для outbox или null, если цена не изменилась (запись не нужна)
+ * @param previousPriceMinor прошлая цена для PRICE_CHANGED
+ */
+public record PriceChange(ProductChangeType type, Long previousPriceMinor) {
+
+    private static final PriceChange UNCHANGED = new PriceChange(null, null);
+    private static final PriceChange CREATED = new PriceChange(ProductChangeType.CREATED, null);
+
+    public static PriceChange unchanged() {
+        return UNCHANGED;
+    }
+
+    public static PriceChange created() {
+        return CREATED;
+    }
+
+    public static PriceChange changed(Long previousPriceMinor) {
+        return new PriceChange(ProductChangeType.PRICE_CHANGED, previousPriceMinor);
+    }
+
+    public boolean isUnchanged() {
+        return type == null;
+    }
+}
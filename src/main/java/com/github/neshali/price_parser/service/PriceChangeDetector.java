@@ -0,0 +1,83 @@
+package com.github.neshali.price_parser.service;
+
+import com.github.neshali.price_parser.domain.Price;
+import com.github.neshali.price_parser.domain.Product;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Objects;
+
+/**
+ * Стадия сравнения после парсинга: сохранять ли товар и с каким событием.
+ *
+ * Цена сравнивается с последней сохранённой для того же URL ({@link LastPriceIndex}).
+ * Изменение меньше порогов price-parser.change-detection.min-change-amount (в валюте товара)
+ * и min-change-percent считается шумом: товар не пишется, и сравнение в следующий раз идёт
+ * от той же сохранённой цены, так что мелкие сдвиги накапливаются до порога.
+ * Нулевой порог отключён; если отключены оба, значимо любое изменение.
+ * Смена валюты - всегда изменение: 10.00 USD и 10.00 EUR - разные цены.
+ */
+@Component
+public class PriceChangeDetector {
+
+    private final LastPriceIndex lastPriceIndex;
+    private final long minChangeMinor;
+    private final BigDecimal minChangePercent;
+
+    public PriceChangeDetector(
+            LastPriceIndex lastPriceIndex,
+            @Value("${price-parser.change-detection.min-change-amount:0}") BigDecimal minChangeAmount,
+            @Value("${price-parser.change-detection.min-change-percent:0}") BigDecimal minChangePercent
+    ) {
+        this.lastPriceIndex = lastPriceIndex;
+        this.minChangeMinor = Price.toMinorUnits(minChangeAmount, RoundingMode.CEILING);
+        this.minChangePercent = minChangePercent;
+    }
+
+    public PriceChange detect(Product product) {
+        LastPriceIndex.Lookup last = lastPriceIndex.lookup(product.getSourceUrl());
+        if (!last.known()) {
+            return PriceChange.created();
+        }
+
+        Long previous = last.priceMinor();
+        Long current = product.getPriceMinor();
+        if (!Objects.equals(last.currency(), product.getCurrency())) {
+            return PriceChange.changed(previous);
+        }
+        if (previous == null || current == null) {
+            return previous == null && current == null
+                    ? PriceChange.unchanged()
+                    : PriceChange.changed(previous);
+        }
+        return isSignificant(previous, current) ? PriceChange.changed(previous) : PriceChange.unchanged();
+    }
+
+    /**
+     * Товар сохранён: дальше сравниваем с его ценой.
+     */
+    public void onSaved(Product product) {
+        lastPriceIndex.record(product.getSourceUrl(), product.getPriceMinor(), product.getCurrency());
+    }
+
+    private boolean isSignificant(long previous, long current) {
+        long delta = Math.abs(current - previous);
+        if (delta == 0) {
+            return false;
+        }
+        boolean amountEnabled = minChangeMinor > 0;
+        boolean percentEnabled = minChangePercent.signum() > 0;
+        if (!amountEnabled && !percentEnabled) {
+            return true;
+        }
+        if (amountEnabled && delta >= minChangeMinor) {
+            return true;
+        }
+        // delta / |previous| * 100 >= percent, без деления
+        return percentEnabled && previous != 0
+                && BigDecimal.valueOf(delta).multiply(BigDecimal.valueOf(100))
+                .compareTo(minChangePercent.multiply(BigDecimal.valueOf(Math.abs(previous)))) >= 0;
+    }
+}
@@ -1,14 +1,16 @@
 package com.github.neshali.price_parser.service;
 
+import com.github.neshali.price_parser.domain.Price;
 import com.github.neshali.price_parser.domain.Product;
+import com.github.neshali.price_parser.extraction.ExtractedProduct;
+import com.github.neshali.price_parser.extraction.PriceExtractionEngine;
 import com.github.neshali.price_parser.integration.ExternalProductInfoClient;
+import com.github.neshali.price_parser.integration.PageFetcher;
 import com.github.neshali.price_parser.integration.dto.ExternalProductInfoResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.time.LocalDateTime;
@@ -20,31 +22,98 @@ public class PriceParsingService {
 
     private static final Logger log = LoggerFactory.getLogger(PriceParsingService.class);
 
+    /**
+     * Ограничение колонки products.name.
+     */
+    private static final int MAX_NAME_LENGTH = 255;
+
     private final ExternalProductInfoClient externalProductInfoClient;
+    private final PriceExtractionEngine priceExtractionEngine;
+    private final PageFetcher pageFetcher;
     private final Random random = new Random();
 
-    public PriceParsingService(ExternalProductInfoClient externalProductInfoClient) {
+    public PriceParsingService(ExternalProductInfoClient externalProductInfoClient,
+                               PriceExtractionEngine priceExtractionEngine,
+                               PageFetcher pageFetcher) {
         this.externalProductInfoClient = externalProductInfoClient;
+        this.priceExtractionEngine = priceExtractionEngine;
+        this.pageFetcher = pageFetcher;
     }
 
     /**
-     * "Парсит" товар по URL и возвращает заполненный объект Product.
+     * Парсит товар по URL и возвращает заполненный объект Product.
+     * Эквивалентно {@link #fetch(String)} и затем {@link #enrich(Product)}.
      */
     public Product parseProduct(String url) {
+        return enrich(fetch(url));
+    }
+
+    /**
+     * Разбирает загруженную HTML-страницу товара движком извлечения цен.
+     *
+     * @throws IllegalStateException если цену на странице найти не удалось
+     */
+    public Product parseProduct(String url, CharSequence html) {
+        return enrich(toProduct(url, priceExtractionEngine.extract(url, html)));
+    }
+
+    /**
+     * Стадия загрузки: получает товар со страницы без обогащения.
+     * Если загрузка страниц включена (price-parser.fetch.enabled), страница скачивается
+     * и разбирается потоком, иначе товар "парсится" в демонстрационном режиме.
+     *
+     * @throws IllegalStateException если цену на странице найти не удалось
+     */
+    public Product fetch(String url) {
+        if (pageFetcher.isEnabled()) {
+            return toProduct(url, pageFetcher.fetchAndExtract(url));
+        }
+
         Product product = new Product();
 
         product.setSourceUrl(url);
         product.setName(extractNameFromUrl(url));
         product.setDescription("Demo product parsed from " + url);
 
-        BigDecimal price = BigDecimal
-                .valueOf(10 + random.nextInt(90)) // цена от 10 до 99
-                .setScale(2, RoundingMode.HALF_UP);
-        product.setPrice(price);
+        product.setPriceMinor(Price.minorUnitsOfMajor(10 + random.nextInt(90))); // цена от 10 до 99
 
         product.setPublicationDate(LocalDateTime.now());
 
-        // Попробуем обогатить данные через внешний сервис
+        return product;
+    }
+
+    /**
+     * Собирает Product из данных, найденных на странице.
+     *
+     * @throws IllegalStateException если цена не найдена
+     */
+    public Product toProduct(String url, ExtractedProduct extracted) {
+        if (extracted == null || extracted.getPriceMinor() == null) {
+            throw new IllegalStateException("Price not found on page " + url);
+        }
+
+        Product product = new Product();
+        product.setSourceUrl(url);
+
+        String name = extracted.getName() != null && !extracted.getName().isBlank()
+                ? extracted.getName()
+                : extractNameFromUrl(url);
+        product.setName(name.length() > MAX_NAME_LENGTH ? name.substring(0, MAX_NAME_LENGTH) : name);
+        product.setDescription("Product parsed from " + url + " by " + extracted.getExtractor());
+
+        product.setPriceMinor(extracted.getPriceMinor());
+        product.setCurrency(extracted.getCurrency());
+        product.setPublicationDate(LocalDateTime.now());
+
+        return product;
+    }
+
+    /**
+     * Стадия обогащения: пробуем дополнить данные через внешний сервис.
+     * Валюта со страницы имеет приоритет над валютой из внешнего сервиса.
+     */
+    public Product enrich(Product product) {
+        String url = product.getSourceUrl();
         ExternalProductInfoResponse externalInfo = externalProductInfoClient.fetchAdditionalInfo(url);
         if (externalInfo != null) {
             String extra = String.format(" [external category=%s, rating=%s, currency=%s]",
@@ -52,9 +121,11 @@ public class PriceParsingService {
                     externalInfo.getRating(),
                     externalInfo.getCurrency());
             product.setDescription(product.getDescription() + extra);
+            if (product.getCurrency() == null) {
+                product.setCurrency(Price.normalizeCurrency(externalInfo.getCurrency()));
+            }
             log.debug("Enriched product {} with external info: {}", url, extra);
         }
-
         return product;
     }
 
@@ -1,6 +1,9 @@
 package com.github.neshali.price_parser.service;
 
+import com.github.neshali.price_parser.repository.ProductField;
+
 import java.math.BigDecimal;
+import java.util.Set;
 
 /**
  * Критерии фильтрации/сортировки товаров.
@@ -14,6 +17,7 @@ public class ProductFilterCriteria {
     private SortDirection direction;
     private int page;
     private int size;
+    private Set<ProductField> fields;
 
     public ProductFilterCriteria() {
     }
@@ -73,4 +77,15 @@ public class ProductFilterCriteria {
     public void setSize(int size) {
         this.size = size <= 0 ? 20 : size;
     }
+
+    /**
+     * Поля ответа или null - все.
+     */
+    public Set<ProductField> getFields() {
+        return fields;
+    }
+
+    public void setFields(Set<ProductField> fields) {
+        this.fields = fields;
+    }
 }
@@ -0,0 +1,90 @@
+package com.github.neshali.price_parser.service;
+
+import com.github.neshali.price_parser.domain.Product;
+import com.github.neshali.price_parser.domain.ProductChange;
+import com.github.neshali.price_parser.repository.ProductChangeRepository;
+import com.github.neshali.price_parser.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Сохранение спарсенных товаров вместе с записью в outbox (product_changes).
+ *
+ * Товар и событие пишутся в одной транзакции: ретранслятор ({@code ProductChangeRelay})
+ * не увидит события без товара и не потеряет событие сохранённого товара.
+ * Описание записывается до них в {@link DescriptionStore}; если транзакция товара откатится,
+ * описание останется без ссылок, что безвредно - его хеш зависит только от текста.
+ *
+ * Цена в базовой валюте считается при сохранении по текущей таблице {@link FxRateService}
+ * (вместе с её версией) и пересчитывается для всего каталога, когда таблица меняется.
+ */
+@Service
+public class ProductPersistenceService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductPersistenceService.class);
+
+    private final ProductRepository productRepository;
+    private final ProductChangeRepository productChangeRepository;
+    private final DescriptionStore descriptionStore;
+    private final FxRateService fxRateService;
+
+    public ProductPersistenceService(ProductRepository productRepository,
+                                     ProductChangeRepository productChangeRepository,
+                                     DescriptionStore descriptionStore,
+                                     FxRateService fxRateService) {
+        this.productRepository = productRepository;
+        this.productChangeRepository = productChangeRepository;
+        this.descriptionStore = descriptionStore;
+        this.fxRateService = fxRateService;
+    }
+
+    /**
+     * Сохраняет товар и событие change (см. {@link PriceChangeDetector}).
+     */
+    @Transactional
+    public Product save(Product product, PriceChange change) {
+        product.setDescriptionHash(descriptionStore.store(product.getDescription()));
+        FxRates rates = fxRateService.snapshotForSave();
+        product.setBasePriceMinor(rates.toBaseMinor(product.getPriceMinor(), product.getCurrency()));
+        product.setFxRatesVersion(rates.version());
+        Product saved = productRepository.save(product);
+        productChangeRepository.save(ProductChange.of(change.type(), saved, change.previousPriceMinor()));
+        return saved;
+    }
+
+    /**
+     * Массовый пересчёт цен в базовой валюте одной транзакцией: по UPDATE на валюту,
+     * без загрузки товаров, только для товаров, посчитанных не по текущей таблице (fx_rates_version).
+     * Читатели видят либо старые цены, либо новые целиком. Округление - как в {@link FxRates#toBaseMinor}.
+     * Если все цены уже посчитаны по этой таблице (обычный перезапуск), каталог не переписывается.
+     */
+    @EventListener
+    @Transactional
+    public void recomputeBasePrices(FxRatesChangedEvent event) {
+        FxRates rates = event.current();
+        String version = rates.version();
+        if (productRepository.findStaleBasePriceIds(version, PageRequest.of(0, 1)).isEmpty()) {
+            log.debug("Base prices are up to date with FX rates {}", version);
+            return;
+        }
+
+        Set<String> known = new HashSet<>(rates.getRates().keySet());
+        known.add(rates.getBaseCurrency());
+
+        int updated = productRepository.clearBasePrices(known, version);
+        updated += productRepository.copyBasePrices(rates.getBaseCurrency(), version);
+        for (Map.Entry<String, BigDecimal> rate : rates.getRates().entrySet()) {
+            updated += productRepository.updateBasePrices(rate.getKey(), rate.getValue(), version);
+        }
+        log.info("Recomputed {} base prices in {} (FX rates {})", updated, rates.getBaseCurrency(), version);
+    }
+}
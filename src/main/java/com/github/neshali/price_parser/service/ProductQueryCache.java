@@ -0,0 +1,168 @@
+package com.github.neshali.price_parser.service;
+
+import com.github.neshali.price_parser.outbox.ProductChangesPublishedEvent;
+import com.github.neshali.price_parser.repository.ProductField;
+import com.github.neshali.price_parser.web.dto.ProductResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Кэш результатов /products/filtered.
+ *
+ * Ключ - нормализованные критерии фильтрации, значение - готовая страница DTO.
+ * Каждая запись помечается версией каталога на момент вычисления; любое сохранение
+ * товара увеличивает версию, и все ранее посчитанные записи становятся устаревшими.
+ * Эта же версия используется для ETag, поэтому повторный опрос без изменений
+ * отвечает 304 без обращения к БД.
+ *
+ * Узел сам сбрасывает кэш после своих записей, а записи других узлов кластера видит
+ * через outbox: relay доставляет каждому узлу все изменения ({@link ProductChangesPublishedEvent}).
+ * Если в кластерном режиме эта доставка выключена (price-parser.outbox.events.enabled=false),
+ * узнать о чужих записях неоткуда, и кэш вместе с ETag отключается.
+ * Так же и с репликой для чтения: сброс происходит после коммита в основной БД, а реплика
+ * может ещё отдавать старые строки, которые закэшировались бы под новой версией.
+ */
+@Component
+public class ProductQueryCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductQueryCache.class);
+
+    /**
+     * Метка запуска: версия обнуляется при рестарте, поэтому в ETag нужна ещё
+     * и метка экземпляра, чтобы не совпасть с ETag предыдущего процесса.
+     */
+    private final String instanceTag = Long.toString(System.currentTimeMillis(), 36);
+
+    private final AtomicLong version = new AtomicLong();
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    private final boolean enabled;
+    private final int maxEntries;
+
+    public ProductQueryCache(
+            @Value("${price-parser.query-cache.enabled:true}") boolean enabled,
+            @Value("${price-parser.query-cache.max-entries:256}") int maxEntries,
+            @Value("${price-parser.cluster.enabled:false}") boolean clusterEnabled,
+            @Value("${price-parser.outbox.events.enabled:true}") boolean changeEventsEnabled,
+            @Value("${price-parser.datasource.replica.enabled:false}") boolean replicaEnabled
+    ) {
+        this.enabled = enabled && (!clusterEnabled || changeEventsEnabled) && !replicaEnabled;
+        this.maxEntries = maxEntries;
+        if (enabled && replicaEnabled) {
+            log.info("Product query cache disabled: catalog queries read from a replica that may lag");
+        } else if (enabled && !this.enabled) {
+            log.info("Product query cache disabled: cluster mode without outbox change events");
+        }
+    }
+
+    public long currentVersion() {
+        return version.get();
+    }
+
+    /**
+     * Вызывается после каждой записи в каталог товаров.
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+        entries.clear();
+    }
+
+    /**
+     * Изменения, сохранённые любым узлом кластера (в том числе этим).
+     */
+    @EventListener
+    public void onChangesPublished(ProductChangesPublishedEvent event) {
+        if (!event.changes().isEmpty()) {
+            invalidate();
+        }
+    }
+
+    public List<ProductResponse> get(Key key) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry = entries.get(key);
+        if (entry == null || entry.version() != version.get()) {
+            return null;
+        }
+        return entry.result();
+    }
+
+    /**
+     * Сохраняет результат, посчитанный для версии {@code computedAtVersion}.
+     * Если за время вычисления каталог изменился, запись сразу окажется устаревшей
+     * и не будет отдана.
+     */
+    public void put(Key key, long computedAtVersion, List<ProductResponse> result) {
+        if (!enabled || computedAtVersion != version.get()) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            log.debug("Product query cache reached {} entries, clearing", maxEntries);
+            entries.clear();
+        }
+        entries.put(key, new Entry(computedAtVersion, List.copyOf(result)));
+    }
+
+    /**
+     * ETag для ответа на запрос с указанными критериями при текущей версии каталога
+     * или null, если кэш отключён: без надёжной версии 304 отдавать нельзя.
+     */
+    public String etag(Key key) {
+        if (!enabled) {
+            return null;
+        }
+        return "\"" + instanceTag + "-" + version.get() + "-" + Integer.toHexString(key.hashCode()) + "\"";
+    }
+
+    public static Key keyOf(ProductFilterCriteria criteria) {
+        String query = criteria.getQuery() == null || criteria.getQuery().isBlank()
+                ? null
+                : criteria.getQuery().toLowerCase(Locale.ROOT);
+
+        return new Key(
+                query,
+                normalizePrice(criteria.getMinPrice()),
+                normalizePrice(criteria.getMaxPrice()),
+                criteria.getSortBy() != null ? criteria.getSortBy() : ProductSortBy.PRICE,
+                criteria.getDirection() != null ? criteria.getDirection() : SortDirection.DESC,
+                criteria.getPage(),
+                criteria.getSize(),
+                criteria.getFields() != null ? criteria.getFields() : ProductField.ALL
+        );
+    }
+
+    /**
+     * 10, 10.0 и 10.00 - один и тот же фильтр.
+     */
+    private static BigDecimal normalizePrice(BigDecimal price) {
+        return price == null ? null : price.stripTrailingZeros();
+    }
+
+    /**
+     * Нормализованные критерии запроса.
+     */
+    public record Key(String query,
+                      BigDecimal minPrice,
+                      BigDecimal maxPrice,
+                      ProductSortBy sortBy,
+                      SortDirection direction,
+                      int page,
+                      int size,
+                      Set<ProductField> fields) {
+    }
+
+    private record Entry(long version, List<ProductResponse> result) {
+    }
+}
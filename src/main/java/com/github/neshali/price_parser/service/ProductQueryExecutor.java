@@ -0,0 +1,94 @@
+package com.github.neshali.price_parser.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Выполнение выборок по каталогу на собственном ForkJoinPool вместо общего commonPool.
+ *
+ * Маленькие выборки (меньше parallelThreshold элементов) идут последовательным потоком
+ * в вызывающем потоке: разбиение и слияние для них дороже самой фильтрации.
+ * Большие выполняются параллельным потоком внутри пула; одновременно - не больше
+ * maxConcurrentQueries, остальные ждут слота не дольше admissionTimeoutMs
+ * и получают {@link QueryRejectedException}.
+ */
+public class ProductQueryExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductQueryExecutor.class);
+
+    private final ForkJoinPool pool;
+    private final Semaphore admission;
+    private final int maxConcurrentQueries;
+    private final long admissionTimeoutMs;
+    private final int parallelThreshold;
+
+    public ProductQueryExecutor(int parallelism, int maxConcurrentQueries,
+                                long admissionTimeoutMs, int parallelThreshold) {
+        this.pool = new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("product-query-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        this.admission = new Semaphore(maxConcurrentQueries);
+        this.maxConcurrentQueries = maxConcurrentQueries;
+        this.admissionTimeoutMs = admissionTimeoutMs;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Применяет query к потоку элементов items: последовательному или параллельному в зависимости от размера.
+     *
+     * @throws QueryRejectedException если за admissionTimeoutMs не освободился слот для параллельного запроса
+     */
+    public <E, R> R execute(Collection<E> items, Function<Stream<E>, R> query) {
+        if (items.size() < parallelThreshold) {
+            return query.apply(items.stream());
+        }
+
+        try {
+            if (!admission.tryAcquire(admissionTimeoutMs, TimeUnit.MILLISECONDS)) {
+                log.debug("Rejecting product query: {} of {} heavy queries already running",
+                        maxConcurrentQueries - admission.availablePermits(), maxConcurrentQueries);
+                throw new QueryRejectedException("Too many concurrent product queries, retry later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new QueryRejectedException("Interrupted while waiting for a query slot");
+        }
+
+        try {
+            // parallelStream(), запущенный из задачи пула, разбивается на потоках этого же пула
+            return pool.submit(() -> query.apply(items.parallelStream())).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new QueryRejectedException("Interrupted while running product query");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Product query failed", e.getCause());
+        } finally {
+            admission.release();
+        }
+    }
+
+    public int getAvailableSlots() {
+        return admission.availablePermits();
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
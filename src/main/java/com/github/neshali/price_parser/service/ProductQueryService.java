@@ -1,55 +1,131 @@
 package com.github.neshali.price_parser.service;
 
-import com.github.neshali.price_parser.domain.Product;
+import com.github.neshali.price_parser.domain.Price;
+import com.github.neshali.price_parser.repository.ProductField;
 import com.github.neshali.price_parser.repository.ProductRepository;
+import com.github.neshali.price_parser.repository.ProductRow;
 import com.github.neshali.price_parser.web.dto.ProductResponse;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
  * Сервис получения товаров с параллельной фильтрацией/сортировкой.
+ * Фильтрация и сортировка выполняются в {@link ProductQueryExecutor}.
+ *
+ * Каталог читается проекцией {@link ProductRow} без сущностей и без описаний;
+ * описания (до 4000 символов) догружаются одним запросом только для товаров страницы.
+ *
+ * Границы цены и сортировка по цене - в базовой валюте (Product.basePriceMinor, пересчитывается
+ * при смене курсов), поэтому товары в разных валютах сравниваются без конвертации на каждой строке.
+ * Товары в валюте без курса в ценовой фильтр не попадают, а при сортировке по цене ведут себя как товары без цены.
  */
 @Service
 public class ProductQueryService {
 
+    /**
+     * Поля, нужные для фильтрации и сортировки, читаются всегда.
+     */
+    private static final Set<ProductField> QUERY_FIELDS =
+            EnumSet.of(ProductField.ID, ProductField.NAME, ProductField.BASE_PRICE, ProductField.PUBLICATION_DATE);
+
     private final ProductRepository productRepository;
+    private final ProductQueryCache productQueryCache;
+    private final ProductQueryExecutor productQueryExecutor;
 
-    public ProductQueryService(ProductRepository productRepository) {
+    public ProductQueryService(ProductRepository productRepository,
+                               ProductQueryCache productQueryCache,
+                               ProductQueryExecutor productQueryExecutor) {
         this.productRepository = productRepository;
+        this.productQueryCache = productQueryCache;
+        this.productQueryExecutor = productQueryExecutor;
+    }
+
+    /**
+     * ETag ответа для указанных критериев при текущем состоянии каталога
+     * или null, если кэш отключён.
+     */
+    public String getFilteredProductsEtag(ProductFilterCriteria criteria) {
+        return productQueryCache.etag(ProductQueryCache.keyOf(criteria));
     }
 
     /**
      * Возвращает отфильтрованный и отсортированный список товаров.
+     * Повторные запросы с теми же критериями отдаются из кэша, пока каталог не изменился.
+     * Транзакция только для чтения: при настроенной реплике запрос уходит в её пул.
      */
+    @Transactional(readOnly = true)
     public List<ProductResponse> getFilteredProducts(ProductFilterCriteria criteria) {
-        List<Product> allProducts = productRepository.findAll();
+        ProductQueryCache.Key key = ProductQueryCache.keyOf(criteria);
+        List<ProductResponse> cached = productQueryCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long version = productQueryCache.currentVersion();
+        List<ProductResponse> result = computeFilteredProducts(criteria);
+        productQueryCache.put(key, version, result);
+        return result;
+    }
+
+    private List<ProductResponse> computeFilteredProducts(ProductFilterCriteria criteria) {
+        Set<ProductField> fields = criteria.getFields() != null ? criteria.getFields() : ProductField.ALL;
 
-        Stream<Product> stream = allProducts.parallelStream();
+        Set<ProductField> loaded = EnumSet.copyOf(QUERY_FIELDS);
+        loaded.addAll(fields);
+        loaded.remove(ProductField.DESCRIPTION);
 
+        List<ProductRow> allProducts = productRepository.findRows(loaded);
+        List<ProductRow> page = productQueryExecutor.execute(allProducts, stream -> filterAndSort(stream, criteria));
+
+        if (fields.contains(ProductField.DESCRIPTION)) {
+            page = withDescriptions(page);
+        }
+        return page.stream()
+                .map(row -> ProductResponse.of(row, fields))
+                .collect(Collectors.toList());
+    }
+
+    private List<ProductRow> withDescriptions(List<ProductRow> page) {
+        Map<Long, String> descriptions = productRepository.findRowsByIds(
+                        EnumSet.of(ProductField.ID, ProductField.DESCRIPTION),
+                        page.stream().map(ProductRow::id).toList())
+                .stream()
+                .filter(row -> row.description() != null)
+                .collect(Collectors.toMap(ProductRow::id, ProductRow::description));
+        return page.stream()
+                .map(row -> row.withDescription(descriptions.get(row.id())))
+                .toList();
+    }
+
+    private List<ProductRow> filterAndSort(Stream<ProductRow> stream, ProductFilterCriteria criteria) {
         if (criteria.getQuery() != null && !criteria.getQuery().isBlank()) {
             String q = criteria.getQuery().toLowerCase(Locale.ROOT);
             stream = stream.filter(p ->
-                    p.getName() != null && p.getName().toLowerCase(Locale.ROOT).contains(q)
+                    p.name() != null && p.name().toLowerCase(Locale.ROOT).contains(q)
             );
         }
 
-        BigDecimal minPrice = criteria.getMinPrice();
-        BigDecimal maxPrice = criteria.getMaxPrice();
-
-        if (minPrice != null) {
+        // Границы (в базовой валюте) переводим в фиксированную точку один раз, дальше сравниваем long
+        if (criteria.getMinPrice() != null) {
+            long minPrice = Price.toMinorUnits(criteria.getMinPrice(), RoundingMode.CEILING);
             stream = stream.filter(p ->
-                    p.getPrice() != null && p.getPrice().compareTo(minPrice) >= 0
+                    p.basePriceMinor() != null && p.basePriceMinor() >= minPrice
             );
         }
-        if (maxPrice != null) {
+        if (criteria.getMaxPrice() != null) {
+            long maxPrice = Price.toMinorUnits(criteria.getMaxPrice(), RoundingMode.FLOOR);
             stream = stream.filter(p ->
-                    p.getPrice() != null && p.getPrice().compareTo(maxPrice) <= 0
+                    p.basePriceMinor() != null && p.basePriceMinor() <= maxPrice
             );
         }
 
@@ -61,39 +137,44 @@ public class ProductQueryService {
                 ? criteria.getDirection()
                 : SortDirection.DESC;
 
-        Comparator<Product> comparator = buildComparator(sortBy, direction);
-        stream = stream.sorted(comparator);
+        Comparator<ProductRow> comparator = buildComparator(sortBy, direction);
 
         int page = criteria.getPage();
         int size = criteria.getSize();
+        long topK = (long) (page + 1) * size;
+
+        // Для страницы достаточно (page + 1) * size первых элементов:
+        // отбираем их ограниченными кучами вместо полной сортировки.
+        Stream<ProductRow> sorted = topK <= Integer.MAX_VALUE
+                ? stream.collect(TopKCollector.of(comparator, (int) topK)).stream()
+                : stream.sorted(comparator);
 
-        return stream
+        return sorted
                 .skip((long) page * size)
                 .limit(size)
-                .map(this::toProductResponse)
                 .collect(Collectors.toList());
     }
 
-    private Comparator<Product> buildComparator(ProductSortBy sortBy, SortDirection direction) {
-        Comparator<Product> comparator;
+    private Comparator<ProductRow> buildComparator(ProductSortBy sortBy, SortDirection direction) {
+        Comparator<ProductRow> comparator;
 
         switch (sortBy) {
             case NAME:
                 comparator = Comparator.comparing(
-                        p -> p.getName() == null ? "" : p.getName(),
+                        p -> p.name() == null ? "" : p.name(),
                         String.CASE_INSENSITIVE_ORDER
                 );
                 break;
             case PUBLICATION_DATE:
                 comparator = Comparator.comparing(
-                        Product::getPublicationDate,
+                        ProductRow::publicationDate,
                         Comparator.nullsLast(Comparator.naturalOrder())
                 );
                 break;
             case PRICE:
             default:
                 comparator = Comparator.comparing(
-                        Product::getPrice,
+                        ProductRow::basePriceMinor,
                         Comparator.nullsLast(Comparator.naturalOrder())
                 );
                 break;
@@ -102,17 +183,10 @@ public class ProductQueryService {
         if (direction == SortDirection.DESC) {
             comparator = comparator.reversed();
         }
-        return comparator;
-    }
-
-    private ProductResponse toProductResponse(Product product) {
-        ProductResponse dto = new ProductResponse();
-        dto.setId(product.getId());
-        dto.setName(product.getName());
-        dto.setDescription(product.getDescription());
-        dto.setPrice(product.getPrice());
-        dto.setPublicationDate(product.getPublicationDate());
-        dto.setSourceUrl(product.getSourceUrl());
-        return dto;
+        // Детерминированный порядок при равных значениях, независимо от разбиения потока
+        return comparator.thenComparing(
+                ProductRow::id,
+                Comparator.nullsLast(Comparator.naturalOrder())
+        );
     }
 }
@@ -0,0 +1,16 @@
+package com.github.neshali.price_parser.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Тяжёлый запрос не допущен к выполнению: все слоты пула запросов заняты.
+ * Клиент получает 503 и может повторить запрос позже.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class QueryRejectedException extends RuntimeException {
+
+    public QueryRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,113 @@
+package com.github.neshali.price_parser.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Скорость событий как экспоненциальное скользящее среднее за 1, 5 и 15 минут
+ * (как load average в Unix).
+ *
+ * События копятся в LongAdder без блокировок; раз в 5 секунд накопленное
+ * переносится в средние. Тик выполняется лениво - при записи или чтении,
+ * отдельный поток не нужен.
+ */
+public class RateMeter {
+
+    private static final long TICK_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final double TICK_INTERVAL_SECONDS = 5.0;
+
+    private final LongSupplier nanoClock;
+    private final LongAdder total = new LongAdder();
+    private final LongAdder uncounted = new LongAdder();
+    private final AtomicLong lastTick;
+
+    private final Ewma oneMinute = new Ewma(1);
+    private final Ewma fiveMinutes = new Ewma(5);
+    private final Ewma fifteenMinutes = new Ewma(15);
+
+    public RateMeter() {
+        this(System::nanoTime);
+    }
+
+    RateMeter(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.lastTick = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    public void mark(long events) {
+        tickIfNecessary();
+        total.add(events);
+        uncounted.add(events);
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+
+    /**
+     * События в минуту, среднее за последнюю минуту.
+     */
+    public double getOneMinuteRate() {
+        tickIfNecessary();
+        return oneMinute.perMinute();
+    }
+
+    public double getFiveMinuteRate() {
+        tickIfNecessary();
+        return fiveMinutes.perMinute();
+    }
+
+    public double getFifteenMinuteRate() {
+        tickIfNecessary();
+        return fifteenMinutes.perMinute();
+    }
+
+    private void tickIfNecessary() {
+        long previous = lastTick.get();
+        long now = nanoClock.getAsLong();
+        long elapsed = now - previous;
+        if (elapsed < TICK_INTERVAL_NANOS) {
+            return;
+        }
+        long newTick = now - elapsed % TICK_INTERVAL_NANOS;
+        if (!lastTick.compareAndSet(previous, newTick)) {
+            return; // тикнул другой поток
+        }
+        long ticks = elapsed / TICK_INTERVAL_NANOS;
+        long count = uncounted.sumThenReset();
+        for (long i = 0; i < ticks; i++) {
+            // Все накопленные события относятся к первому интервалу, дальше были пустые
+            oneMinute.tick(i == 0 ? count : 0);
+            fiveMinutes.tick(i == 0 ? count : 0);
+            fifteenMinutes.tick(i == 0 ? count : 0);
+        }
+    }
+
+    private static final class Ewma {
+
+        private final double alpha;
+        private volatile double ratePerSecond;
+        private volatile boolean initialized;
+
+        Ewma(int minutes) {
+            this.alpha = 1 - Math.exp(-TICK_INTERVAL_SECONDS / 60.0 / minutes);
+        }
+
+        // Вызывается только из потока, выигравшего CAS в tickIfNecessary
+        void tick(long count) {
+            double instantRate = count / TICK_INTERVAL_SECONDS;
+            if (initialized) {
+                ratePerSecond += alpha * (instantRate - ratePerSecond);
+            } else {
+                ratePerSecond = instantRate;
+                initialized = true;
+            }
+        }
+
+        double perMinute() {
+            return ratePerSecond * 60.0;
+        }
+    }
+}
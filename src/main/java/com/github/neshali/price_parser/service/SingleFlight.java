@@ -0,0 +1,58 @@
+package com.github.neshali.price_parser.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Объединение одновременных вычислений по одному ключу.
+ *
+ * Первый вызвавший {@link #join} становится ведущим и обязан завершить полёт через
+ * {@link #complete} или {@link #fail}; остальные, пришедшие до завершения, получают тот же
+ * CompletableFuture и ждут его результата без повторного вычисления. После завершения ключ
+ * освобождается, и следующий join начинает новый полёт.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    public Flight<V> join(K key) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalesced.increment();
+            return new Flight<>(existing, false);
+        }
+        return new Flight<>(mine, true);
+    }
+
+    public void complete(K key, Flight<V> flight, V value) {
+        // Ключ освобождается до раздачи результата: ожидающие не увидят новый полёт как свой
+        inFlight.remove(key, flight.result());
+        flight.result().complete(value);
+    }
+
+    public void fail(K key, Flight<V> flight, Exception error) {
+        inFlight.remove(key, flight.result());
+        flight.result().completeExceptionally(error);
+    }
+
+    /**
+     * Сколько вызовов присоединилось к чужому полёту вместо собственного вычисления.
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    /**
+     * Участие в полёте: leader = true - вычислять должен вызвавший.
+     */
+    public record Flight<V>(CompletableFuture<V> result, boolean leader) {
+    }
+}
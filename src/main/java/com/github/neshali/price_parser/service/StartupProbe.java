@@ -0,0 +1,83 @@
+package com.github.neshali.price_parser.service;
+
+import com.github.neshali.price_parser.domain.ParsingTask;
+import com.github.neshali.price_parser.domain.ParsingTaskStatus;
+import com.github.neshali.price_parser.repository.ParsingTaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Замер времени до первой задачи: после старта ставит в очередь одну задачу и сразу
+ * отдаёт её в обработку (как первый тик планировщика при непустой очереди),
+ * дожидается её завершения, пишет время от старта JVM и останавливает приложение
+ * (код выхода 1, если задача не завершилась за timeout-ms).
+ *
+ * Включается только для замеров при сборке (price-parser.startup.probe.enabled=true).
+ * Флаг проверяется при старте, а не условием на бин: при AOT-сборке условия
+ * вычисляются один раз, и замер нельзя было бы включить у собранного jar.
+ */
+@Component
+public class StartupProbe {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupProbe.class);
+
+    private final ParsingTaskRepository parsingTaskRepository;
+    private final ParsingTaskStats parsingTaskStats;
+    private final ParsingTaskProcessingService parsingTaskProcessingService;
+    private final ConfigurableApplicationContext context;
+    private final boolean enabled;
+    private final String url;
+    private final long timeoutMs;
+
+    public StartupProbe(
+            ParsingTaskRepository parsingTaskRepository,
+            ParsingTaskStats parsingTaskStats,
+            ParsingTaskProcessingService parsingTaskProcessingService,
+            ConfigurableApplicationContext context,
+            @Value("${price-parser.startup.probe.enabled:false}") boolean enabled,
+            @Value("${price-parser.startup.probe.url:https://example.com/startup-probe}") String url,
+            @Value("${price-parser.startup.probe.timeout-ms:60000}") long timeoutMs
+    ) {
+        this.parsingTaskRepository = parsingTaskRepository;
+        this.parsingTaskStats = parsingTaskStats;
+        this.parsingTaskProcessingService = parsingTaskProcessingService;
+        this.context = context;
+        this.enabled = enabled;
+        this.url = url;
+        this.timeoutMs = timeoutMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void submitProbeTask() {
+        if (!enabled) {
+            return;
+        }
+        ParsingTask task = new ParsingTask();
+        task.setUrl(url);
+        task.setStatus(ParsingTaskStatus.NEW);
+        ParsingTask saved = parsingTaskRepository.save(task);
+        parsingTaskStats.onCreated(saved.getCreatedAt());
+        parsingTaskProcessingService.submitNewTasksForParsing();
+
+        parsingTaskStats.firstCompletion()
+                .orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                // Остановка контекста ждёт потоки конвейера, поэтому не из них
+                .whenCompleteAsync((uptimeMs, error) -> {
+                    if (error != null) {
+                        log.error("Startup probe: no task completed within {} ms", timeoutMs);
+                    } else {
+                        log.info("Startup probe: time to first task {} ms", uptimeMs);
+                    }
+                    int code = SpringApplication.exit(context, () -> error == null ? 0 : 1);
+                    System.exit(code);
+                }, runnable -> new Thread(runnable, "startup-probe-exit").start());
+    }
+}
@@ -0,0 +1,118 @@
+package com.github.neshali.price_parser.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+/**
+ * Коллектор, отбирающий k первых (в порядке comparator) элементов потока
+ * без полной сортировки.
+ *
+ * Каждый кусок параллельного потока копит свою ограниченную кучу из не более чем k
+ * элементов, затем кучи сливаются в combiner. Итого O(n log k) сравнений
+ * и O(k) памяти на поток ForkJoin вместо O(n log n) и полной копии при sorted().
+ */
+public final class TopKCollector<T> implements Collector<T, TopKCollector.BoundedHeap<T>, List<T>> {
+
+    private final Comparator<? super T> comparator;
+    private final int k;
+
+    private TopKCollector(Comparator<? super T> comparator, int k) {
+        this.comparator = comparator;
+        this.k = k;
+    }
+
+    /**
+     * @param comparator порядок результата
+     * @param k          сколько первых элементов оставить
+     * @return коллектор, возвращающий не более k элементов, отсортированных по comparator
+     */
+    public static <T> TopKCollector<T> of(Comparator<? super T> comparator, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must be non-negative: " + k);
+        }
+        return new TopKCollector<>(comparator, k);
+    }
+
+    @Override
+    public Supplier<BoundedHeap<T>> supplier() {
+        return () -> new BoundedHeap<>(comparator, k);
+    }
+
+    @Override
+    public BiConsumer<BoundedHeap<T>, T> accumulator() {
+        return BoundedHeap::offer;
+    }
+
+    @Override
+    public BinaryOperator<BoundedHeap<T>> combiner() {
+        return BoundedHeap::merge;
+    }
+
+    @Override
+    public Function<BoundedHeap<T>, List<T>> finisher() {
+        return BoundedHeap::toSortedList;
+    }
+
+    @Override
+    public Set<Characteristics> characteristics() {
+        // Порядок встречи не важен: итог определяется только comparator
+        return Set.of(Characteristics.UNORDERED);
+    }
+
+    /**
+     * Куча, в вершине которой лежит "худший" из отобранных элементов,
+     * чтобы новый кандидат сравнивался только с ним.
+     */
+    static final class BoundedHeap<T> {
+
+        private static final int MAX_INITIAL_CAPACITY = 1024;
+
+        private final Comparator<? super T> comparator;
+        private final int k;
+        private final PriorityQueue<T> heap;
+
+        BoundedHeap(Comparator<? super T> comparator, int k) {
+            this.comparator = comparator;
+            this.k = k;
+            this.heap = new PriorityQueue<>(
+                    Math.max(1, Math.min(k, MAX_INITIAL_CAPACITY)),
+                    comparator.reversed()
+            );
+        }
+
+        void offer(T element) {
+            if (k == 0) {
+                return;
+            }
+            if (heap.size() < k) {
+                heap.add(element);
+            } else if (comparator.compare(element, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(element);
+            }
+        }
+
+        BoundedHeap<T> merge(BoundedHeap<T> other) {
+            BoundedHeap<T> target = heap.size() >= other.heap.size() ? this : other;
+            BoundedHeap<T> source = target == this ? other : this;
+            for (T element : source.heap) {
+                target.offer(element);
+            }
+            return target;
+        }
+
+        List<T> toSortedList() {
+            List<T> result = new ArrayList<>(heap);
+            result.sort(comparator);
+            return result;
+        }
+    }
+}
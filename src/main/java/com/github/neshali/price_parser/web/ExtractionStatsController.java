@@ -0,0 +1,35 @@
+package com.github.neshali.price_parser.web;
+
+import com.github.neshali.price_parser.extraction.ExtractorRegistry;
+import com.github.neshali.price_parser.extraction.ExtractorStats;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Статистика работы экстракторов цен.
+ */
+@RestController
+public class ExtractionStatsController {
+
+    private final ExtractorRegistry extractorRegistry;
+
+    public ExtractionStatsController(ExtractorRegistry extractorRegistry) {
+        this.extractorRegistry = extractorRegistry;
+    }
+
+    /**
+     * Документы, попадания и пропускная способность (символов в секунду) по каждому экстрактору.
+     *
+     * Пример:
+     * GET /extraction/stats
+     */
+    @GetMapping("/extraction/stats")
+    public List<ExtractorStats> getStats() {
+        return extractorRegistry.getStats().stream()
+                .sorted(Comparator.comparing(ExtractorStats::getExtractor))
+                .toList();
+    }
+}
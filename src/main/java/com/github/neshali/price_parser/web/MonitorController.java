@@ -0,0 +1,69 @@
+package com.github.neshali.price_parser.web;
+
+import com.github.neshali.price_parser.domain.MonitoredUrl;
+import com.github.neshali.price_parser.repository.MonitoredUrlRepository;
+import com.github.neshali.price_parser.service.MonitoringService;
+import com.github.neshali.price_parser.web.dto.CreateMonitorRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Регулярный мониторинг цен: URL проверяются повторно с заданным периодом
+ * без повторных POST /parse.
+ */
+@RestController
+@RequestMapping("/monitors")
+public class MonitorController {
+
+    private final MonitoringService monitoringService;
+    private final MonitoredUrlRepository monitoredUrlRepository;
+    private final long minIntervalSeconds;
+
+    public MonitorController(MonitoringService monitoringService,
+                             MonitoredUrlRepository monitoredUrlRepository,
+                             @Value("${price-parser.monitoring.min-interval-seconds:60}") long minIntervalSeconds) {
+        this.monitoringService = monitoringService;
+        this.monitoredUrlRepository = monitoredUrlRepository;
+        this.minIntervalSeconds = minIntervalSeconds;
+    }
+
+    /**
+     * Поставить URL на мониторинг или изменить период.
+     *
+     * Пример:
+     * POST /monitors {"url": "https://example.com/product/1", "intervalSeconds": 3600}
+     */
+    @PostMapping
+    public ResponseEntity<MonitoredUrl> monitor(@RequestBody CreateMonitorRequest request) {
+        if (request == null || request.getUrl() == null || request.getUrl().isBlank()
+                || request.getIntervalSeconds() == null || request.getIntervalSeconds() < minIntervalSeconds) {
+            return ResponseEntity.badRequest().build();
+        }
+        String url = request.getUrl().trim();
+        try {
+            return ResponseEntity.ok(monitoringService.monitor(url, request.getIntervalSeconds()));
+        } catch (DataIntegrityViolationException e) {
+            // Параллельный POST для того же URL успел вставить строку: повтор найдёт её и обновит период
+            return ResponseEntity.ok(monitoringService.monitor(url, request.getIntervalSeconds()));
+        }
+    }
+
+    @GetMapping
+    public Page<MonitoredUrl> getMonitors(@PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        return monitoredUrlRepository.findAll(pageable);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> stopMonitoring(@PathVariable Long id) {
+        if (!monitoredUrlRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        monitoredUrlRepository.deleteById(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.neshali.price_parser.web;
+
+import com.github.neshali.price_parser.pipeline.ConcurrencyLimitStats;
+import com.github.neshali.price_parser.pipeline.ConcurrencyLimiter;
+import com.github.neshali.price_parser.pipeline.ParsingPipeline;
+import com.github.neshali.price_parser.pipeline.PipelineStageStats;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Метрики стадий конвейера парсинга.
+ */
+@RestController
+public class PipelineStatsController {
+
+    private final ParsingPipeline parsingPipeline;
+    private final ConcurrencyLimiter concurrencyLimiter;
+
+    public PipelineStatsController(ParsingPipeline parsingPipeline, ConcurrencyLimiter concurrencyLimiter) {
+        this.parsingPipeline = parsingPipeline;
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    /**
+     * Глубина очереди, загрузка потоков, время ожидания и обработки по каждой стадии.
+     *
+     * Пример:
+     * GET /pipeline/stats
+     */
+    @GetMapping("/pipeline/stats")
+    public List<PipelineStageStats> getStats() {
+        return parsingPipeline.stats();
+    }
+
+    /**
+     * Текущий адаптивный лимит задач в работе, задержки, доля ошибок и последнее решение.
+     *
+     * Пример:
+     * GET /pipeline/limit
+     */
+    @GetMapping("/pipeline/limit")
+    public ConcurrencyLimitStats getLimit() {
+        return concurrencyLimiter.stats();
+    }
+}
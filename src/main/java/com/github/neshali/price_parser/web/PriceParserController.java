@@ -2,25 +2,34 @@ package com.github.neshali.price_parser.web;
 
 import com.github.neshali.price_parser.domain.ParsingTask;
 import com.github.neshali.price_parser.domain.ParsingTaskStatus;
-import com.github.neshali.price_parser.domain.Product;
+import com.github.neshali.price_parser.domain.Price;
 import com.github.neshali.price_parser.repository.ParsingTaskRepository;
+import com.github.neshali.price_parser.repository.ProductField;
 import com.github.neshali.price_parser.repository.ProductRepository;
+import com.github.neshali.price_parser.repository.ProductRow;
+import com.github.neshali.price_parser.service.ParsingTaskStats;
 import com.github.neshali.price_parser.service.ProductFilterCriteria;
 import com.github.neshali.price_parser.service.ProductQueryService;
 import com.github.neshali.price_parser.service.ProductSortBy;
 import com.github.neshali.price_parser.service.SortDirection;
 import com.github.neshali.price_parser.web.dto.CreateParsingTaskRequest;
 import com.github.neshali.price_parser.web.dto.ProductResponse;
+import com.github.neshali.price_parser.web.dto.TaskStatsResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @RestController
@@ -30,13 +39,16 @@ public class PriceParserController {
     private final ParsingTaskRepository parsingTaskRepository;
     private final ProductRepository productRepository;
     private final ProductQueryService productQueryService;
+    private final ParsingTaskStats parsingTaskStats;
 
     public PriceParserController(ParsingTaskRepository parsingTaskRepository,
                                  ProductRepository productRepository,
-                                 ProductQueryService productQueryService) {
+                                 ProductQueryService productQueryService,
+                                 ParsingTaskStats parsingTaskStats) {
         this.parsingTaskRepository = parsingTaskRepository;
         this.productRepository = productRepository;
         this.productQueryService = productQueryService;
+        this.parsingTaskStats = parsingTaskStats;
     }
 
     @PostMapping("/parse")
@@ -52,9 +64,31 @@ public class PriceParserController {
         task.setStatus(ParsingTaskStatus.NEW);
 
         ParsingTask saved = parsingTaskRepository.save(task);
+        parsingTaskStats.onCreated(saved.getCreatedAt());
         return ResponseEntity.ok(saved);
     }
 
+    /**
+     * Статистика очереди задач: количество по статусам, возраст самой старой NEW,
+     * пропускная способность за 1/5/15 минут и доля ошибок.
+     * Считается по счётчикам в памяти, таблица задач не сканируется.
+     *
+     * Пример:
+     * GET /tasks/stats
+     */
+    @GetMapping("/tasks/stats")
+    public TaskStatsResponse getTaskStats() {
+        return parsingTaskStats.snapshot();
+    }
+
+    /**
+     * Страница товаров. Читаются только колонки запрошенных полей, без загрузки сущностей.
+     *
+     * Примеры:
+     * GET /products?page=0&size=20&sort=price,desc
+     * GET /products?sort=basePrice,asc        (цена в базовой валюте, по индексу)
+     * GET /products?fields=id,name,price
+     */
     @GetMapping("/products")
     public Page<ProductResponse> getProducts(
             @PageableDefault(
@@ -62,12 +96,14 @@ public class PriceParserController {
                     sort = "publicationDate",
                     direction = Sort.Direction.DESC
             )
-            Pageable pageable
+            Pageable pageable,
+            @RequestParam(name = "fields", required = false) String fields
     ) {
-        Page<Product> page = productRepository.findAll(pageable);
+        Set<ProductField> selected = parseFields(fields);
+        Page<ProductRow> page = productRepository.findRows(selected, toEntityPageable(pageable));
 
         List<ProductResponse> content = page.getContent().stream()
-                .map(this::toProductResponse)
+                .map(row -> ProductResponse.of(row, selected))
                 .collect(Collectors.toList());
 
         return new PageImpl<>(content, pageable, page.getTotalElements());
@@ -75,11 +111,13 @@ public class PriceParserController {
 
     /**
      * Параллельная фильтрация и сортировка товаров.
+     * Поддерживает условный GET: при совпадении If-None-Match отвечает 304.
      *
      * Примеры:
      * GET /products/filtered?minPrice=50&maxPrice=90
      * GET /products/filtered?q=101&sortBy=PRICE&direction=DESC
      * GET /products/filtered?page=1&size=5&sortBy=PUBLICATION_DATE&direction=ASC
+     * GET /products/filtered?q=phone&fields=id,name,price
      */
     @GetMapping("/products/filtered")
     public List<ProductResponse> getFilteredProducts(
@@ -89,8 +127,12 @@ public class PriceParserController {
             @RequestParam(name = "sortBy", defaultValue = "PRICE") ProductSortBy sortBy,
             @RequestParam(name = "direction", defaultValue = "DESC") SortDirection direction,
             @RequestParam(name = "page", defaultValue = "0") int page,
-            @RequestParam(name = "size", defaultValue = "20") int size
+            @RequestParam(name = "size", defaultValue = "20") int size,
+            @RequestParam(name = "fields", required = false) String fields,
+            WebRequest webRequest
     ) {
+        requirePrice("minPrice", minPrice);
+        requirePrice("maxPrice", maxPrice);
         ProductFilterCriteria criteria = new ProductFilterCriteria();
         criteria.setQuery(query);
         criteria.setMinPrice(minPrice);
@@ -99,18 +141,43 @@ public class PriceParserController {
         criteria.setDirection(direction);
         criteria.setPage(page);
         criteria.setSize(size);
+        criteria.setFields(parseFields(fields));
+
+        String etag = productQueryService.getFilteredProductsEtag(criteria);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
 
         return productQueryService.getFilteredProducts(criteria);
     }
 
-    private ProductResponse toProductResponse(Product product) {
-        ProductResponse dto = new ProductResponse();
-        dto.setId(product.getId());
-        dto.setName(product.getName());
-        dto.setDescription(product.getDescription());
-        dto.setPrice(product.getPrice());
-        dto.setPublicationDate(product.getPublicationDate());
-        dto.setSourceUrl(product.getSourceUrl());
-        return dto;
+    /**
+     * Внешние имена полей сортировки переводятся в атрибуты сущности ("price" - priceMinor,
+     * "basePrice" - basePriceMinor); неизвестные поля и description - 400.
+     */
+    private Pageable toEntityPageable(Pageable pageable) {
+        Sort sort;
+        try {
+            sort = Sort.by(pageable.getSort().stream()
+                    .map(order -> order.withProperty(ProductField.sortAttribute(order.getProperty())))
+                    .toList());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
+
+    private static Set<ProductField> parseFields(String fields) {
+        try {
+            return ProductField.parse(fields);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private static void requirePrice(String name, BigDecimal value) {
+        if (value != null && !Price.fitsMinorUnits(value)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, name + " is out of range");
+        }
     }
 }
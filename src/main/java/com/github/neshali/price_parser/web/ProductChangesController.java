@@ -0,0 +1,44 @@
+package com.github.neshali.price_parser.web;
+
+import com.github.neshali.price_parser.repository.ProductChangeRepository;
+import com.github.neshali.price_parser.web.dto.ProductChangeResponse;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Лента изменений товаров из outbox: потребитель хранит id последнего события
+ * и запрашивает только то, что появилось после него, вместо перечитывания каталога.
+ */
+@RestController
+public class ProductChangesController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final ProductChangeRepository productChangeRepository;
+
+    public ProductChangesController(ProductChangeRepository productChangeRepository) {
+        this.productChangeRepository = productChangeRepository;
+    }
+
+    /**
+     * События с id больше after, по возрастанию id.
+     *
+     * Примеры:
+     * GET /products/changes
+     * GET /products/changes?after=1520&limit=500
+     */
+    @GetMapping("/products/changes")
+    public List<ProductChangeResponse> getChanges(
+            @RequestParam(name = "after", defaultValue = "0") long after,
+            @RequestParam(name = "limit", defaultValue = "100") int limit
+    ) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return productChangeRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, pageSize)).stream()
+                .map(ProductChangeResponse::of)
+                .toList();
+    }
+}
@@ -0,0 +1,89 @@
+package com.github.neshali.price_parser.web;
+
+import com.github.neshali.price_parser.domain.Price;
+import com.github.neshali.price_parser.outbox.LiveProductChangeSink;
+import com.github.neshali.price_parser.outbox.ProductChangeFilter;
+import com.github.neshali.price_parser.service.ProductFilterCriteria;
+import com.github.neshali.price_parser.web.dto.ProductChangeResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+/**
+ * Живая лента сохранённых товаров по Server-Sent Events вместо опроса /products/filtered.
+ */
+@RestController
+public class ProductStreamController {
+
+    private final LiveProductChangeSink liveProductChangeSink;
+    private final int maxSubscribers;
+    private final int subscriberBuffer;
+    private final Duration heartbeat;
+
+    public ProductStreamController(
+            LiveProductChangeSink liveProductChangeSink,
+            @Value("${price-parser.live.max-subscribers:1000}") int maxSubscribers,
+            @Value("${price-parser.live.subscriber-buffer:256}") int subscriberBuffer,
+            @Value("${price-parser.live.heartbeat-ms:15000}") long heartbeatMs
+    ) {
+        this.liveProductChangeSink = liveProductChangeSink;
+        this.maxSubscribers = maxSubscribers;
+        this.subscriberBuffer = subscriberBuffer;
+        this.heartbeat = Duration.ofMillis(heartbeatMs);
+    }
+
+    /**
+     * Поток товаров, сохраняемых после подписки и подходящих под фильтр
+     * (параметры как у /products/filtered, без сортировки и страниц).
+     * id события - смещение в /products/changes; пропущенное при переподключении
+     * можно дочитать оттуда. Пустые комментарии раз в heartbeat-ms держат соединение.
+     *
+     * Примеры:
+     * GET /products/stream
+     * GET /products/stream?q=phone&maxPrice=1000
+     */
+    @GetMapping(value = "/products/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<ProductChangeResponse>>> streamProducts(
+            @RequestParam(name = "q", required = false) String query,
+            @RequestParam(name = "minPrice", required = false) BigDecimal minPrice,
+            @RequestParam(name = "maxPrice", required = false) BigDecimal maxPrice
+    ) {
+        requirePrice("minPrice", minPrice);
+        requirePrice("maxPrice", maxPrice);
+        if (liveProductChangeSink.subscriberCount() >= maxSubscribers) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+
+        ProductFilterCriteria criteria = new ProductFilterCriteria();
+        criteria.setQuery(query);
+        criteria.setMinPrice(minPrice);
+        criteria.setMaxPrice(maxPrice);
+
+        Flux<ServerSentEvent<ProductChangeResponse>> changes = liveProductChangeSink
+                .changes(ProductChangeFilter.of(criteria), subscriberBuffer)
+                .map(change -> ServerSentEvent.builder(ProductChangeResponse.of(change))
+                        .id(String.valueOf(change.getId()))
+                        .event(change.getType().name())
+                        .build());
+        Flux<ServerSentEvent<ProductChangeResponse>> keepAlive = Flux.interval(heartbeat)
+                .map(tick -> ServerSentEvent.<ProductChangeResponse>builder().comment("").build());
+
+        return ResponseEntity.ok(Flux.merge(changes, keepAlive));
+    }
+
+    private static void requirePrice(String name, BigDecimal value) {
+        if (value != null && !Price.fitsMinorUnits(value)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, name + " is out of range");
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.github.neshali.price_parser.web;
+
+import com.github.neshali.price_parser.profiling.TaskTiming;
+import com.github.neshali.price_parser.profiling.TaskTimingRecorder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Самые медленные задачи парсинга с разбивкой времени по отрезкам.
+ */
+@RestController
+public class TaskTimingController {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final TaskTimingRecorder taskTimingRecorder;
+
+    public TaskTimingController(TaskTimingRecorder taskTimingRecorder) {
+        this.taskTimingRecorder = taskTimingRecorder;
+    }
+
+    /**
+     * Пример:
+     * GET /tasks/slowest?limit=10&windowSeconds=300
+     */
+    @GetMapping("/tasks/slowest")
+    public List<TaskTiming> getSlowest(
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "300") long windowSeconds
+    ) {
+        return taskTimingRecorder.slowest(Math.max(0, Math.min(limit, MAX_LIMIT)),
+                Duration.ofSeconds(Math.max(0, windowSeconds)));
+    }
+}
@@ -0,0 +1,29 @@
+package com.github.neshali.price_parser.web.dto;
+
+/**
+ * DTO для постановки URL на регулярный мониторинг цены.
+ */
+public class CreateMonitorRequest {
+
+    private String url;
+    private Long intervalSeconds;
+
+    public CreateMonitorRequest() {
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public Long getIntervalSeconds() {
+        return intervalSeconds;
+    }
+
+    public void setIntervalSeconds(Long intervalSeconds) {
+        this.intervalSeconds = intervalSeconds;
+    }
+}
@@ -0,0 +1,123 @@
+package com.github.neshali.price_parser.web.dto;
+
+import com.github.neshali.price_parser.domain.Price;
+import com.github.neshali.price_parser.domain.ProductChange;
+import com.github.neshali.price_parser.domain.ProductChangeType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Событие ленты изменений товаров. id - смещение: следующий запрос делается с after=id.
+ */
+public class ProductChangeResponse {
+
+    private Long id;
+    private ProductChangeType type;
+    private Long productId;
+    private String name;
+    private BigDecimal price;
+    private BigDecimal previousPrice;
+    private String currency;
+    private BigDecimal basePrice;
+    private String sourceUrl;
+    private LocalDateTime createdAt;
+
+    public ProductChangeResponse() {
+    }
+
+    public static ProductChangeResponse of(ProductChange change) {
+        ProductChangeResponse dto = new ProductChangeResponse();
+        dto.setId(change.getId());
+        dto.setType(change.getType());
+        dto.setProductId(change.getProductId());
+        dto.setName(change.getName());
+        dto.setPrice(Price.toDecimal(change.getPriceMinor()));
+        dto.setPreviousPrice(Price.toDecimal(change.getPreviousPriceMinor()));
+        dto.setCurrency(change.getCurrency());
+        dto.setBasePrice(Price.toDecimal(change.getBasePriceMinor()));
+        dto.setSourceUrl(change.getSourceUrl());
+        dto.setCreatedAt(change.getCreatedAt());
+        return dto;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public ProductChangeType getType() {
+        return type;
+    }
+
+    public void setType(ProductChangeType type) {
+        this.type = type;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public BigDecimal getPreviousPrice() {
+        return previousPrice;
+    }
+
+    public void setPreviousPrice(BigDecimal previousPrice) {
+        this.previousPrice = previousPrice;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public BigDecimal getBasePrice() {
+        return basePrice;
+    }
+
+    public void setBasePrice(BigDecimal basePrice) {
+        this.basePrice = basePrice;
+    }
+
+    public String getSourceUrl() {
+        return sourceUrl;
+    }
+
+    public void setSourceUrl(String sourceUrl) {
+        this.sourceUrl = sourceUrl;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -1,23 +1,63 @@
 package com.github.neshali.price_parser.web.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.github.neshali.price_parser.domain.Price;
+import com.github.neshali.price_parser.repository.ProductField;
+import com.github.neshali.price_parser.repository.ProductRow;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Set;
 
 /**
  * DTO для отдачи данных о товарах наружу.
+ * Пустые поля и поля, не запрошенные параметром fields=, в JSON не выводятся.
  */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class ProductResponse {
 
     private Long id;
     private String name;
     private String description;
     private BigDecimal price;
+    private String currency;
+    private BigDecimal basePrice;
     private LocalDateTime publicationDate;
     private String sourceUrl;
 
     public ProductResponse() {
     }
 
+    /**
+     * Ответ из строки проекции; заполняются только поля из fields.
+     */
+    public static ProductResponse of(ProductRow row, Set<ProductField> fields) {
+        ProductResponse dto = new ProductResponse();
+        dto.setId(row.id());
+        if (fields.contains(ProductField.NAME)) {
+            dto.setName(row.name());
+        }
+        if (fields.contains(ProductField.DESCRIPTION)) {
+            dto.setDescription(row.description());
+        }
+        if (fields.contains(ProductField.PRICE)) {
+            dto.setPrice(Price.toDecimal(row.priceMinor()));
+        }
+        if (fields.contains(ProductField.CURRENCY)) {
+            dto.setCurrency(row.currency());
+        }
+        if (fields.contains(ProductField.BASE_PRICE)) {
+            dto.setBasePrice(Price.toDecimal(row.basePriceMinor()));
+        }
+        if (fields.contains(ProductField.PUBLICATION_DATE)) {
+            dto.setPublicationDate(row.publicationDate());
+        }
+        if (fields.contains(ProductField.SOURCE_URL)) {
+            dto.setSourceUrl(row.sourceUrl());
+        }
+        return dto;
+    }
+
     public Long getId() {
         return id;
     }
@@ -50,6 +90,25 @@ public class ProductResponse {
         this.price = price;
     }
 
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    /**
+     * Цена в базовой валюте (price-parser.fx.base-currency) или null, если для валюты нет курса.
+     */
+    public BigDecimal getBasePrice() {
+        return basePrice;
+    }
+
+    public void setBasePrice(BigDecimal basePrice) {
+        this.basePrice = basePrice;
+    }
+
     public LocalDateTime getPublicationDate() {
         return publicationDate;
     }
@@ -0,0 +1,130 @@
+package com.github.neshali.price_parser.web.dto;
+
+import com.github.neshali.price_parser.domain.ParsingTaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Статистика очереди задач парсинга.
+ */
+public class TaskStatsResponse {
+
+    /**
+     * Количество задач по статусам.
+     */
+    private Map<ParsingTaskStatus, Long> counts;
+
+    /**
+     * Возраст самой старой задачи NEW в секундах или null, если очередь пуста.
+     */
+    private Long oldestNewAgeSeconds;
+
+    /**
+     * Обработано задач в минуту (успешно и с ошибкой), скользящее среднее за 1, 5 и 15 минут.
+     */
+    private double throughput1m;
+    private double throughput5m;
+    private double throughput15m;
+
+    /**
+     * Доля задач, завершившихся ошибкой, за последние ~5 минут (0..1).
+     */
+    private double failureRate;
+
+    /**
+     * Завершено с момента запуска приложения.
+     */
+    private long completedSinceStart;
+    private long failedSinceStart;
+
+    /**
+     * Когда счётчики последний раз сверялись с БД.
+     */
+    private LocalDateTime reconciledAt;
+
+    /**
+     * Через сколько миллисекунд после старта JVM завершилась первая задача, или null.
+     */
+    private Long timeToFirstTaskMs;
+
+    public Map<ParsingTaskStatus, Long> getCounts() {
+        return counts;
+    }
+
+    public void setCounts(Map<ParsingTaskStatus, Long> counts) {
+        this.counts = counts;
+    }
+
+    public Long getOldestNewAgeSeconds() {
+        return oldestNewAgeSeconds;
+    }
+
+    public void setOldestNewAgeSeconds(Long oldestNewAgeSeconds) {
+        this.oldestNewAgeSeconds = oldestNewAgeSeconds;
+    }
+
+    public double getThroughput1m() {
+        return throughput1m;
+    }
+
+    public void setThroughput1m(double throughput1m) {
+        this.throughput1m = throughput1m;
+    }
+
+    public double getThroughput5m() {
+        return throughput5m;
+    }
+
+    public void setThroughput5m(double throughput5m) {
+        this.throughput5m = throughput5m;
+    }
+
+    public double getThroughput15m() {
+        return throughput15m;
+    }
+
+    public void setThroughput15m(double throughput15m) {
+        this.throughput15m = throughput15m;
+    }
+
+    public double getFailureRate() {
+        return failureRate;
+    }
+
+    public void setFailureRate(double failureRate) {
+        this.failureRate = failureRate;
+    }
+
+    public long getCompletedSinceStart() {
+        return completedSinceStart;
+    }
+
+    public void setCompletedSinceStart(long completedSinceStart) {
+        this.completedSinceStart = completedSinceStart;
+    }
+
+    public long getFailedSinceStart() {
+        return failedSinceStart;
+    }
+
+    public void setFailedSinceStart(long failedSinceStart) {
+        this.failedSinceStart = failedSinceStart;
+    }
+
+    public LocalDateTime getReconciledAt() {
+        return reconciledAt;
+    }
+
+    public void setReconciledAt(LocalDateTime reconciledAt) {
+        this.reconciledAt = reconciledAt;
+    }
+
+    public Long getTimeToFirstTaskMs() {
+        return timeToFirstTaskMs;
+    }
+
+    public void setTimeToFirstTaskMs(Long timeToFirstTaskMs) {
+        this.timeToFirstTaskMs = timeToFirstTaskMs;
+    }
+}
@@ -0,0 +1,36 @@
+package com.github.neshali.price_parser;
+
+import com.github.neshali.price_parser.config.DataInitializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Профиль fast-startup: ленивые бины, кроме горячего пути и @Scheduled, без демо-данных.
+ */
+@SpringBootTest
+@ActiveProfiles("fast-startup")
+class FastStartupProfileTests {
+
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+
+    @Test
+    void contextLoads_withOnlyHotPathBeansCreatedEagerly() {
+        assertThat(beanFactory.getBeanNamesForType(DataInitializer.class)).isEmpty();
+
+        // Обработка задач и расписания работают сразу после старта
+        assertThat(beanFactory.containsSingleton("parsingPipeline")).isTrue();
+        assertThat(beanFactory.containsSingleton("parsingTaskProcessingService")).isTrue();
+        assertThat(beanFactory.containsSingleton("parsingScheduler")).isTrue();
+        assertThat(beanFactory.containsSingleton("productChangeRelay")).isTrue();
+
+        // Каталог не нужен до первого запроса
+        assertThat(beanFactory.containsSingleton("productQueryService")).isFalse();
+        assertThat(beanFactory.containsSingleton("productQueryExecutor")).isFalse();
+    }
+}
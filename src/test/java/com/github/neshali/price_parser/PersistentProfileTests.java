@@ -0,0 +1,48 @@
+package com.github.neshali.price_parser;
+
+import com.github.neshali.price_parser.config.DataInitializer;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Профиль persistent: БД в файле, без демо-данных, пул по числу потоков записи.
+ */
+@SpringBootTest
+@ActiveProfiles("persistent")
+class PersistentProfileTests {
+
+    @TempDir
+    static Path dataDir;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("price-parser.data-dir", () -> dataDir.toString());
+        registry.add("price-parser.pipeline.persist.workers", () -> "2");
+    }
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void contextLoads_withFileDatabaseAndWithoutDemoData() {
+        assertThat(context.getBeanNamesForType(DataInitializer.class)).isEmpty();
+        assertThat(Files.exists(dataDir.resolve("priceparserdb.mv.db"))).isTrue();
+        assertThat(((HikariDataSource) dataSource).getMaximumPoolSize()).isEqualTo(6);
+    }
+}
@@ -1,13 +1,27 @@
 package com.github.neshali.price_parser;
 
+import com.zaxxer.hikari.HikariDataSource;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
 @SpringBootTest
 class PriceParserApplicationTests {
 
+	@Autowired
+	private DataSource dataSource;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void connectionPool_shouldKeepHikariDefault_outsidePersistentProfile() {
+		assertThat(((HikariDataSource) dataSource).getMaximumPoolSize()).isEqualTo(10);
+	}
+
 }
@@ -0,0 +1,142 @@
+package com.github.neshali.price_parser;
+
+import com.github.neshali.price_parser.domain.Product;
+import com.github.neshali.price_parser.repository.ProductRepository;
+import com.github.neshali.price_parser.service.ProductFilterCriteria;
+import com.github.neshali.price_parser.service.ProductQueryCache;
+import com.github.neshali.price_parser.service.ProductQueryService;
+import com.github.neshali.price_parser.web.dto.ProductResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Разделение чтения и записи на двух H2 в памяти: "primary" и "replica".
+ * Репликацию имитирует перенос снимка primary в replica через SCRIPT / RUNSCRIPT.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:rw_primary;DB_CLOSE_DELAY=-1",
+        "price-parser.datasource.replica.enabled=true",
+        "price-parser.datasource.replica.jdbc-url=jdbc:h2:mem:rw_replica;DB_CLOSE_DELAY=-1",
+        "price-parser.datasource.replica.username=sa",
+        "price-parser.datasource.replica.maximum-pool-size=2",
+        "price-parser.demo.enabled=false"
+})
+class ReadWriteDataSourceTests {
+
+    @TempDir
+    static Path tempDir;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductQueryService productQueryService;
+
+    @Autowired
+    private ProductQueryCache productQueryCache;
+
+    @Test
+    void readOnlyTransactions_shouldUseReplica() {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        String readOnlyDatabase = readOnly.execute(status -> jdbc.queryForObject("select database()", String.class));
+        String readWriteDatabase = readWrite.execute(status -> jdbc.queryForObject("select database()", String.class));
+
+        assertThat(readOnlyDatabase).isEqualToIgnoringCase("rw_replica");
+        assertThat(readWriteDatabase).isEqualToIgnoringCase("rw_primary");
+    }
+
+    @Test
+    void catalogQueries_shouldReadFromReplica() {
+        productRepository.save(product("Replicated phone", "https://example.com/replicated"));
+        replicate();
+
+        // Запись после "репликации" видна только в primary
+        productRepository.save(product("Fresh phone", "https://example.com/fresh"));
+        productQueryCache.invalidate();
+
+        ProductFilterCriteria criteria = new ProductFilterCriteria();
+        criteria.setSize(20);
+        List<ProductResponse> products = productQueryService.getFilteredProducts(criteria);
+
+        assertThat(products).extracting(ProductResponse::getName).containsExactly("Replicated phone");
+        // С репликой кэш и ETag выключены: отставшая страница не закрепляется под новой версией
+        assertThat(productQueryService.getFilteredProductsEtag(criteria)).isNull();
+        assertThat(new JdbcTemplate(primaryDataSource).queryForObject("select count(*) from products", Long.class))
+                .isEqualTo(2);
+    }
+
+    @Test
+    void readModifyWriteQueries_shouldReadFromPrimary() {
+        productRepository.save(product("Replicated kettle", "https://example.com/replicated-kettle"));
+        replicate();
+        productRepository.save(product("Fresh kettle", "https://example.com/fresh-kettle"));
+
+        // Загрузка LastPriceIndex сверяется с новыми записями: строки с реплики отстали бы
+        List<ProductRepository.ProductPrice> prices = productRepository.findPricesBefore(Long.MAX_VALUE,
+                PageRequest.of(0, 100));
+
+        assertThat(prices).extracting(ProductRepository.ProductPrice::getSourceUrl)
+                .contains("https://example.com/fresh-kettle");
+        productRepository.deleteAllInBatch();
+    }
+
+    private void replicate() {
+        String script = tempDir.resolve("snapshot.sql").toString().replace('\\', '/');
+        new JdbcTemplate(primaryDataSource).execute("script to '" + script + "'");
+
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("drop all objects");
+        // Пул реплики только для чтения, поэтому снимок накатываем отдельным соединением
+        replica.execute((java.sql.Connection connection) -> {
+            connection.setReadOnly(false);
+            try (var statement = connection.createStatement()) {
+                statement.execute("runscript from '" + script + "'");
+            } finally {
+                connection.setReadOnly(true);
+            }
+            return null;
+        });
+    }
+
+    private static Product product(String name, String url) {
+        Product product = new Product();
+        product.setName(name);
+        product.setSourceUrl(url);
+        product.setPriceMinor(1000L);
+        product.setPublicationDate(LocalDateTime.now());
+        return product;
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.neshali.price_parser.cluster;
+
+import com.github.neshali.price_parser.domain.TaskPartitions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Юнит-тесты кольца консистентного хеширования на ключах партиций.
+ */
+class ConsistentHashRingTest {
+
+    @Test
+    void nodeFor_shouldSpreadPartitionsAcrossAllNodes() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b", "c"), 100);
+
+        Map<String, Integer> owned = new HashMap<>();
+        for (int p = 0; p < TaskPartitions.COUNT; p++) {
+            owned.merge(ring.nodeFor("partition-" + p), 1, Integer::sum);
+        }
+
+        assertThat(owned).containsOnlyKeys("a", "b", "c");
+        assertThat(owned.values()).allSatisfy(count -> assertThat(count).isGreaterThanOrEqualTo(8));
+    }
+
+    @Test
+    void nodeFor_shouldMoveOnlyPartitionsOfRemovedNode() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("a", "b", "c"), 100);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("a", "c"), 100);
+
+        for (int p = 0; p < TaskPartitions.COUNT; p++) {
+            String key = "partition-" + p;
+            if (!"b".equals(before.nodeFor(key))) {
+                assertThat(after.nodeFor(key)).as(key).isEqualTo(before.nodeFor(key));
+            }
+        }
+    }
+
+    @Test
+    void nodeFor_shouldReturnNull_forEmptyRing() {
+        assertThat(new ConsistentHashRing(List.of(), 100).nodeFor("partition-0")).isNull();
+    }
+}
@@ -0,0 +1,113 @@
+package com.github.neshali.price_parser.config;
+
+import com.github.neshali.price_parser.domain.DescriptionCodec;
+import com.github.neshali.price_parser.domain.Product;
+import com.github.neshali.price_parser.repository.ProductDescriptionRepository;
+import com.github.neshali.price_parser.repository.ProductRepository;
+import com.github.neshali.price_parser.service.DescriptionStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Хранилище описаний и перенос старой колонки products.description на H2.
+ * Без общей транзакции теста: insertIfAbsent выполняется в своей (REQUIRES_NEW).
+ */
+@DataJpaTest
+@Import({DescriptionStore.class, DescriptionMigration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DescriptionMigrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DescriptionStore descriptionStore;
+
+    @Autowired
+    private DescriptionMigration descriptionMigration;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductDescriptionRepository productDescriptionRepository;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("alter table products drop column if exists description");
+        productRepository.deleteAllInBatch();
+        productDescriptionRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void store_shouldKeepOneRowPerText() {
+        String hash = descriptionStore.store("Stainless steel kettle");
+
+        assertThat(descriptionStore.store("Stainless steel kettle")).isEqualTo(hash);
+        // Новый экземпляр без кэша хешей: вставка натыкается на существующую строку и ничего не делает
+        assertThat(new DescriptionStore(productDescriptionRepository, 10).store("Stainless steel kettle"))
+                .isEqualTo(hash);
+        assertThat(productDescriptionRepository.count()).isEqualTo(1);
+        assertThat(productDescriptionRepository.findById(hash)).get()
+                .satisfies(description -> assertThat(description.text()).isEqualTo("Stainless steel kettle"));
+        assertThat(descriptionStore.store(null)).isNull();
+    }
+
+    @Test
+    void insertIfAbsent_shouldSkipExistingHash() {
+        byte[] content = DescriptionCodec.encode("Lamp");
+        String hash = DescriptionCodec.hash("Lamp");
+
+        assertThat(productDescriptionRepository.insertIfAbsent(hash, content, 4, LocalDateTime.now())).isEqualTo(1);
+        assertThat(productDescriptionRepository.insertIfAbsent(hash, content, 4, LocalDateTime.now())).isZero();
+        assertThat(productDescriptionRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void run_shouldMoveDescriptionsInBatchesAndDropColumn() {
+        // Больше одной пачки (500), тексты повторяются
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 1_001; i++) {
+            rows.add(new Object[]{"Product " + i, "https://example.com/product/" + i});
+        }
+        jdbcTemplate.batchUpdate("insert into products (name, price_minor, currency, source_url) "
+                + "values (?, 1000, 'RUB', ?)", rows);
+        jdbcTemplate.execute("alter table products add column description varchar(4000)");
+        jdbcTemplate.update("update products set description = concat('Description ', mod(id, 3))");
+
+        descriptionMigration.run();
+
+        assertThat(descriptionColumnExists()).isFalse();
+        assertThat(productDescriptionRepository.count()).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from products where description_hash is null", Integer.class)).isZero();
+        Product first = productRepository.findAll().get(0);
+        assertThat(productDescriptionRepository.findById(first.getDescriptionHash())).get()
+                .satisfies(description -> assertThat(description.text())
+                        .isEqualTo("Description " + first.getId() % 3));
+
+        // Повторный запуск без колонки ничего не делает
+        descriptionMigration.run();
+        assertThat(productDescriptionRepository.count()).isEqualTo(3);
+    }
+
+    private boolean descriptionColumnExists() {
+        Integer columns = jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.columns "
+                        + "where upper(table_name) = 'PRODUCTS' and upper(column_name) = 'DESCRIPTION'",
+                Integer.class);
+        return columns != null && columns > 0;
+    }
+}
@@ -0,0 +1,40 @@
+package com.github.neshali.price_parser.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Юнит-тесты формата хранения описаний.
+ */
+class DescriptionCodecTest {
+
+    @Test
+    void encode_shouldRoundTripAndCompressTypicalDescription() {
+        String text = ("Электрический чайник из нержавеющей стали, объём 1.7 л, мощность 2200 Вт. "
+                + "Автоотключение при закипании и снятии с подставки, защита от включения без воды. ").repeat(6);
+
+        byte[] encoded = DescriptionCodec.encode(text);
+
+        assertThat(DescriptionCodec.decode(encoded)).isEqualTo(text);
+        assertThat(encoded.length).isLessThan(text.getBytes(StandardCharsets.UTF_8).length / 3);
+    }
+
+    @Test
+    void encode_shouldStoreShortTextWithoutCompression() {
+        byte[] encoded = DescriptionCodec.encode("Lamp");
+
+        assertThat(encoded[0]).isEqualTo(DescriptionCodec.RAW);
+        assertThat(DescriptionCodec.decode(encoded)).isEqualTo("Lamp");
+    }
+
+    @Test
+    void hash_shouldDependOnlyOnText() {
+        assertThat(DescriptionCodec.hash("About Lamp"))
+                .isEqualTo(DescriptionCodec.hash(new String("About Lamp")))
+                .isNotEqualTo(DescriptionCodec.hash("About Lamp "))
+                .hasSize(64);
+    }
+}
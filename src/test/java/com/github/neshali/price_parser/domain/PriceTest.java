@@ -0,0 +1,48 @@
+package com.github.neshali.price_parser.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Юнит-тесты для цены в фиксированной точке.
+ */
+class PriceTest {
+
+    @Test
+    void toMinorUnits_shouldRoundToScale() {
+        assertThat(Price.toMinorUnits(new BigDecimal("99.90"))).isEqualTo(9990L);
+        assertThat(Price.toMinorUnits(new BigDecimal("10"))).isEqualTo(1000L);
+        assertThat(Price.toMinorUnits(new BigDecimal("10.005"))).isEqualTo(1001L);
+        assertThat(Price.toMinorUnits(new BigDecimal("10.001"), RoundingMode.CEILING)).isEqualTo(1001L);
+        assertThat(Price.toMinorUnits(new BigDecimal("10.009"), RoundingMode.FLOOR)).isEqualTo(1000L);
+    }
+
+    @Test
+    void fitsMinorUnits_shouldRejectAmountsBeyondLong() {
+        assertThat(Price.fitsMinorUnits(new BigDecimal("92233720368547758.07"))).isTrue();
+        assertThat(Price.fitsMinorUnits(new BigDecimal("-92233720368547758.08"))).isTrue();
+        // Округление вверх выводит за Long.MAX_VALUE
+        assertThat(Price.fitsMinorUnits(new BigDecimal("92233720368547758.071"))).isFalse();
+        assertThat(Price.fitsMinorUnits(new BigDecimal("1e20"))).isFalse();
+        assertThat(Price.fitsMinorUnits(new BigDecimal("1e1000000"))).isFalse();
+    }
+
+    @Test
+    void toDecimal_shouldKeepScaleAndNulls() {
+        assertThat(Price.toDecimal(8500L)).isEqualByComparingTo("85.00");
+        assertThat(Price.toDecimal(8500L).scale()).isEqualTo(Price.SCALE);
+        assertThat(Price.toDecimal(null)).isNull();
+    }
+
+    @Test
+    void normalizeCurrency_shouldAcceptOnlyIsoLikeCodes() {
+        assertThat(Price.normalizeCurrency(" usd ")).isEqualTo("USD");
+        assertThat(Price.normalizeCurrency("EURO")).isNull();
+        assertThat(Price.normalizeCurrency("$")).isNull();
+        assertThat(Price.normalizeCurrency(null)).isNull();
+    }
+}
@@ -0,0 +1,149 @@
+package com.github.neshali.price_parser.extraction;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Юнит-тесты движка извлечения цен на локальных HTML-фикстурах.
+ */
+class PriceExtractionEngineTest {
+
+    private ExtractorRegistry registry;
+    private PriceExtractionEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        ExtractionProperties.SiteRule shopRule = new ExtractionProperties.SiteRule();
+        shopRule.setPriceSelector("div.product span.price.current");
+        shopRule.setNameSelector("h1.title");
+        shopRule.setCurrency("RUB");
+
+        ExtractionProperties.SiteRule regexRule = new ExtractionProperties.SiteRule();
+        regexRule.setPriceRegex("Цена:\\s*(?<price>[\\d\\s]+)\\s*(?<currency>руб)");
+
+        ExtractionProperties properties = new ExtractionProperties();
+        properties.getSites().put("shop.example.net", shopRule);
+        properties.getSites().put("example.org", regexRule);
+
+        registry = new ExtractorRegistry(properties, new ObjectMapper());
+        engine = new PriceExtractionEngine(registry);
+    }
+
+    @Test
+    void extract_shouldReadJsonLdProduct() throws IOException {
+        ExtractedProduct product = engine.extract("https://example.com/product/1", fixture("jsonld-product.html"));
+
+        assertThat(product).isNotNull();
+        assertThat(product.getExtractor()).isEqualTo(JsonLdPriceExtractor.NAME);
+        assertThat(product.getName()).isEqualTo("Super Phone 3000");
+        assertThat(product.getPriceMinor()).isEqualTo(129990L);
+        assertThat(product.getCurrency()).isEqualTo("USD");
+    }
+
+    @Test
+    void extract_shouldReadMicrodataProduct() throws IOException {
+        ExtractedProduct product = engine.extract("https://example.com/product/2", fixture("microdata-product.html"));
+
+        assertThat(product).isNotNull();
+        assertThat(product.getExtractor()).isEqualTo(MicrodataPriceExtractor.NAME);
+        assertThat(product.getName()).isEqualTo("Coffee grinder X");
+        assertThat(product.getPriceMinor()).isEqualTo(8500L);
+        assertThat(product.getCurrency()).isEqualTo("EUR");
+    }
+
+    @Test
+    void extract_shouldUseSiteCssRule_forConfiguredHost() throws IOException {
+        ExtractedProduct product = engine.extract("https://www.shop.example.net/goods/100500", fixture("shop-example-net.html"));
+
+        assertThat(product).isNotNull();
+        assertThat(product.getExtractor()).isEqualTo("css:shop.example.net");
+        assertThat(product.getName()).isEqualTo("Super & Phone");
+        assertThat(product.getPriceMinor()).isEqualTo(129900L);
+        assertThat(product.getCurrency()).isEqualTo("RUB");
+    }
+
+    @Test
+    void extract_shouldUseSiteRegexRule_forConfiguredHost() {
+        String html = "<html><body><h1>Чайник</h1><p>Цена: 2 490 руб.</p></body></html>";
+
+        ExtractedProduct product = engine.extract("https://example.org/item/42", html);
+
+        assertThat(product).isNotNull();
+        assertThat(product.getExtractor()).isEqualTo("regex:example.org");
+        assertThat(product.getPriceMinor()).isEqualTo(249000L);
+        assertThat(product.getCurrency()).isEqualTo("RUB");
+    }
+
+    @Test
+    void extract_shouldReturnNull_whenPageHasNoPrice() {
+        ExtractedProduct product = engine.extract("https://example.com/about", "<html><body><p>About us</p></body></html>");
+
+        assertThat(product).isNull();
+    }
+
+    @Test
+    void feed_shouldGiveSameResultForArbitraryChunksAndStopEarly() throws IOException {
+        String html = fixture("jsonld-product.html");
+        PageExtraction extraction = engine.open("https://example.com/product/1");
+
+        int fed = 0;
+        for (int i = 0; i < html.length() && !extraction.isComplete(); i += 7) {
+            extraction.feed(html.subSequence(i, Math.min(i + 7, html.length())));
+            fed = Math.min(i + 7, html.length());
+        }
+        ExtractedProduct product = extraction.finish();
+
+        assertThat(extraction.isComplete()).isTrue();
+        assertThat(fed).isLessThan(html.indexOf("<body>"));
+        assertThat(product.getPriceMinor()).isEqualTo(129990L);
+        assertThat(product.getName()).isEqualTo("Super Phone 3000");
+    }
+
+    @Test
+    void extract_shouldTrackStatsPerExtractor() throws IOException {
+        engine.extract("https://example.com/product/1", fixture("jsonld-product.html"));
+        engine.extract("https://example.com/product/2", fixture("microdata-product.html"));
+
+        ExtractorStats jsonLd = registry.statsFor(JsonLdPriceExtractor.NAME);
+        ExtractorStats microdata = registry.statsFor(MicrodataPriceExtractor.NAME);
+
+        assertThat(jsonLd.getDocuments()).isEqualTo(2);
+        assertThat(jsonLd.getHits()).isEqualTo(1);
+        assertThat(microdata.getHits()).isEqualTo(1);
+        assertThat(jsonLd.getChars()).isPositive();
+    }
+
+    @Test
+    void parseMinorUnits_shouldHandleCommonFormats() {
+        assertThat(PriceTextParser.parseMinorUnits("$1,299.90")).isEqualTo(129990L);
+        assertThat(PriceTextParser.parseMinorUnits("1.299,90 €")).isEqualTo(129990L);
+        assertThat(PriceTextParser.parseMinorUnits("1 299 ₽")).isEqualTo(129900L);
+        assertThat(PriceTextParser.parseMinorUnits("12.999")).isEqualTo(1299900L);
+        assertThat(PriceTextParser.parseMinorUnits("85,5")).isEqualTo(8550L);
+        assertThat(PriceTextParser.parseMinorUnits("Price on request")).isNull();
+    }
+
+    @Test
+    void detectCurrency_shouldAcceptOnlyIsoCodes() {
+        assertThat(PriceTextParser.detectCurrency("1299.00 USD")).isEqualTo("USD");
+        assertThat(PriceTextParser.detectCurrency("NEW 1299.00 CHF")).isEqualTo("CHF");
+        assertThat(PriceTextParser.detectCurrency("SKU 4411: 85.00")).isNull();
+        assertThat(PriceTextParser.detectCurrency("85.00 XXL")).isNull();
+        assertThat(PriceTextParser.detectCurrency("85.00 incl. VAT")).isNull();
+        assertThat(PriceTextParser.detectCurrency("85.00 usd")).isNull();
+    }
+
+    private String fixture(String name) throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("/fixtures/" + name)) {
+            assertThat(in).as("fixture %s", name).isNotNull();
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
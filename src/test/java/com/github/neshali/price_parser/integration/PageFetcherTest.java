@@ -0,0 +1,149 @@
+package com.github.neshali.price_parser.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.neshali.price_parser.config.WebClientConfig;
+import com.github.neshali.price_parser.extraction.ExtractedProduct;
+import com.github.neshali.price_parser.extraction.ExtractionProperties;
+import com.github.neshali.price_parser.extraction.ExtractorRegistry;
+import com.github.neshali.price_parser.extraction.PageExtraction;
+import com.github.neshali.price_parser.extraction.PriceExtractionEngine;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Тесты потоковой загрузки страниц на локальном HTTP-сервере.
+ */
+class PageFetcherTest {
+
+    private static final String PAGE = """
+            <html><head><title>Чайник</title>
+            <meta itemprop="priceCurrency" content="RUB">
+            <meta itemprop="price" content="2490.00">
+            <meta itemprop="name" content="Чайник электрический">
+            </head><body><p>Описание товара</p></body></html>
+            """;
+
+    private HttpServer server;
+    private PriceExtractionEngine engine;
+    private String baseUrl;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        engine = new PriceExtractionEngine(new ExtractorRegistry(new ExtractionProperties(), new ObjectMapper()));
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/gzip", exchange -> {
+            byte[] body = gzip(PAGE.getBytes(StandardCharsets.UTF_8));
+            exchange.getResponseHeaders().add("Content-Type", "text/html; charset=UTF-8");
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/no-price", exchange -> {
+            byte[] body = "<html><head><title>Out of stock</title></head><body>Нет в наличии</body></html>"
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/html; charset=UTF-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/missing", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void fetchAndExtract_shouldReadCompressedPage() {
+        PageFetcher fetcher = fetcher(512 * 1024);
+
+        ExtractedProduct product = fetcher.fetchAndExtract(baseUrl + "/gzip");
+
+        assertThat(product).isNotNull();
+        assertThat(product.getName()).isEqualTo("Чайник электрический");
+        assertThat(product.getPriceMinor()).isEqualTo(249000L);
+        assertThat(product.getCurrency()).isEqualTo("RUB");
+    }
+
+    @Test
+    void fetchAndExtract_shouldReturnNull_whenPageHasNoPrice() {
+        PageFetcher fetcher = fetcher(512 * 1024);
+
+        assertThat(fetcher.fetchAndExtract(baseUrl + "/no-price")).isNull();
+    }
+
+    @Test
+    void fetchAndExtract_shouldFail_onErrorStatus() {
+        PageFetcher fetcher = fetcher(512 * 1024);
+
+        assertThatThrownBy(() -> fetcher.fetchAndExtract(baseUrl + "/missing"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("404");
+    }
+
+    @Test
+    void bodyReader_shouldDecodeMultibyteCharsSplitAcrossBuffers() {
+        PageExtraction extraction = engine.open("https://example.com/kettle");
+        PageBodyReader reader = new PageBodyReader(extraction, StandardCharsets.UTF_8, Long.MAX_VALUE);
+
+        for (byte b : PAGE.getBytes(StandardCharsets.UTF_8)) {
+            if (reader.consume(ByteBuffer.wrap(new byte[]{b}))) {
+                break;
+            }
+        }
+        reader.finish();
+        ExtractedProduct product = extraction.finish();
+
+        assertThat(product.getName()).isEqualTo("Чайник электрический");
+        assertThat(product.getPriceMinor()).isEqualTo(249000L);
+    }
+
+    @Test
+    void bodyReader_shouldStopAtByteLimit() {
+        PageExtraction extraction = engine.open("https://example.com/kettle");
+        PageBodyReader reader = new PageBodyReader(extraction, StandardCharsets.UTF_8, 16);
+
+        boolean done = reader.consume(ByteBuffer.wrap(PAGE.getBytes(StandardCharsets.UTF_8)));
+        reader.finish();
+
+        assertThat(done).isTrue();
+        assertThat(reader.isTruncated()).isTrue();
+        assertThat(reader.getBytesRead()).isEqualTo(16);
+        assertThat(extraction.finish()).isNull();
+    }
+
+    private PageFetcher fetcher(long maxBytes) {
+        return new PageFetcher(new WebClientConfig().pageFetcherWebClient(2000, "test"), engine, true, maxBytes, 2000);
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+}
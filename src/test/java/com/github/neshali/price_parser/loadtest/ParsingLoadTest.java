@@ -0,0 +1,278 @@
+package com.github.neshali.price_parser.loadtest;
+
+import com.github.neshali.price_parser.domain.ParsingTaskStatus;
+import com.github.neshali.price_parser.web.dto.CreateParsingTaskRequest;
+import com.github.neshali.price_parser.web.dto.TaskStatsResponse;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Нагрузочный прогон всего приложения: N синтетических задач через POST /parse,
+ * параллельно - выборки /products/filtered, обогащение через локальную заглушку.
+ *
+ * Не входит в обычную сборку, запускается профилем:
+ *   mvn -Pload-test test -Dload.tasks=5000 -Dload.stub-latency-ms=50
+ * Режимы приложения сравниваются переопределением его настроек, например
+ *   -Dprice-parser.concurrency.adaptive=false -Dprice-parser.query.parallel-threshold=0
+ * Отчёт (задач/с, p50/p99 запросов, пик кучи) печатается в лог и пишется в target/load-test.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("load")
+class ParsingLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ParsingLoadTest.class);
+
+    private static final int TASKS = Integer.getInteger("load.tasks", 2000);
+    private static final int PARSE_CLIENTS = Integer.getInteger("load.parse-clients", 8);
+    private static final int QUERY_CLIENTS = Integer.getInteger("load.query-clients", 2);
+    private static final int HOSTS = Integer.getInteger("load.hosts", 50);
+    private static final int DUPLICATE_PERCENT = Integer.getInteger("load.duplicate-percent", 10);
+    private static final long STUB_LATENCY_MS = Long.getLong("load.stub-latency-ms", 20);
+    private static final long STUB_JITTER_MS = Long.getLong("load.stub-jitter-ms", 10);
+    private static final double STUB_ERROR_RATE = Double.parseDouble(System.getProperty("load.stub-error-rate", "0.05"));
+    private static final long TIMEOUT_SECONDS = Long.getLong("load.timeout-seconds", 600);
+
+    /**
+     * Настройки приложения, которые попадают в отчёт для сравнения прогонов.
+     */
+    private static final List<String> REPORTED_PROPERTIES = List.of(
+            "price-parser.pipeline.fetch.workers",
+            "price-parser.pipeline.enrich.workers",
+            "price-parser.pipeline.persist.workers",
+            "price-parser.parser.max-tasks-per-tick",
+            "price-parser.concurrency.adaptive",
+            "price-parser.concurrency.max-limit",
+            "price-parser.query.parallel-threshold",
+            "price-parser.query.max-concurrent",
+            "price-parser.query-cache.enabled"
+    );
+
+    private static StubEnrichmentServer stub;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) throws IOException {
+        stub = new StubEnrichmentServer(STUB_LATENCY_MS, STUB_JITTER_MS, STUB_ERROR_RATE, 64);
+        registry.add("price-parser.external-service.base-url", stub::baseUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        if (stub != null) {
+            stub.close();
+        }
+    }
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private Environment environment;
+
+    @Test
+    void parseAndQueryUnderLoad() throws Exception {
+        List<String> corpus = syntheticUrls();
+        LatencyRecorder parseLatency = new LatencyRecorder();
+        LatencyRecorder queryLatency = new LatencyRecorder();
+        AtomicLong queryErrors = new AtomicLong();
+        AtomicBoolean running = new AtomicBoolean(true);
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        AtomicLong peakHeap = new AtomicLong();
+
+        ExecutorService clients = Executors.newFixedThreadPool(PARSE_CLIENTS + QUERY_CLIENTS + 1);
+        long started = System.nanoTime();
+        try {
+            clients.submit(() -> {
+                while (running.get()) {
+                    peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                    sleep(100);
+                }
+            });
+            for (int c = 0; c < QUERY_CLIENTS; c++) {
+                clients.submit(() -> {
+                    while (running.get()) {
+                        int min = ThreadLocalRandom.current().nextInt(10, 60);
+                        HttpStatusCode status = queryLatency.time(() -> rest.getForEntity(
+                                "/products/filtered?minPrice={min}&maxPrice={max}&sortBy=PRICE&size=20",
+                                String.class, min, min + 30).getStatusCode());
+                        if (status.isError()) {
+                            queryErrors.incrementAndGet();
+                        }
+                    }
+                });
+            }
+
+            List<Future<?>> submitters = new ArrayList<>();
+            for (int c = 0; c < PARSE_CLIENTS; c++) {
+                int client = c;
+                submitters.add(clients.submit(() -> {
+                    for (int i = client; i < corpus.size(); i += PARSE_CLIENTS) {
+                        CreateParsingTaskRequest request = new CreateParsingTaskRequest(corpus.get(i));
+                        HttpStatusCode status = parseLatency.time(
+                                () -> rest.postForEntity("/parse", request, String.class).getStatusCode());
+                        assertThat(status.is2xxSuccessful()).isTrue();
+                    }
+                }));
+            }
+            for (Future<?> submitter : submitters) {
+                submitter.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            }
+            double submitSeconds = (System.nanoTime() - started) / 1e9;
+
+            TaskStatsResponse stats = awaitAllFinished(started);
+            double totalSeconds = (System.nanoTime() - started) / 1e9;
+            running.set(false);
+
+            long completed = stats.getCounts().get(ParsingTaskStatus.COMPLETED);
+            long failed = stats.getCounts().get(ParsingTaskStatus.FAILED);
+            String report = report(submitSeconds, totalSeconds, completed, failed,
+                    parseLatency, queryLatency, queryErrors.get(), peakHeap.get());
+            log.info("Load test report:\n{}", report);
+            writeReport(report);
+
+            assertThat(completed + failed).isEqualTo(TASKS);
+        } finally {
+            running.set(false);
+            clients.shutdownNow();
+            clients.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Синтетические URL: HOSTS магазинов, DUPLICATE_PERCENT повторов уже выданных адресов.
+     */
+    private static List<String> syntheticUrls() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<String> urls = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            if (!urls.isEmpty() && random.nextInt(100) < DUPLICATE_PERCENT) {
+                urls.add(urls.get(random.nextInt(urls.size())));
+            } else {
+                urls.add(String.format(Locale.ROOT, "https://shop-%d.load.test/catalog/item-%d", i % HOSTS, i));
+            }
+        }
+        return urls;
+    }
+
+    private TaskStatsResponse awaitAllFinished(long started) {
+        long deadline = started + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (true) {
+            TaskStatsResponse stats = rest.getForObject("/tasks/stats", TaskStatsResponse.class);
+            long finished = stats.getCounts().get(ParsingTaskStatus.COMPLETED)
+                    + stats.getCounts().get(ParsingTaskStatus.FAILED);
+            if (finished >= TASKS || System.nanoTime() > deadline) {
+                return stats;
+            }
+            sleep(50);
+        }
+    }
+
+    private String report(double submitSeconds, double totalSeconds, long completed, long failed,
+                          LatencyRecorder parse, LatencyRecorder query, long queryErrors, long peakHeap) {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "tasks             %d (completed %d, failed %d)%n", TASKS, completed, failed));
+        report.append(String.format(Locale.ROOT, "throughput        %.1f tasks/s (all submitted in %.1f s, finished in %.1f s)%n",
+                (completed + failed) / totalSeconds, submitSeconds, totalSeconds));
+        report.append(String.format(Locale.ROOT, "POST /parse       %s%n", parse.summary()));
+        report.append(String.format(Locale.ROOT, "GET /filtered     %s, errors %d%n", query.summary(), queryErrors));
+        report.append(String.format(Locale.ROOT, "peak heap         %.1f MB%n", peakHeap / (1024.0 * 1024.0)));
+        report.append(String.format(Locale.ROOT, "stub              latency %d+-%d ms, error rate %.2f, %d requests, %d errors%n",
+                STUB_LATENCY_MS, STUB_JITTER_MS, STUB_ERROR_RATE, stub.getRequests(), stub.getErrors()));
+        report.append(String.format(Locale.ROOT, "clients           parse %d, query %d, hosts %d, duplicates %d%%%n",
+                PARSE_CLIENTS, QUERY_CLIENTS, HOSTS, DUPLICATE_PERCENT));
+        for (String property : REPORTED_PROPERTIES) {
+            report.append(String.format(Locale.ROOT, "%s=%s%n", property, environment.getProperty(property, "(default)")));
+        }
+        return report.toString();
+    }
+
+    private static void writeReport(String report) throws IOException {
+        Path dir = Path.of("target", "load-test");
+        Files.createDirectories(dir);
+        String name = "report-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".txt";
+        Files.writeString(dir.resolve(name), report, StandardCharsets.UTF_8);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Задержки запросов в наносекундах; перцентили считаются по всем замерам.
+     */
+    private static final class LatencyRecorder {
+
+        private long[] samples = new long[1024];
+        private int size;
+
+        <T> T time(Supplier<T> request) {
+            long begin = System.nanoTime();
+            try {
+                return request.get();
+            } finally {
+                record(System.nanoTime() - begin);
+            }
+        }
+
+        private synchronized void record(long nanos) {
+            if (size == samples.length) {
+                samples = Arrays.copyOf(samples, size * 2);
+            }
+            samples[size++] = nanos;
+        }
+
+        synchronized String summary() {
+            if (size == 0) {
+                return "no requests";
+            }
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            return String.format(Locale.ROOT, "%d requests, p50 %.1f ms, p99 %.1f ms, max %.1f ms",
+                    size, percentile(sorted, 0.50), percentile(sorted, 0.99), sorted[size - 1] / 1e6);
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.github.neshali.price_parser.outbox;
+
+import com.github.neshali.price_parser.domain.ProductChange;
+import com.github.neshali.price_parser.service.ProductFilterCriteria;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Юнит-тесты живой ленты: раздача подписчикам, фильтр и ограниченный буфер.
+ */
+class LiveProductChangeSinkTest {
+
+    private final LiveProductChangeSink sink = new LiveProductChangeSink();
+
+    @Test
+    void changes_shouldFanOutToAllSubscribersWithTheirFilters() {
+        ProductFilterCriteria cheapPhones = new ProductFilterCriteria();
+        cheapPhones.setQuery("Phone");
+        cheapPhones.setMaxPrice(new BigDecimal("100.00"));
+
+        StepVerifier all = StepVerifier.create(sink.changes(change -> true, 16))
+                .expectNextCount(3)
+                .thenCancel()
+                .verifyLater();
+        StepVerifier filtered = StepVerifier.create(sink.changes(ProductChangeFilter.of(cheapPhones), 16))
+                .expectNextMatches(change -> change.getId() == 1L)
+                .thenCancel()
+                .verifyLater();
+
+        // Phone X дешевле 100 в своей валюте, но не в базовой
+        ProductChange phoneInUsd = change(2L, "Phone X", 1990L);
+        phoneInUsd.setCurrency("USD");
+        phoneInUsd.setBasePriceMinor(184_075L);
+        sink.publish(List.of(change(1L, "Smart phone", 9990L), phoneInUsd, change(3L, "Kettle", 990L)));
+
+        all.verify(Duration.ofSeconds(5));
+        filtered.verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void changes_shouldDropOldestEvents_whenSubscriberIsSlow() {
+        StepVerifier.create(sink.changes(change -> true, 2), 0)
+                .then(() -> sink.publish(List.of(change(1L, "a", 1L), change(2L, "b", 2L), change(3L, "c", 3L))))
+                .thenRequest(2)
+                .expectNextMatches(change -> change.getId() == 2L)
+                .expectNextMatches(change -> change.getId() == 3L)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    private static ProductChange change(long id, String name, long priceMinor) {
+        ProductChange change = new ProductChange();
+        change.setId(id);
+        change.setName(name);
+        change.setPriceMinor(priceMinor);
+        change.setBasePriceMinor(priceMinor);
+        return change;
+    }
+}
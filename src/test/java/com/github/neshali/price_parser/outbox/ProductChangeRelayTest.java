@@ -0,0 +1,193 @@
+package com.github.neshali.price_parser.outbox;
+
+import com.github.neshali.price_parser.domain.ChangeConsumerOffset;
+import com.github.neshali.price_parser.domain.ProductChange;
+import com.github.neshali.price_parser.repository.ChangeConsumerOffsetRepository;
+import com.github.neshali.price_parser.repository.ProductChangeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Юнит-тесты ретранслятора outbox: смещения получателей и повторная доставка.
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductChangeRelayTest {
+
+    @Mock
+    private ProductChangeRepository productChangeRepository;
+
+    @Mock
+    private ChangeConsumerOffsetRepository offsetRepository;
+
+    private final RecordingSink sink = new RecordingSink("file");
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(offsetRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void relay_shouldDeliverChangesAfterStoredOffsetAndAdvanceIt() {
+        when(offsetRepository.findById("file"))
+                .thenReturn(Optional.of(new ChangeConsumerOffset("file", 10L, LocalDateTime.now())));
+        when(productChangeRepository.findByIdGreaterThanOrderByIdAsc(eq(10L), any()))
+                .thenReturn(List.of(change(11L), change(12L)));
+
+        relay(100).relay();
+
+        assertThat(sink.delivered).extracting(ProductChange::getId).containsExactly(11L, 12L);
+        ArgumentCaptor<ChangeConsumerOffset> saved = ArgumentCaptor.forClass(ChangeConsumerOffset.class);
+        verify(offsetRepository, atLeastOnce()).save(saved.capture());
+        assertThat(saved.getValue().getLastChangeId()).isEqualTo(12L);
+    }
+
+    @Test
+    void relay_shouldKeepOffset_whenSinkFails() {
+        when(offsetRepository.findById("file")).thenReturn(Optional.empty());
+        when(productChangeRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any()))
+                .thenReturn(List.of(change(1L)));
+        sink.fail = true;
+
+        relay(100).relay();
+
+        verify(offsetRepository, never()).save(any());
+    }
+
+    @Test
+    void relay_shouldReadNextBatch_whenBatchIsFull() {
+        when(offsetRepository.findById("file")).thenReturn(Optional.empty());
+        when(productChangeRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any()))
+                .thenReturn(List.of(change(1L), change(2L)));
+        when(productChangeRepository.findByIdGreaterThanOrderByIdAsc(eq(2L), any()))
+                .thenReturn(List.of(change(3L)));
+
+        relay(2).relay();
+
+        assertThat(sink.delivered).extracting(ProductChange::getId).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void relay_shouldDeliverChangeCommittedAfterHigherId() {
+        when(offsetRepository.findById("file"))
+                .thenReturn(Optional.of(new ChangeConsumerOffset("file", 10L, LocalDateTime.now())));
+        // 12 зафиксировано, 11 ещё в транзакции
+        when(productChangeRepository.findByIdGreaterThanOrderByIdAsc(eq(10L), any()))
+                .thenReturn(List.of(change(12L)));
+        when(productChangeRepository.findByIdGreaterThanOrderByIdAsc(eq(12L), any()))
+                .thenReturn(List.of());
+        ProductChangeRelay relay = relay(100);
+
+        relay.relay();
+
+        assertThat(sink.delivered).extracting(ProductChange::getId).containsExactly(12L);
+        verify(offsetRepository, never()).save(any());
+
+        // 11 зафиксировано после того, как 12 уже доставлено
+        when(productChangeRepository.findAllById(List.of(11L))).thenReturn(List.of(change(11L)));
+
+        relay.relay();
+
+        assertThat(sink.delivered).extracting(ProductChange::getId).containsExactly(12L, 11L);
+        ArgumentCaptor<ChangeConsumerOffset> saved = ArgumentCaptor.forClass(ChangeConsumerOffset.class);
+        verify(offsetRepository).save(saved.capture());
+        assertThat(saved.getValue().getLastChangeId()).isEqualTo(12L);
+    }
+
+    @Test
+    void relay_shouldSkipGap_whenItOutlivesGapTimeout() {
+        when(offsetRepository.findById("file")).thenReturn(Optional.empty());
+        when(productChangeRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any()))
+                .thenReturn(List.of(change(1L), change(3L)));
+        when(productChangeRepository.findByIdGreaterThanOrderByIdAsc(eq(3L), any()))
+                .thenReturn(List.of());
+        when(productChangeRepository.findAllById(List.of(2L))).thenReturn(List.of());
+        AtomicLong now = new AtomicLong(1_000);
+        ProductChangeRelay relay = relay(100, now);
+
+        relay.relay();
+        now.addAndGet(60_000);
+        relay.relay();
+
+        ArgumentCaptor<ChangeConsumerOffset> saved = ArgumentCaptor.forClass(ChangeConsumerOffset.class);
+        verify(offsetRepository, times(2)).save(saved.capture());
+        assertThat(saved.getAllValues()).extracting(ChangeConsumerOffset::getLastChangeId).containsExactly(1L, 3L);
+        assertThat(sink.delivered).extracting(ProductChange::getId).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void relay_shouldKeepNodeLocalOffsetInMemoryStartingFromLatestChange() {
+        RecordingSink live = new RecordingSink("live") {
+            @Override
+            public boolean nodeLocal() {
+                return true;
+            }
+        };
+        when(productChangeRepository.findMaxId()).thenReturn(40L);
+        when(productChangeRepository.findByIdGreaterThanOrderByIdAsc(eq(40L), any()))
+                .thenReturn(List.of(change(41L)));
+        when(productChangeRepository.findByIdGreaterThanOrderByIdAsc(eq(41L), any()))
+                .thenReturn(List.of());
+
+        ProductChangeRelay relay = new ProductChangeRelay(productChangeRepository, offsetRepository, List.of(live),
+                100, 168, 60_000, System::currentTimeMillis);
+        relay.relay();
+        relay.relay();
+
+        assertThat(live.delivered).extracting(ProductChange::getId).containsExactly(41L);
+        verifyNoInteractions(offsetRepository);
+    }
+
+    private ProductChangeRelay relay(int batchSize) {
+        return relay(batchSize, new AtomicLong());
+    }
+
+    private ProductChangeRelay relay(int batchSize, AtomicLong now) {
+        return new ProductChangeRelay(productChangeRepository, offsetRepository, List.of(sink), batchSize, 168,
+                60_000, now::get);
+    }
+
+    private static ProductChange change(long id) {
+        ProductChange change = new ProductChange();
+        change.setId(id);
+        return change;
+    }
+
+    private static class RecordingSink implements ProductChangeSink {
+
+        private final String name;
+        private final List<ProductChange> delivered = new ArrayList<>();
+        private boolean fail;
+
+        RecordingSink(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public void publish(List<ProductChange> changes) {
+            if (fail) {
+                throw new IllegalStateException("sink is down");
+            }
+            delivered.addAll(changes);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.github.neshali.price_parser.pipeline;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Юнит-тесты адаптивного лимита задач в работе (время задаётся вручную).
+ */
+class ConcurrencyLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    private ConcurrencyLimiter limiter(int initialLimit) {
+        return new ConcurrencyLimiter(true, initialLimit, 1, 20, 0.5, 2.0, 0.5, clock::get);
+    }
+
+    @Test
+    void tryAcquire_shouldRefuseAboveLimit_andFreeSlotOnRelease() {
+        ConcurrencyLimiter limiter = limiter(2);
+
+        ConcurrencyLimiter.Permit first = limiter.tryAcquire();
+        assertThat(limiter.tryAcquire()).isNotNull();
+        assertThat(limiter.tryAcquire()).isNull();
+        assertThat(limiter.available()).isZero();
+
+        limiter.release(first);
+        assertThat(limiter.available()).isEqualTo(1);
+    }
+
+    @Test
+    void onSuccess_shouldGrowLimitAdditively_whenLimitIsUsedAndLatencyIsStable() {
+        ConcurrencyLimiter limiter = limiter(4);
+
+        // Два окна по 4 задачи с одинаковой задержкой при полном использовании лимита:
+        // каждая задача, взятая при занятой половине лимита, добавляет 1/limit
+        completeWindow(limiter, 4, 10);
+        completeWindow(limiter, 4, 10);
+
+        assertThat(limiter.getLimit()).isEqualTo(5);
+        assertThat(limiter.stats().getIncreases()).isEqualTo(5);
+        assertThat(limiter.stats().getLastDecision()).isEqualTo("increase");
+    }
+
+    @Test
+    void onSuccess_shouldNotGrowLimit_whenMostOfItIsUnused() {
+        ConcurrencyLimiter limiter = limiter(10);
+
+        for (int i = 0; i < 20; i++) {
+            completeWindow(limiter, 1, 10);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void onFailure_shouldCutLimitOncePerOverload() {
+        ConcurrencyLimiter limiter = limiter(8);
+        List<ConcurrencyLimiter.Permit> permits = acquire(limiter, 4);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(10));
+
+        // Все четыре задачи взяты до первого снижения: лимит уменьшается один раз
+        permits.forEach(limiter::onFailure);
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+        assertThat(limiter.stats().getDecreases()).isEqualTo(1);
+        assertThat(limiter.stats().getFailures()).isEqualTo(4);
+        assertThat(limiter.stats().getErrorRate()).isEqualTo(1.0);
+
+        // Задача, взятая после снижения, снова может его вызвать
+        clock.addAndGet(1);
+        limiter.onFailure(limiter.tryAcquire());
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void onError_shouldCutLimitOnlyWhenErrorRateExceedsThreshold() {
+        ConcurrencyLimiter limiter = limiter(8);
+
+        // Отдельные ошибки содержимого вперемешку с успехами лимит не трогают
+        for (int i = 0; i < 10; i++) {
+            completeWindow(limiter, 1, 10);
+            limiter.onError(limiter.tryAcquire());
+        }
+        assertThat(limiter.getLimit()).isEqualTo(8);
+        assertThat(limiter.stats().getDecreases()).isZero();
+
+        // Сплошные ошибки поднимают скользящую долю выше 0.5
+        for (int i = 0; i < 30; i++) {
+            clock.addAndGet(1);
+            limiter.onError(limiter.tryAcquire());
+        }
+        assertThat(limiter.getLimit()).isLessThan(8);
+        assertThat(limiter.stats().getLastDecision()).isEqualTo("decrease on error rate");
+    }
+
+    @Test
+    void onSuccess_shouldCutLimit_whenLatencyGrowsAboveTolerance() {
+        ConcurrencyLimiter limiter = limiter(8);
+        for (int i = 0; i < 5; i++) {
+            completeWindow(limiter, 1, 10);
+        }
+
+        // Задержка выросла в 10 раз: быстрое среднее уходит выше 2 * базовой
+        completeWindow(limiter, 4, 100);
+
+        assertThat(limiter.getLimit()).isLessThan(8);
+        assertThat(limiter.stats().getLastDecision()).isEqualTo("decrease on latency");
+    }
+
+    @Test
+    void fixedLimit_shouldNotChange_whenNotAdaptive() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(false, 4, 1, 20, 0.5, 2.0, 0.5, clock::get);
+
+        completeWindow(limiter, 4, 10);
+        limiter.onFailure(limiter.tryAcquire());
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+        assertThat(limiter.stats().getSuccesses()).isEqualTo(4);
+    }
+
+    private void completeWindow(ConcurrencyLimiter limiter, int tasks, long latencyMs) {
+        List<ConcurrencyLimiter.Permit> permits = acquire(limiter, tasks);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(latencyMs));
+        permits.forEach(limiter::onSuccess);
+    }
+
+    private static List<ConcurrencyLimiter.Permit> acquire(ConcurrencyLimiter limiter, int tasks) {
+        List<ConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < tasks; i++) {
+            ConcurrencyLimiter.Permit permit = limiter.tryAcquire();
+            assertThat(permit).isNotNull();
+            permits.add(permit);
+        }
+        return permits;
+    }
+}
@@ -0,0 +1,116 @@
+package com.github.neshali.price_parser.pipeline;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Юнит-тесты стадии конвейера: ограниченная очередь и метрики.
+ */
+class PipelineStageTest {
+
+    private final PipelineStage stage = new PipelineStage(ParsingStage.FETCH, 1, 1);
+
+    @AfterEach
+    void tearDown() {
+        stage.shutdown();
+    }
+
+    @Test
+    void offer_shouldRejectWhenQueueIsFull() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Единственный поток занят, одно место в очереди
+        assertThat(stage.offer(() -> {
+            started.countDown();
+            await(release);
+        })).isTrue();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(stage.offer(() -> { })).isTrue();
+
+        assertThat(stage.offer(() -> { })).isFalse();
+
+        PipelineStageStats busy = stage.stats();
+        assertThat(busy.getQueueDepth()).isEqualTo(1);
+        assertThat(busy.getActiveWorkers()).isEqualTo(1);
+        assertThat(busy.getRejected()).isEqualTo(1);
+
+        release.countDown();
+        stage.shutdown();
+        assertThat(stage.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        PipelineStageStats done = stage.stats();
+        assertThat(done.getProcessed()).isEqualTo(2);
+        assertThat(done.getQueueDepth()).isZero();
+        assertThat(done.getMaxServiceMs()).isPositive();
+    }
+
+    @Test
+    void put_shouldCountFailedTasksAndKeepWorking() throws InterruptedException {
+        CountDownLatch finished = new CountDownLatch(1);
+
+        stage.put(() -> {
+            throw new IllegalStateException("boom");
+        });
+        stage.put(finished::countDown);
+
+        assertThat(finished.await(5, TimeUnit.SECONDS)).isTrue();
+        stage.shutdown();
+        assertThat(stage.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(stage.stats().getFailed()).isEqualTo(1);
+        assertThat(stage.stats().getProcessed()).isEqualTo(2);
+    }
+
+    @Test
+    void put_shouldRunOrRejectTask_whenStageShutsDownWhileWaiting() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        stage.put(() -> {
+            started.countDown();
+            await(release);
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        stage.put(() -> { });
+
+        // Очередь заполнена: put прошёл проверку остановки и ждёт места
+        CountDownLatch ran = new CountDownLatch(1);
+        CompletableFuture<Void> waiting = CompletableFuture.runAsync(() -> {
+            try {
+                stage.put(ran::countDown);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Thread.sleep(50);
+        stage.shutdown();
+        release.countDown();
+
+        // Задача либо выполнена, либо put отказал - но не потеряна в очереди без потоков
+        boolean rejected = false;
+        try {
+            waiting.get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            assertThat(e.getCause()).isInstanceOf(RejectedExecutionException.class);
+            rejected = true;
+        }
+        assertThat(stage.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(rejected || ran.getCount() == 0).isTrue();
+        assertThat(stage.stats().getQueueDepth()).isZero();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
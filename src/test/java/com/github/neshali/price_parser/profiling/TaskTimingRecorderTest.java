@@ -0,0 +1,86 @@
+package com.github.neshali.price_parser.profiling;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Юнит-тесты замеров задач: выборка самых медленных и JFR-события.
+ */
+class TaskTimingRecorderTest {
+
+    @Test
+    void slowest_shouldReturnSlowestTasksFirst_andKeepOnlyLastCapacityTasks() throws InterruptedException {
+        TaskTimingRecorder recorder = new TaskTimingRecorder(1.0, 3);
+
+        for (long id = 1; id <= 4; id++) {
+            TaskTimer timer = recorder.start(id, "https://shop.example.com/p/" + id);
+            try (TaskTimer.Span ignored = timer.phase(TaskPhase.FETCH)) {
+                // Задача 2 медленнее остальных
+                Thread.sleep(id == 2 ? 30 : 1);
+            }
+            recorder.finish(timer, true);
+        }
+
+        List<TaskTiming> slowest = recorder.slowest(2, Duration.ofMinutes(1));
+
+        assertThat(slowest).hasSize(2);
+        assertThat(slowest.get(0).getTaskId()).isEqualTo(2L);
+        assertThat(slowest.get(0).getHost()).isEqualTo("shop.example.com");
+        assertThat(slowest.get(0).getPhasesMs().get(TaskPhase.FETCH)).isGreaterThanOrEqualTo(30.0);
+        // В буфере на 3 записи первая задача уже вытеснена
+        assertThat(recorder.slowest(10, Duration.ofMinutes(1)))
+                .extracting(TaskTiming::getTaskId)
+                .containsExactlyInAnyOrder(2L, 3L, 4L);
+    }
+
+    @Test
+    void finish_shouldSkipTasksOutsideOfSample() {
+        TaskTimingRecorder recorder = new TaskTimingRecorder(0, 10);
+
+        recorder.finish(recorder.start(1L, "https://example.com/p/1"), true);
+
+        assertThat(recorder.slowest(10, Duration.ofMinutes(1))).isEmpty();
+    }
+
+    @Test
+    void phases_shouldBeEmittedAsJfrEventsTaggedWithTaskAndHost(@TempDir Path dir) throws Exception {
+        TaskTimingRecorder recorder = new TaskTimingRecorder(0, 10);
+        Path file = dir.resolve("parsing.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable(ParsingPhaseEvent.class);
+            recording.enable(ParsingTaskEvent.class);
+            recording.start();
+
+            TaskTimer timer = recorder.start(42L, "https://shop.example.com/p/42");
+            try (TaskTimer.Span ignored = timer.phase(TaskPhase.ENRICH)) {
+                Thread.sleep(1);
+            }
+            recorder.finish(timer, false);
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertThat(events).anySatisfy(event -> {
+            assertThat(event.getEventType().getName()).isEqualTo("com.github.neshali.price_parser.ParsingPhase");
+            assertThat(event.getLong("taskId")).isEqualTo(42L);
+            assertThat(event.getString("host")).isEqualTo("shop.example.com");
+            assertThat(event.getString("phase")).isEqualTo("ENRICH");
+        });
+        assertThat(events).anySatisfy(event -> {
+            assertThat(event.getEventType().getName()).isEqualTo("com.github.neshali.price_parser.ParsingTask");
+            assertThat(event.getBoolean("completed")).isFalse();
+        });
+    }
+}
@@ -0,0 +1,39 @@
+package com.github.neshali.price_parser.repository;
+
+import com.github.neshali.price_parser.domain.ClusterNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Heartbeat и живость узлов по часам БД на H2.
+ */
+@DataJpaTest
+class ClusterNodeRepositoryTest {
+
+    @Autowired
+    private ClusterNodeRepository clusterNodeRepository;
+
+    @Test
+    void heartbeat_shouldUseDatabaseClock() {
+        LocalDateTime dbNow = clusterNodeRepository.databaseNow();
+        clusterNodeRepository.save(new ClusterNode("fresh", dbNow, dbNow));
+        clusterNodeRepository.save(new ClusterNode("late", dbNow, dbNow.minusMinutes(1)));
+        clusterNodeRepository.save(new ClusterNode("dead", dbNow, dbNow.minusHours(1)));
+        clusterNodeRepository.flush();
+
+        assertThat(clusterNodeRepository.findAliveNodeIds(15)).containsExactly("fresh");
+
+        // Heartbeat возвращает узел в живые без участия часов узла
+        assertThat(clusterNodeRepository.touch("late")).isEqualTo(1);
+        assertThat(clusterNodeRepository.touch("unknown")).isZero();
+        assertThat(clusterNodeRepository.findAliveNodeIds(15)).containsExactly("fresh", "late");
+
+        assertThat(clusterNodeRepository.deleteStale(600)).isEqualTo(1);
+        assertThat(clusterNodeRepository.existsById("dead")).isFalse();
+    }
+}
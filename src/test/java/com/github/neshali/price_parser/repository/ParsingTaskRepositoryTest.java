@@ -0,0 +1,51 @@
+package com.github.neshali.price_parser.repository;
+
+import com.github.neshali.price_parser.domain.ParsingTask;
+import com.github.neshali.price_parser.domain.ParsingTaskStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Возврат задач в NEW при плавной остановке на H2.
+ */
+@DataJpaTest
+class ParsingTaskRepositoryTest {
+
+    @Autowired
+    private ParsingTaskRepository parsingTaskRepository;
+
+    @Test
+    void releaseToNew_shouldClearOwnerOfClaimedTasksOnly() {
+        ParsingTask claimed = save("https://example.com/claimed", ParsingTaskStatus.IN_PROGRESS);
+        ParsingTask completed = save("https://example.com/completed", ParsingTaskStatus.COMPLETED);
+
+        assertThat(parsingTaskRepository.releaseToNew(List.of(claimed.getId(), completed.getId()),
+                LocalDateTime.now())).isEqualTo(1);
+
+        assertThat(parsingTaskRepository.findById(claimed.getId())).get().satisfies(task -> {
+            assertThat(task.getStatus()).isEqualTo(ParsingTaskStatus.NEW);
+            assertThat(task.getOwnerNode()).isNull();
+            assertThat(task.getVersion()).isEqualTo(claimed.getVersion() + 1);
+        });
+        // Уже завершённая задача остаётся как была
+        assertThat(parsingTaskRepository.findById(completed.getId())).get().satisfies(task -> {
+            assertThat(task.getStatus()).isEqualTo(ParsingTaskStatus.COMPLETED);
+            assertThat(task.getOwnerNode()).isEqualTo("node-a");
+        });
+    }
+
+    private ParsingTask save(String url, ParsingTaskStatus status) {
+        ParsingTask task = new ParsingTask();
+        task.setUrl(url);
+        task.setStatus(status);
+        task.setOwnerNode("node-a");
+        task.setCreatedAt(LocalDateTime.now());
+        return parsingTaskRepository.saveAndFlush(task);
+    }
+}
@@ -0,0 +1,120 @@
+package com.github.neshali.price_parser.repository;
+
+import com.github.neshali.price_parser.domain.Product;
+import com.github.neshali.price_parser.domain.ProductDescription;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Проверка выборок проекциями на H2: в строках только запрошенные поля.
+ */
+@DataJpaTest
+class ProductRowRepositoryTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductDescriptionRepository productDescriptionRepository;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.saveAll(List.of(
+                product("Kettle", 2_490L),
+                product("Phone", 129_990L),
+                product("Lamp", 990L)
+        ));
+    }
+
+    @Test
+    void findRows_shouldSelectOnlyRequestedFieldsAndSortPage() {
+        Page<ProductRow> page = productRepository.findRows(
+                EnumSet.of(ProductField.ID, ProductField.NAME, ProductField.PRICE),
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "priceMinor")));
+
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).extracting(ProductRow::name).containsExactly("Phone", "Kettle");
+        assertThat(page.getContent()).allSatisfy(row -> {
+            assertThat(row.id()).isNotNull();
+            assertThat(row.description()).isNull();
+            assertThat(row.sourceUrl()).isNull();
+        });
+    }
+
+    @Test
+    void findRowsByIds_shouldLoadDescriptionsOfGivenProducts() {
+        Long lampId = productRepository.findRows(EnumSet.of(ProductField.ID, ProductField.NAME)).stream()
+                .filter(row -> row.name().equals("Lamp"))
+                .findFirst()
+                .orElseThrow()
+                .id();
+
+        List<ProductRow> rows = productRepository.findRowsByIds(
+                EnumSet.of(ProductField.ID, ProductField.DESCRIPTION), List.of(lampId));
+
+        assertThat(rows).singleElement().satisfies(row -> {
+            assertThat(row.description()).isEqualTo("About Lamp");
+            assertThat(row.name()).isNull();
+        });
+    }
+
+    @Test
+    void basePriceUpdates_shouldNormalizePricesByCurrency() {
+        productRepository.saveAll(List.of(
+                product("Guitar", 19_999L, "USD"),
+                product("Drum", 5_000L, "JPY")
+        ));
+
+        assertThat(productRepository.findStaleBasePriceIds("v1", PageRequest.of(0, 1))).hasSize(1);
+
+        productRepository.clearBasePrices(List.of("RUB", "USD"), "v1");
+        productRepository.copyBasePrices("RUB", "v1");
+        productRepository.updateBasePrices("USD", new BigDecimal("92.5"), "v1");
+
+        assertThat(productRepository.findStaleBasePriceIds("v1", PageRequest.of(0, 1))).isEmpty();
+        // Та же версия: ничего не переписывается
+        assertThat(productRepository.updateBasePrices("USD", new BigDecimal("100"), "v1")).isZero();
+
+        Page<ProductRow> page = productRepository.findRows(
+                EnumSet.of(ProductField.ID, ProductField.NAME, ProductField.BASE_PRICE),
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "basePriceMinor")));
+
+        assertThat(page.getContent())
+                .extracting(ProductRow::name, ProductRow::basePriceMinor)
+                .containsExactly(
+                        tuple("Guitar", 1_849_908L),
+                        tuple("Phone", 129_990L),
+                        tuple("Kettle", 2_490L),
+                        tuple("Lamp", 990L),
+                        tuple("Drum", null));
+    }
+
+    private Product product(String name, long priceMinor) {
+        return product(name, priceMinor, "RUB");
+    }
+
+    private Product product(String name, long priceMinor, String currency) {
+        ProductDescription description = productDescriptionRepository.save(ProductDescription.of("About " + name));
+        return Product.builder()
+                .name(name)
+                .descriptionHash(description.getHash())
+                .priceMinor(priceMinor)
+                .currency(currency)
+                .publicationDate(LocalDateTime.now())
+                .sourceUrl("https://example.com/" + name.toLowerCase())
+                .build();
+    }
+}
@@ -0,0 +1,108 @@
+package com.github.neshali.price_parser.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Юнит-тесты таблицы курсов и её перечитывания.
+ */
+class FxRateServiceTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void toBaseMinor_shouldConvertByRateAndKeepBaseCurrency() {
+        FxRates rates = new FxRates("RUB", Map.of("USD", new BigDecimal("92.50"), "KZT", new BigDecimal("0.19")));
+
+        assertThat(rates.toBaseMinor(1_999L, "USD")).isEqualTo(184_908L);
+        assertThat(rates.toBaseMinor(50L, "KZT")).isEqualTo(10L);
+        assertThat(rates.toBaseMinor(1_000L, "RUB")).isEqualTo(1_000L);
+        assertThat(rates.toBaseMinor(1_000L, null)).isEqualTo(1_000L);
+        assertThat(rates.toBaseMinor(1_000L, "JPY")).isNull();
+        assertThat(rates.toBaseMinor(null, "USD")).isNull();
+    }
+
+    @Test
+    void parse_shouldIgnoreTrailingZerosWhenComparingTables() {
+        Properties properties = new Properties();
+        properties.setProperty("usd", "92.50");
+
+        assertThat(FxRates.parse("RUB", properties))
+                .isEqualTo(new FxRates("RUB", Map.of("USD", new BigDecimal("92.5"))));
+    }
+
+    @Test
+    void refresh_shouldSwapSnapshotAndRecomputeOnlyWhenRatesChange() throws IOException {
+        Path file = dir.resolve("fx-rates.properties");
+        Files.writeString(file, "USD=90\n");
+        ApplicationEventPublisher publisher = mock(ApplicationEventPublisher.class);
+        ProductQueryCache cache = mock(ProductQueryCache.class);
+        FxRateService service = new FxRateService(new DefaultResourceLoader(), publisher, cache,
+                file.toUri().toString(), "RUB");
+        FxRates initial = service.current();
+
+        assertThat(service.refresh()).isFalse();
+
+        Files.writeString(file, "USD=95\nEUR=101\n");
+        assertThat(service.refresh()).isTrue();
+        assertThat(service.current().getRates()).containsOnlyKeys("USD", "EUR");
+
+        Files.writeString(file, "USD=not-a-number\n");
+        assertThat(service.refresh()).isFalse();
+        assertThat(service.current().toBaseMinor(100L, "USD")).isEqualTo(9_500L);
+
+        ArgumentCaptor<FxRatesChangedEvent> event = ArgumentCaptor.forClass(FxRatesChangedEvent.class);
+        verify(publisher).publishEvent(event.capture());
+        assertThat(event.getValue().previous()).isSameAs(initial);
+        assertThat(event.getValue().current()).isSameAs(service.current());
+        verify(cache, times(1)).invalidate();
+    }
+
+    @Test
+    void refresh_shouldWaitForTransactionsThatSavedWithPreviousRates() throws Exception {
+        Path file = dir.resolve("fx-rates.properties");
+        Files.writeString(file, "USD=90\n");
+        FxRateService service = new FxRateService(new DefaultResourceLoader(), mock(ApplicationEventPublisher.class),
+                mock(ProductQueryCache.class), file.toUri().toString(), "RUB");
+        Files.writeString(file, "USD=95\n");
+
+        TransactionSynchronizationManager.initSynchronization();
+        CompletableFuture<Boolean> refreshed;
+        try {
+            FxRates used = service.snapshotForSave();
+            refreshed = CompletableFuture.supplyAsync(service::refresh);
+
+            Thread.sleep(200);
+            assertThat(refreshed).isNotDone();
+            assertThat(service.current()).isSameAs(used);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(refreshed.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(service.current().toBaseMinor(100L, "USD")).isEqualTo(9_500L);
+    }
+}
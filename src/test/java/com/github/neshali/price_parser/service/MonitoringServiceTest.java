@@ -0,0 +1,121 @@
+package com.github.neshali.price_parser.service;
+
+import com.github.neshali.price_parser.cluster.ClusterMembership;
+import com.github.neshali.price_parser.domain.MonitoredUrl;
+import com.github.neshali.price_parser.domain.ParsingTask;
+import com.github.neshali.price_parser.domain.ParsingTaskStatus;
+import com.github.neshali.price_parser.repository.MonitoredUrlRepository;
+import com.github.neshali.price_parser.repository.ParsingTaskRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Юнит-тесты мониторинга: наступившие проверки превращаются в задачи и переносятся с разбросом.
+ */
+@ExtendWith(MockitoExtension.class)
+class MonitoringServiceTest {
+
+    @Mock
+    private MonitoredUrlRepository monitoredUrlRepository;
+
+    @Mock
+    private ParsingTaskRepository parsingTaskRepository;
+
+    @Mock
+    private ParsingTaskStats parsingTaskStats;
+
+    @Mock
+    private ClusterMembership clusterMembership;
+
+    private MonitoringService createService(long maxPendingTasks) {
+        return new MonitoringService(monitoredUrlRepository, parsingTaskRepository, parsingTaskStats,
+                clusterMembership, 500, 10, maxPendingTasks);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void scheduleDueChecks_shouldCreateTasksAndRescheduleWithJitter() {
+        MonitoredUrl hourly = monitored("https://example.com/product/1", 3600);
+        when(clusterMembership.ownedPartitions()).thenReturn(null);
+        when(monitoredUrlRepository.findByNextDueAtLessThanEqualOrderByNextDueAtAsc(any(), any()))
+                .thenReturn(List.of(hourly));
+        when(monitoredUrlRepository.claimDue(eq(1L), eq(hourly.getNextDueAt()), any(), any())).thenReturn(1);
+        when(parsingTaskRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        LocalDateTime before = LocalDateTime.now();
+        int created = createService(10_000).scheduleDueChecks();
+
+        assertThat(created).isEqualTo(1);
+        ArgumentCaptor<List<ParsingTask>> tasks = ArgumentCaptor.forClass(List.class);
+        verify(parsingTaskRepository).saveAll(tasks.capture());
+        assertThat(tasks.getValue()).singleElement().satisfies(task -> {
+            assertThat(task.getUrl()).isEqualTo(hourly.getUrl());
+            assertThat(task.getStatus()).isEqualTo(ParsingTaskStatus.NEW);
+        });
+        ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> next = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(monitoredUrlRepository).claimDue(eq(1L), any(), now.capture(), next.capture());
+        // Следующая проверка через час +-10%
+        assertThat(Duration.between(before, next.getValue()).toSeconds()).isBetween(3240L, 3961L);
+        assertThat(now.getValue()).isAfterOrEqualTo(before);
+        verify(parsingTaskStats).onCreated(any());
+    }
+
+    @Test
+    void scheduleDueChecks_shouldSkipRow_whenClaimedConcurrently() {
+        MonitoredUrl hourly = monitored("https://example.com/product/1", 3600);
+        when(clusterMembership.ownedPartitions()).thenReturn(null);
+        when(monitoredUrlRepository.findByNextDueAtLessThanEqualOrderByNextDueAtAsc(any(), any()))
+                .thenReturn(List.of(hourly));
+        // Другой тик уже сдвинул next_due_at
+        when(monitoredUrlRepository.claimDue(any(), any(), any(), any())).thenReturn(0);
+
+        int created = createService(10_000).scheduleDueChecks();
+
+        assertThat(created).isZero();
+        verifyNoInteractions(parsingTaskRepository);
+    }
+
+    @Test
+    void scheduleDueChecks_shouldWait_whenParsingQueueIsFull() {
+        when(parsingTaskStats.count(ParsingTaskStatus.NEW)).thenReturn(100L);
+
+        int created = createService(100).scheduleDueChecks();
+
+        assertThat(created).isZero();
+        verifyNoInteractions(monitoredUrlRepository, parsingTaskRepository);
+    }
+
+    @Test
+    void nextDueAt_shouldStayWithinJitterBounds() {
+        MonitoringService service = createService(10_000);
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < 1000; i++) {
+            long seconds = Duration.between(now, service.nextDueAt(now, 86_400)).toSeconds();
+            assertThat(seconds).isBetween(77_760L, 95_040L);
+        }
+    }
+
+    private static MonitoredUrl monitored(String url, long intervalSeconds) {
+        MonitoredUrl monitored = new MonitoredUrl();
+        monitored.setId(1L);
+        monitored.setUrl(url);
+        monitored.setIntervalSeconds(intervalSeconds);
+        monitored.setPartition(0);
+        monitored.setNextDueAt(LocalDateTime.now().minusSeconds(1));
+        return monitored;
+    }
+}
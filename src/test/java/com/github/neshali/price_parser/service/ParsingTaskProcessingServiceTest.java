@@ -1,34 +1,54 @@
 package com.github.neshali.price_parser.service;
 
+import com.github.neshali.price_parser.cluster.ClusterMembership;
+import com.github.neshali.price_parser.cluster.ClusterMembershipChangedEvent;
 import com.github.neshali.price_parser.domain.ParsingTask;
 import com.github.neshali.price_parser.domain.ParsingTaskStatus;
 import com.github.neshali.price_parser.domain.Product;
+import com.github.neshali.price_parser.integration.PageStatusException;
+import com.github.neshali.price_parser.pipeline.ConcurrencyLimiter;
+import com.github.neshali.price_parser.pipeline.ParsingPipeline;
+import com.github.neshali.price_parser.pipeline.ParsingStage;
+import com.github.neshali.price_parser.pipeline.PipelineStage;
+import com.github.neshali.price_parser.profiling.TaskPhase;
+import com.github.neshali.price_parser.profiling.TaskTiming;
+import com.github.neshali.price_parser.profiling.TaskTimingRecorder;
 import com.github.neshali.price_parser.repository.ParsingTaskRepository;
-import com.github.neshali.price_parser.repository.ProductRepository;
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.AbstractExecutorService;
-import java.util.concurrent.ExecutorService;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 /**
  * Юнит-тесты для многопоточного сервиса обработки задач.
  *
- * В тестах используем "синхронный" ExecutorService, который запускает задачи
- * в текущем потоке, чтобы избежать гонок и не ждать завершения потоков.
+ * В тестах конвейер из стадий с одним потоком; перед проверками он останавливается
+ * методом shutdown(), который дожидается прохождения задач через все стадии.
  */
 @ExtendWith(MockitoExtension.class)
 class ParsingTaskProcessingServiceTest {
@@ -37,24 +57,64 @@ class ParsingTaskProcessingServiceTest {
     private ParsingTaskRepository parsingTaskRepository;
 
     @Mock
-    private ProductRepository productRepository;
+    private ProductPersistenceService productPersistenceService;
+
+    @Mock
+    private PriceChangeDetector priceChangeDetector;
 
     @Mock
     private PriceParsingService priceParsingService;
 
-    private final ExecutorService directExecutorService = new DirectExecutorService();
+    @Mock
+    private ProductQueryCache productQueryCache;
+
+    @Mock
+    private ParsingTaskStats parsingTaskStats;
+
+    @Mock
+    private ClusterMembership clusterMembership;
+
+    private final ParsingPipeline pipeline = new ParsingPipeline(List.of(
+            new PipelineStage(ParsingStage.FETCH, 1, 10),
+            new PipelineStage(ParsingStage.ENRICH, 1, 10),
+            new PipelineStage(ParsingStage.PERSIST, 1, 10)
+    ));
+
+    private final ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter(true, 10, 1, 100, 0.5, 2.0, 0.5);
+
+    // В тестах замеряется каждая задача
+    private final TaskTimingRecorder taskTimingRecorder = new TaskTimingRecorder(1.0, 100);
+
+    @BeforeEach
+    void setUp() {
+        // По умолчанию все смены статуса проходят
+        lenient().when(parsingTaskRepository.compareAndSetStatus(anyLong(), any(), anyLong(), any(), any(), any()))
+                .thenReturn(1);
+        lenient().when(parsingTaskRepository.claim(anyLong(), anyLong(), any(), any())).thenReturn(1);
+        lenient().when(clusterMembership.getNodeId()).thenReturn("node-1");
+        // По умолчанию каждый товар новый
+        lenient().when(priceChangeDetector.detect(any())).thenReturn(PriceChange.created());
+        // Одиночный режим: узлу принадлежат все партиции
+        lenient().when(clusterMembership.ownedPartitions()).thenReturn(null);
+    }
 
     @AfterEach
     void tearDown() {
-        directExecutorService.shutdownNow();
+        pipeline.shutdown();
     }
 
     private ParsingTaskProcessingService createService(int maxTasksPerTick) {
         return new ParsingTaskProcessingService(
                 parsingTaskRepository,
-                productRepository,
+                productPersistenceService,
+                priceChangeDetector,
                 priceParsingService,
-                directExecutorService,
+                productQueryCache,
+                pipeline,
+                parsingTaskStats,
+                clusterMembership,
+                concurrencyLimiter,
+                taskTimingRecorder,
                 maxTasksPerTick
         );
     }
@@ -64,113 +124,325 @@ class ParsingTaskProcessingServiceTest {
         Long taskId = 1L;
         String url = "https://example.com/product/1";
 
-        ParsingTask task = new ParsingTask();
-        task.setId(taskId);
-        task.setUrl(url);
-        task.setStatus(ParsingTaskStatus.IN_PROGRESS);
+        ParsingTask task = newTask(taskId, url, ParsingTaskStatus.IN_PROGRESS);
+        task.setVersion(3);
 
         when(parsingTaskRepository.findById(taskId)).thenReturn(Optional.of(task));
 
         Product product = new Product();
         product.setSourceUrl(url);
-        when(priceParsingService.parseProduct(url)).thenReturn(product);
+        when(priceParsingService.fetch(url)).thenReturn(product);
 
         ParsingTaskProcessingService service = createService(10);
 
         service.processTask(taskId);
 
-        // Проверяем, что продукт сохраняется
-        verify(productRepository).save(product);
-
-        // Проверяем, что статус задачи обновился и задача сохранена
-        ArgumentCaptor<ParsingTask> taskCaptor = ArgumentCaptor.forClass(ParsingTask.class);
-        verify(parsingTaskRepository, atLeastOnce()).save(taskCaptor.capture());
+        // Проверяем, что продукт сохраняется, а кэш выборок сбрасывается
+        verify(productPersistenceService).save(product, PriceChange.created());
+        verify(productQueryCache).invalidate();
 
-        ParsingTask savedTask = taskCaptor.getValue();
-        assertThat(savedTask.getStatus()).isEqualTo(ParsingTaskStatus.COMPLETED);
-        assertThat(savedTask.getErrorMessage()).isNull();
+        // Статус меняется одним UPDATE от прочитанной версии, без save(task)
+        verify(parsingTaskRepository).compareAndSetStatus(eq(taskId), eq(ParsingTaskStatus.IN_PROGRESS), eq(3L),
+                eq(ParsingTaskStatus.COMPLETED), isNull(), any(LocalDateTime.class));
+        verify(parsingTaskRepository, never()).save(any());
     }
 
     @Test
-    void submitNewTasksForParsing_shouldSetInProgressAndSubmitToExecutor() {
-        ParsingTask task = new ParsingTask();
-        task.setId(2L);
-        task.setUrl("https://example.com/product/2");
-        task.setStatus(ParsingTaskStatus.NEW);
+    void submitNewTasksForParsing_shouldClaimTaskAndPassItThroughAllStages() {
+        ParsingTask task = newTask(2L, "https://example.com/product/2", ParsingTaskStatus.NEW);
 
-        when(parsingTaskRepository.findByStatus(ParsingTaskStatus.NEW))
+        when(parsingTaskRepository.findByStatusOrderByCreatedAtAsc(eq(ParsingTaskStatus.NEW), any()))
                 .thenReturn(List.of(task));
-        when(parsingTaskRepository.findById(2L))
-                .thenReturn(Optional.of(task));
 
         Product product = new Product();
         product.setSourceUrl(task.getUrl());
-        when(priceParsingService.parseProduct(task.getUrl())).thenReturn(product);
+        when(priceParsingService.fetch(task.getUrl())).thenReturn(product);
 
         ParsingTaskProcessingService service = createService(10);
 
         service.submitNewTasksForParsing();
+        pipeline.shutdown();
+
+        // NEW -> IN_PROGRESS от версии 0 с записью владельца, затем IN_PROGRESS -> COMPLETED от версии 1
+        verify(parsingTaskRepository).claim(eq(2L), eq(0L), eq("node-1"), any(LocalDateTime.class));
+        verify(parsingTaskRepository).compareAndSetStatus(eq(2L), eq(ParsingTaskStatus.IN_PROGRESS), eq(1L),
+                eq(ParsingTaskStatus.COMPLETED), isNull(), any(LocalDateTime.class));
+        verify(priceParsingService).enrich(product);
+        verify(productPersistenceService).save(product, PriceChange.created());
+        verify(productQueryCache).invalidate();
+        verify(parsingTaskStats).onTransition(ParsingTaskStatus.NEW, ParsingTaskStatus.IN_PROGRESS, 1);
+        verify(parsingTaskStats).onTransition(ParsingTaskStatus.IN_PROGRESS, ParsingTaskStatus.COMPLETED, 1);
+        verify(parsingTaskRepository, never()).findById(any());
+        verify(parsingTaskRepository, never()).save(any());
+
+        // Задача попала в выборку с разбивкой времени по отрезкам
+        List<TaskTiming> slowest = taskTimingRecorder.slowest(10, Duration.ofMinutes(1));
+        assertThat(slowest).singleElement().satisfies(timing -> {
+            assertThat(timing.getTaskId()).isEqualTo(2L);
+            assertThat(timing.getHost()).isEqualTo("example.com");
+            assertThat(timing.isCompleted()).isTrue();
+            assertThat(timing.getPhasesMs()).containsKeys(TaskPhase.CLAIM, TaskPhase.FETCH, TaskPhase.ENRICH,
+                    TaskPhase.SAVE_PRODUCT, TaskPhase.SAVE_STATUS);
+            assertThat(timing.getTotalMs()).isGreaterThanOrEqualTo(timing.getQueueMs());
+        });
+    }
+
+    @Test
+    void processTask_shouldSkipWriteButCompleteTask_whenPriceUnchanged() {
+        ParsingTask task = newTask(7L, "https://example.com/product/7", ParsingTaskStatus.IN_PROGRESS);
+        when(parsingTaskRepository.findById(7L)).thenReturn(Optional.of(task));
 
-        // Сначала задача должна быть помечена IN_PROGRESS и сохранена
-        verify(parsingTaskRepository, atLeastOnce()).save(task);
-        assertThat(task.getStatus()).isIn(ParsingTaskStatus.IN_PROGRESS, ParsingTaskStatus.COMPLETED);
+        Product product = new Product();
+        product.setSourceUrl(task.getUrl());
+        when(priceParsingService.fetch(task.getUrl())).thenReturn(product);
+        when(priceChangeDetector.detect(product)).thenReturn(PriceChange.unchanged());
 
-        // Так как DirectExecutorService выполняет задачу сразу,
-        // в итоге processTask тоже отработает и ещё раз сохранит задачу.
-        verify(productRepository).save(product);
+        createService(10).processTask(7L);
 
-        verify(parsingTaskRepository, atLeast(2)).save(any(ParsingTask.class));
+        verifyNoInteractions(productPersistenceService, productQueryCache);
+        verify(priceChangeDetector, never()).onSaved(any());
+        verify(parsingTaskRepository).compareAndSetStatus(eq(7L), eq(ParsingTaskStatus.IN_PROGRESS), eq(0L),
+                eq(ParsingTaskStatus.COMPLETED), isNull(), any(LocalDateTime.class));
     }
 
     @Test
-    void submitNewTasksForParsing_shouldDoNothingWhenNoNewTasks() {
-        when(parsingTaskRepository.findByStatus(ParsingTaskStatus.NEW))
-                .thenReturn(Collections.emptyList());
+    void submitNewTasksForParsing_shouldSkipTask_whenClaimedConcurrently() {
+        ParsingTask task = newTask(6L, "https://example.com/product/6", ParsingTaskStatus.NEW);
+
+        when(parsingTaskRepository.findByStatusOrderByCreatedAtAsc(eq(ParsingTaskStatus.NEW), any()))
+                .thenReturn(List.of(task));
+        when(parsingTaskRepository.claim(eq(6L), eq(0L), any(), any())).thenReturn(0);
 
         ParsingTaskProcessingService service = createService(10);
 
         service.submitNewTasksForParsing();
+        pipeline.shutdown();
 
-        verify(parsingTaskRepository, never()).save(any());
-        verifyNoInteractions(productRepository);
+        verifyNoInteractions(priceParsingService, productPersistenceService, parsingTaskStats);
     }
 
-    /**
-     * Простой ExecutorService, выполняющий задачи синхронно в текущем потоке.
-     */
-    private static class DirectExecutorService extends AbstractExecutorService {
+    @Test
+    void submitNewTasksForParsing_shouldMarkTaskFailed_whenFetchStageFails() {
+        ParsingTask task = newTask(3L, "https://example.com/product/3", ParsingTaskStatus.NEW);
 
-        private volatile boolean terminated = false;
+        when(parsingTaskRepository.findByStatusOrderByCreatedAtAsc(eq(ParsingTaskStatus.NEW), any()))
+                .thenReturn(List.of(task));
+        when(priceParsingService.fetch(task.getUrl()))
+                .thenThrow(new IllegalStateException("Price not found on page"));
 
-        @Override
-        public void shutdown() {
-            terminated = true;
-        }
+        ParsingTaskProcessingService service = createService(10);
 
-        @Override
-        public List<Runnable> shutdownNow() {
-            terminated = true;
-            return Collections.emptyList();
-        }
+        service.submitNewTasksForParsing();
+        pipeline.shutdown();
+
+        // Ошибка загрузки сразу уходит в стадию сохранения, обогащение пропускается
+        verify(parsingTaskRepository).compareAndSetStatus(eq(3L), eq(ParsingTaskStatus.IN_PROGRESS), eq(1L),
+                eq(ParsingTaskStatus.FAILED), contains("Price not found"), any(LocalDateTime.class));
+        verify(priceParsingService, never()).enrich(any());
+        verifyNoInteractions(productPersistenceService);
+        // Страница без цены - не перегрузка: лимит не снижается
+        assertThat(concurrencyLimiter.getLimit()).isEqualTo(10);
+        assertThat(concurrencyLimiter.stats().getFailures()).isEqualTo(1);
+    }
 
-        @Override
-        public boolean isShutdown() {
-            return terminated;
-        }
+    @Test
+    void isOverload_shouldRecognizeTimeoutsAndOverloadStatuses() {
+        assertThat(ParsingTaskProcessingService.isOverload(
+                new RuntimeException(new TimeoutException("Did not observe any item")))).isTrue();
+        assertThat(ParsingTaskProcessingService.isOverload(
+                new PageStatusException(503, "https://example.com/product/1"))).isTrue();
+        assertThat(ParsingTaskProcessingService.isOverload(
+                new PageStatusException(429, "https://example.com/product/1"))).isTrue();
+        assertThat(ParsingTaskProcessingService.isOverload(new RejectedExecutionException("queue full"))).isTrue();
+
+        assertThat(ParsingTaskProcessingService.isOverload(
+                new PageStatusException(404, "https://example.com/product/1"))).isFalse();
+        assertThat(ParsingTaskProcessingService.isOverload(
+                new IllegalStateException("Price not found on page"))).isFalse();
+    }
+
+    @Test
+    void submitNewTasksForParsing_shouldFetchSameUrlOnce_andCompleteEveryTask() throws Exception {
+        ParsingTask first = newTask(6L, "https://Example.com/product/6", ParsingTaskStatus.NEW);
+        ParsingTask duplicate = newTask(7L, "https://example.com:443/product/6#reviews", ParsingTaskStatus.NEW);
+
+        when(parsingTaskRepository.findByStatusOrderByCreatedAtAsc(eq(ParsingTaskStatus.NEW), any()))
+                .thenReturn(List.of(first, duplicate));
+
+        Product product = new Product();
+        product.setName("Coalesced");
+        product.setSourceUrl(first.getUrl());
+        product.setPriceMinor(1000L);
+        when(priceParsingService.fetch(first.getUrl())).thenReturn(product);
+        // Обогащение ждёт, пока вторая задача пройдёт стадию загрузки и присоединится к первой
+        doAnswer(invocation -> {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (pipeline.stats().get(0).getProcessed() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            return null;
+        }).when(priceParsingService).enrich(product);
+
+        ParsingTaskProcessingService service = createService(10);
+        service.submitNewTasksForParsing();
 
-        @Override
-        public boolean isTerminated() {
-            return terminated;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pipeline.stats().get(2).getProcessed() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
         }
+        pipeline.shutdown();
+
+        verify(priceParsingService, times(1)).fetch(any());
+        verify(priceParsingService, times(1)).enrich(any());
+
+        // Каждая задача сохраняет свой товар со своим URL и меняет свой статус
+        ArgumentCaptor<Product> saved = ArgumentCaptor.forClass(Product.class);
+        verify(productPersistenceService, times(2)).save(saved.capture(), any());
+        assertThat(saved.getAllValues()).extracting(Product::getSourceUrl)
+                .containsExactlyInAnyOrder(first.getUrl(), duplicate.getUrl());
+        assertThat(saved.getAllValues()).extracting(Product::getName).containsOnly("Coalesced");
+        verify(parsingTaskRepository).compareAndSetStatus(eq(6L), eq(ParsingTaskStatus.IN_PROGRESS), eq(1L),
+                eq(ParsingTaskStatus.COMPLETED), isNull(), any(LocalDateTime.class));
+        verify(parsingTaskRepository).compareAndSetStatus(eq(7L), eq(ParsingTaskStatus.IN_PROGRESS), eq(1L),
+                eq(ParsingTaskStatus.COMPLETED), isNull(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void flightKey_shouldIgnoreCaseOfHostDefaultPortAndFragment() {
+        assertThat(ParsingTaskProcessingService.flightKey("HTTPS://Shop.Example.com:443/p/1?id=2#top"))
+                .isEqualTo("https://shop.example.com/p/1?id=2");
+        assertThat(ParsingTaskProcessingService.flightKey("http://example.com"))
+                .isEqualTo("http://example.com/");
+        assertThat(ParsingTaskProcessingService.flightKey("http://example.com:8080/P/1"))
+                .isEqualTo("http://example.com:8080/P/1");
+        assertThat(ParsingTaskProcessingService.flightKey(" not a url ")).isEqualTo("not a url");
+    }
 
-        @Override
-        public boolean awaitTermination(long timeout, TimeUnit unit) {
-            return terminated;
+    @Test
+    void submitNewTasksForParsing_shouldClaimOnlyFreeConcurrencySlots_andReturnThemOnCompletion() {
+        ConcurrencyLimiter.Permit busy = null;
+        for (int i = 0; i < 8; i++) {
+            busy = concurrencyLimiter.tryAcquire();
         }
+        assertThat(busy).isNotNull();
 
-        @Override
-        public void execute(Runnable command) {
-            command.run();
+        ParsingTask task = newTask(8L, "https://example.com/product/8", ParsingTaskStatus.NEW);
+        when(parsingTaskRepository.findByStatusOrderByCreatedAtAsc(eq(ParsingTaskStatus.NEW), any()))
+                .thenReturn(List.of(task));
+        when(priceParsingService.fetch(task.getUrl())).thenReturn(new Product());
+
+        ParsingTaskProcessingService service = createService(10);
+        service.submitNewTasksForParsing();
+        pipeline.shutdown();
+
+        // Из лимита 10 свободно 2 места - столько и читается
+        ArgumentCaptor<Pageable> page = ArgumentCaptor.forClass(Pageable.class);
+        verify(parsingTaskRepository).findByStatusOrderByCreatedAtAsc(eq(ParsingTaskStatus.NEW), page.capture());
+        assertThat(page.getValue().getPageSize()).isEqualTo(2);
+        assertThat(concurrencyLimiter.getInFlight()).isEqualTo(8);
+        assertThat(concurrencyLimiter.stats().getSuccesses()).isEqualTo(1);
+    }
+
+    @Test
+    void submitNewTasksForParsing_shouldDoNothingWhenNoNewTasks() {
+        when(parsingTaskRepository.findByStatusOrderByCreatedAtAsc(eq(ParsingTaskStatus.NEW), any()))
+                .thenReturn(Collections.emptyList());
+
+        ParsingTaskProcessingService service = createService(10);
+
+        service.submitNewTasksForParsing();
+
+        verify(parsingTaskRepository, never()).claim(any(), anyLong(), any(), any());
+        verifyNoInteractions(productPersistenceService);
+    }
+
+    @Test
+    void submitNewTasksForParsing_shouldReadOnlyOwnedPartitions_inClusterMode() {
+        when(clusterMembership.ownedPartitions()).thenReturn(Set.of(1, 7));
+        when(parsingTaskRepository.findByStatusAndPartitionInOrderByCreatedAtAsc(
+                eq(ParsingTaskStatus.NEW), eq(Set.of(1, 7)), any()))
+                .thenReturn(Collections.emptyList());
+
+        createService(10).submitNewTasksForParsing();
+
+        verify(parsingTaskRepository, never()).findByStatusOrderByCreatedAtAsc(any(), any());
+    }
+
+    @Test
+    void submitNewTasksForParsing_shouldClaimNothing_untilPartitionsAssigned() {
+        when(clusterMembership.ownedPartitions()).thenReturn(Set.of());
+
+        createService(10).submitNewTasksForParsing();
+
+        verify(parsingTaskRepository, never()).findByStatusOrderByCreatedAtAsc(any(), any());
+        verify(parsingTaskRepository, never()).findByStatusAndPartitionInOrderByCreatedAtAsc(any(), any(), any());
+    }
+
+    @Test
+    void onMembershipChanged_shouldReleaseTasksOfDeadNodesAndOwnPreviousRun() {
+        List<String> alive = List.of("node-1", "node-2");
+        when(parsingTaskRepository.releaseOrphaned(eq(alive), any())).thenReturn(2);
+        when(parsingTaskRepository.releaseOwnedBy(eq("node-1"), any())).thenReturn(1);
+        when(parsingTaskRepository.findWithoutPartition(any())).thenReturn(Collections.emptyList());
+
+        createService(10).onMembershipChanged(new ClusterMembershipChangedEvent("node-1", alive, Set.of(3), true));
+
+        verify(parsingTaskStats).onTransition(ParsingTaskStatus.IN_PROGRESS, ParsingTaskStatus.NEW, 3);
+    }
+
+    @Test
+    void shutdownGracefully_shouldFinishInFlightAndReleaseQueuedTasks() throws Exception {
+        ParsingTask running = newTask(4L, "https://example.com/product/4", ParsingTaskStatus.NEW);
+        ParsingTask queued = newTask(5L, "https://example.com/product/5", ParsingTaskStatus.NEW);
+
+        when(parsingTaskRepository.findByStatusOrderByCreatedAtAsc(eq(ParsingTaskStatus.NEW), any()))
+                .thenReturn(List.of(running, queued));
+
+        // Первая задача "загружается", пока не начнётся остановка
+        CountDownLatch fetchStarted = new CountDownLatch(1);
+        CountDownLatch fetchRelease = new CountDownLatch(1);
+        Product product = new Product();
+        when(priceParsingService.fetch(running.getUrl())).thenAnswer(invocation -> {
+            fetchStarted.countDown();
+            fetchRelease.await(5, TimeUnit.SECONDS);
+            return product;
+        });
+
+        ParsingTaskProcessingService service = createService(10);
+        service.submitNewTasksForParsing();
+        assertThat(fetchStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Void> shutdown = CompletableFuture.runAsync(
+                () -> service.shutdownGracefully(Duration.ofSeconds(5)));
+        // Не начатая загрузка выбрасывается из очереди сразу
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pipeline.stats().get(0).getQueueDepth() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
         }
+        fetchRelease.countDown();
+        shutdown.get(10, TimeUnit.SECONDS);
+
+        // Задача в работе завершилась, очередная вернулась в NEW одним UPDATE
+        verify(productPersistenceService).save(product, PriceChange.created());
+        verify(parsingTaskRepository).compareAndSetStatus(eq(4L), eq(ParsingTaskStatus.IN_PROGRESS), eq(1L),
+                eq(ParsingTaskStatus.COMPLETED), isNull(), any(LocalDateTime.class));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(parsingTaskRepository).releaseToNew(ids.capture(), any(LocalDateTime.class));
+        assertThat(ids.getValue()).containsExactly(5L);
+        verify(priceParsingService, never()).fetch(queued.getUrl());
+
+        // После остановки новые задачи не берутся
+        service.submitNewTasksForParsing();
+        verify(parsingTaskRepository, times(1)).findByStatusOrderByCreatedAtAsc(eq(ParsingTaskStatus.NEW), any());
+    }
+
+    private static ParsingTask newTask(Long id, String url, ParsingTaskStatus status) {
+        ParsingTask task = new ParsingTask();
+        task.setId(id);
+        task.setUrl(url);
+        task.setStatus(status);
+        return task;
     }
 }
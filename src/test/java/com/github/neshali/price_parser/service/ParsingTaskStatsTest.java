@@ -0,0 +1,105 @@
+package com.github.neshali.price_parser.service;
+
+import com.github.neshali.price_parser.domain.ParsingTaskStatus;
+import com.github.neshali.price_parser.repository.ParsingTaskRepository;
+import com.github.neshali.price_parser.web.dto.TaskStatsResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.when;
+
+/**
+ * Юнит-тесты счётчиков очереди задач.
+ */
+@ExtendWith(MockitoExtension.class)
+class ParsingTaskStatsTest {
+
+    @Mock
+    private ParsingTaskRepository parsingTaskRepository;
+
+    @InjectMocks
+    private ParsingTaskStats stats;
+
+    @Test
+    void transitions_shouldMoveCountersBetweenStatuses() {
+        stats.onCreated(LocalDateTime.now().minusMinutes(2));
+        stats.onCreated(LocalDateTime.now());
+        stats.onTransition(ParsingTaskStatus.NEW, ParsingTaskStatus.IN_PROGRESS, 2);
+        stats.onTransition(ParsingTaskStatus.IN_PROGRESS, ParsingTaskStatus.COMPLETED, 1);
+        stats.onTransition(ParsingTaskStatus.IN_PROGRESS, ParsingTaskStatus.FAILED, 1);
+
+        TaskStatsResponse snapshot = stats.snapshot();
+
+        assertThat(snapshot.getCounts())
+                .containsEntry(ParsingTaskStatus.NEW, 0L)
+                .containsEntry(ParsingTaskStatus.IN_PROGRESS, 0L)
+                .containsEntry(ParsingTaskStatus.COMPLETED, 1L)
+                .containsEntry(ParsingTaskStatus.FAILED, 1L);
+        assertThat(snapshot.getOldestNewAgeSeconds()).isNull();
+        assertThat(snapshot.getCompletedSinceStart()).isEqualTo(1);
+        assertThat(snapshot.getFailedSinceStart()).isEqualTo(1);
+    }
+
+    @Test
+    void reconcile_shouldCorrectDriftFromDatabase() {
+        LocalDateTime oldest = LocalDateTime.now().minusMinutes(10);
+        when(parsingTaskRepository.countByStatus()).thenReturn(List.of(
+                row(ParsingTaskStatus.NEW, 5),
+                row(ParsingTaskStatus.COMPLETED, 20)
+        ));
+        when(parsingTaskRepository.findOldestCreatedAt(ParsingTaskStatus.NEW)).thenReturn(oldest);
+
+        stats.onCreated(LocalDateTime.now());
+        stats.onTransition(ParsingTaskStatus.NEW, ParsingTaskStatus.IN_PROGRESS, 1);
+        stats.reconcile();
+
+        TaskStatsResponse snapshot = stats.snapshot();
+        assertThat(snapshot.getCounts())
+                .containsEntry(ParsingTaskStatus.NEW, 5L)
+                .containsEntry(ParsingTaskStatus.IN_PROGRESS, 0L)
+                .containsEntry(ParsingTaskStatus.COMPLETED, 20L);
+        assertThat(snapshot.getOldestNewAgeSeconds()).isBetween(599L, 601L);
+        assertThat(snapshot.getReconciledAt()).isNotNull();
+    }
+
+    @Test
+    void rateMeter_shouldAverageEventsPerMinute() {
+        AtomicLong clock = new AtomicLong();
+        RateMeter meter = new RateMeter(clock::get);
+
+        // 10 событий за первые 5 секунд -> мгновенная скорость 120 в минуту
+        meter.mark(10);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        assertThat(meter.getOneMinuteRate()).isCloseTo(120.0, within(0.001));
+
+        // Минута без событий: среднее за минуту падает примерно в e раз, за 15 минут - почти не меняется
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        assertThat(meter.getOneMinuteRate()).isCloseTo(120.0 / Math.E, within(0.5));
+        assertThat(meter.getFifteenMinuteRate()).isGreaterThan(100.0);
+        assertThat(meter.getTotal()).isEqualTo(10);
+    }
+
+    private static ParsingTaskRepository.StatusCount row(ParsingTaskStatus status, long count) {
+        return new ParsingTaskRepository.StatusCount() {
+            @Override
+            public ParsingTaskStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public long getCount() {
+                return count;
+            }
+        };
+    }
+}
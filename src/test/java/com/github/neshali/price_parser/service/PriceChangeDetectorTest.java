@@ -0,0 +1,121 @@
+package com.github.neshali.price_parser.service;
+
+import com.github.neshali.price_parser.domain.Product;
+import com.github.neshali.price_parser.domain.ProductChangeType;
+import com.github.neshali.price_parser.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Юнит-тесты сравнения цен с последними сохранёнными и компактного индекса цен.
+ */
+class PriceChangeDetectorTest {
+
+    private static final String URL = "https://example.com/product/1";
+
+    private final LastPriceIndex index = new LastPriceIndex(mock(ProductRepository.class));
+
+    @Test
+    void detect_shouldReportCreated_thenSuppressSamePrice() {
+        PriceChangeDetector detector = detector("0", "0");
+
+        Product product = product(10_000L);
+        assertThat(detector.detect(product)).isEqualTo(PriceChange.created());
+        detector.onSaved(product);
+
+        assertThat(detector.detect(product(10_000L)).isUnchanged()).isTrue();
+
+        PriceChange change = detector.detect(product(10_001L));
+        assertThat(change.type()).isEqualTo(ProductChangeType.PRICE_CHANGED);
+        assertThat(change.previousPriceMinor()).isEqualTo(10_000L);
+    }
+
+    @Test
+    void detect_shouldApplyAmountOrPercentThreshold() {
+        // 1.00 в валюте товара или 5%
+        PriceChangeDetector detector = detector("1.00", "5");
+        detector.onSaved(product(1_000L));
+
+        assertThat(detector.detect(product(1_040L)).isUnchanged()).isTrue();
+        assertThat(detector.detect(product(1_050L)).type()).isEqualTo(ProductChangeType.PRICE_CHANGED);
+
+        detector.onSaved(product(100_000L));
+        assertThat(detector.detect(product(100_099L)).isUnchanged()).isTrue();
+        assertThat(detector.detect(product(99_900L)).type()).isEqualTo(ProductChangeType.PRICE_CHANGED);
+    }
+
+    @Test
+    void detect_shouldReportCurrencyChangeEvenWithSameAmount() {
+        PriceChangeDetector detector = detector("1.00", "5");
+        Product inUsd = product(1_000L);
+        inUsd.setCurrency("USD");
+        detector.onSaved(inUsd);
+
+        Product sameInUsd = product(1_000L);
+        sameInUsd.setCurrency("USD");
+        assertThat(detector.detect(sameInUsd).isUnchanged()).isTrue();
+
+        Product inEur = product(1_000L);
+        inEur.setCurrency("EUR");
+        PriceChange change = detector.detect(inEur);
+        assertThat(change.type()).isEqualTo(ProductChangeType.PRICE_CHANGED);
+        assertThat(change.previousPriceMinor()).isEqualTo(1_000L);
+    }
+
+    @Test
+    void load_shouldKeepAnsweringFromPreviousIndexUntilReloadCompletes() {
+        ProductRepository repository = mock(ProductRepository.class);
+        LastPriceIndex reloaded = new LastPriceIndex(repository);
+        reloaded.record(URL, 10_000L, "RUB");
+        AtomicReference<LastPriceIndex.Lookup> duringLoad = new AtomicReference<>();
+        when(repository.findPricesBefore(anyLong(), any())).thenAnswer(invocation -> {
+            duringLoad.set(reloaded.lookup(URL));
+            return List.of();
+        });
+
+        reloaded.onMembershipChanged(null);
+
+        assertThat(duringLoad.get().known()).isTrue();
+        assertThat(duringLoad.get().priceMinor()).isEqualTo(10_000L);
+    }
+
+    @Test
+    void longLongMap_shouldMatchHashMap_acrossRehashes() {
+        LongLongMap map = new LongLongMap();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 50_000; i++) {
+            long key = random.nextInt(20_000) + 1L;
+            long value = random.nextLong();
+            map.put(key, value);
+            expected.put(key, value);
+        }
+
+        assertThat(map.size()).isEqualTo(expected.size());
+        expected.forEach((key, value) -> assertThat(map.get(key, 0)).isEqualTo(value));
+        assertThat(map.get(1_000_000L, -1)).isEqualTo(-1);
+    }
+
+    private PriceChangeDetector detector(String amount, String percent) {
+        return new PriceChangeDetector(index, new BigDecimal(amount), new BigDecimal(percent));
+    }
+
+    private static Product product(long priceMinor) {
+        Product product = new Product();
+        product.setSourceUrl(URL);
+        product.setPriceMinor(priceMinor);
+        return product;
+    }
+}
@@ -1,7 +1,11 @@
 package com.github.neshali.price_parser.service;
 
+import com.github.neshali.price_parser.domain.Price;
 import com.github.neshali.price_parser.domain.Product;
+import com.github.neshali.price_parser.extraction.ExtractedProduct;
+import com.github.neshali.price_parser.extraction.PriceExtractionEngine;
 import com.github.neshali.price_parser.integration.ExternalProductInfoClient;
+import com.github.neshali.price_parser.integration.PageFetcher;
 import com.github.neshali.price_parser.integration.dto.ExternalProductInfoResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,7 +17,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.math.BigDecimal;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.when;
 
 /**
@@ -25,6 +31,12 @@ class PriceParsingServiceTest {
     @Mock
     private ExternalProductInfoClient externalProductInfoClient;
 
+    @Mock
+    private PriceExtractionEngine priceExtractionEngine;
+
+    @Mock
+    private PageFetcher pageFetcher;
+
     @InjectMocks
     private PriceParsingService priceParsingService;
 
@@ -33,7 +45,7 @@ class PriceParsingServiceTest {
     @BeforeEach
     void setUp() {
         // По умолчанию внешний сервис ничего не возвращает
-        when(externalProductInfoClient.fetchAdditionalInfo(anyString()))
+        lenient().when(externalProductInfoClient.fetchAdditionalInfo(anyString()))
                 .thenReturn(null);
     }
 
@@ -46,9 +58,9 @@ class PriceParsingServiceTest {
         assertThat(product.getName()).isEqualTo("Super phone 3000");
         assertThat(product.getDescription()).contains("Demo product parsed from");
 
-        BigDecimal price = product.getPrice();
-        assertThat(price).isNotNull();
-        assertThat(price).isBetween(BigDecimal.TEN, new BigDecimal("100"));
+        Long priceMinor = product.getPriceMinor();
+        assertThat(priceMinor).isNotNull();
+        assertThat(Price.toDecimal(priceMinor)).isBetween(BigDecimal.TEN, new BigDecimal("100"));
     }
 
     @Test
@@ -67,5 +79,51 @@ class PriceParsingServiceTest {
                 .contains("external category=electronics")
                 .contains("rating=4.5")
                 .contains("currency=USD");
+        assertThat(product.getCurrency()).isEqualTo("USD");
+    }
+
+    @Test
+    void parseProduct_shouldBuildProductFromExtractedPage() {
+        String html = "<html>...</html>";
+
+        ExtractedProduct extracted = new ExtractedProduct();
+        extracted.setName("Super Phone");
+        extracted.setPriceMinor(129990L);
+        extracted.setCurrency("EUR");
+        extracted.setExtractor("json-ld");
+        when(priceExtractionEngine.extract(url, html)).thenReturn(extracted);
+
+        Product product = priceParsingService.parseProduct(url, html);
+
+        assertThat(product.getName()).isEqualTo("Super Phone");
+        assertThat(product.getPriceMinor()).isEqualTo(129990L);
+        assertThat(product.getCurrency()).isEqualTo("EUR");
+        assertThat(product.getSourceUrl()).isEqualTo(url);
+    }
+
+    @Test
+    void parseProduct_shouldFetchPage_whenFetchingEnabled() {
+        ExtractedProduct extracted = new ExtractedProduct();
+        extracted.setName("Fetched Phone");
+        extracted.setPriceMinor(4990L);
+        extracted.setCurrency("USD");
+        extracted.setExtractor("microdata");
+        when(pageFetcher.isEnabled()).thenReturn(true);
+        when(pageFetcher.fetchAndExtract(url)).thenReturn(extracted);
+
+        Product product = priceParsingService.parseProduct(url);
+
+        assertThat(product.getName()).isEqualTo("Fetched Phone");
+        assertThat(product.getPriceMinor()).isEqualTo(4990L);
+        assertThat(product.getDescription()).contains("by microdata");
+    }
+
+    @Test
+    void parseProduct_shouldFail_whenPriceNotFoundOnPage() {
+        when(priceExtractionEngine.extract(url, "<html/>")).thenReturn(null);
+
+        assertThatThrownBy(() -> priceParsingService.parseProduct(url, "<html/>"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Price not found");
     }
 }
@@ -0,0 +1,66 @@
+package com.github.neshali.price_parser.service;
+
+import com.github.neshali.price_parser.domain.ProductChange;
+import com.github.neshali.price_parser.outbox.ProductChangesPublishedEvent;
+import com.github.neshali.price_parser.web.dto.ProductResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Юнит-тесты кэша /products/filtered: сброс по изменениям всех узлов кластера.
+ */
+class ProductQueryCacheTest {
+
+    private static final List<ProductResponse> PAGE = List.of(new ProductResponse());
+
+    @Test
+    void onChangesPublished_shouldInvalidate_forChangesSavedByAnyNode() {
+        ProductQueryCache cache = new ProductQueryCache(true, 16, true, true, false);
+        ProductQueryCache.Key key = ProductQueryCache.keyOf(criteria());
+        cache.put(key, cache.currentVersion(), PAGE);
+        String etag = cache.etag(key);
+        assertThat(cache.get(key)).isEqualTo(PAGE);
+
+        // Пустая пачка ничего не меняет
+        cache.onChangesPublished(new ProductChangesPublishedEvent(List.of()));
+        assertThat(cache.get(key)).isEqualTo(PAGE);
+
+        // Товар, сохранённый другим узлом, приходит только через outbox
+        cache.onChangesPublished(new ProductChangesPublishedEvent(List.of(new ProductChange())));
+        assertThat(cache.get(key)).isNull();
+        assertThat(cache.etag(key)).isNotEqualTo(etag);
+    }
+
+    @Test
+    void cache_shouldBeDisabled_inClusterWithoutChangeEvents() {
+        ProductQueryCache cache = new ProductQueryCache(true, 16, true, false, false);
+        ProductQueryCache.Key key = ProductQueryCache.keyOf(criteria());
+
+        cache.put(key, cache.currentVersion(), PAGE);
+
+        assertThat(cache.get(key)).isNull();
+        assertThat(cache.etag(key)).isNull();
+    }
+
+    @Test
+    void cache_shouldBeDisabled_whenReadingFromReplica() {
+        ProductQueryCache cache = new ProductQueryCache(true, 16, false, true, true);
+        ProductQueryCache.Key key = ProductQueryCache.keyOf(criteria());
+
+        // Страница, прочитанная с отстающей реплики, не должна закрепиться под новой версией
+        cache.invalidate();
+        cache.put(key, cache.currentVersion(), PAGE);
+
+        assertThat(cache.get(key)).isNull();
+        assertThat(cache.etag(key)).isNull();
+    }
+
+    private static ProductFilterCriteria criteria() {
+        ProductFilterCriteria criteria = new ProductFilterCriteria();
+        criteria.setSize(20);
+        return criteria;
+    }
+}
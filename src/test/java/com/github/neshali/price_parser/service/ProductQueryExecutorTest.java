@@ -0,0 +1,91 @@
+package com.github.neshali.price_parser.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Юнит-тесты пула выборок: выбор последовательного режима и ограничение одновременных запросов.
+ */
+class ProductQueryExecutorTest {
+
+    private final ProductQueryExecutor executor = new ProductQueryExecutor(2, 1, 50, 100);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void execute_shouldRunSmallQueriesSequentiallyInCallerThread() {
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        int sum = executor.execute(range(10), stream -> stream
+                .peek(i -> threads.add(Thread.currentThread().getName()))
+                .mapToInt(Integer::intValue)
+                .sum());
+
+        assertThat(sum).isEqualTo(45);
+        assertThat(threads).containsExactly(Thread.currentThread().getName());
+    }
+
+    @Test
+    void execute_shouldRunLargeQueriesOnDedicatedPool() {
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        List<Integer> result = executor.execute(range(10_000), stream -> stream
+                .peek(i -> threads.add(Thread.currentThread().getName()))
+                .filter(i -> i % 1000 == 0)
+                .sorted()
+                .collect(Collectors.toList()));
+
+        assertThat(result).hasSize(10).startsWith(0, 1000);
+        assertThat(threads).allMatch(name -> name.startsWith("product-query-"));
+    }
+
+    @Test
+    void execute_shouldRejectHeavyQuery_whenNoSlotFreesInTime() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Long> first = CompletableFuture.supplyAsync(() -> executor.execute(range(1_000), stream -> {
+            running.countDown();
+            await(release);
+            return stream.count();
+        }));
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> executor.execute(range(1_000), Stream::count))
+                .isInstanceOf(QueryRejectedException.class);
+        // Маленькие запросы слот не занимают
+        long small = executor.execute(range(5), Stream::count);
+        assertThat(small).isEqualTo(5L);
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(1_000L);
+        assertThat(executor.getAvailableSlots()).isEqualTo(1);
+    }
+
+    private static List<Integer> range(int size) {
+        return IntStream.range(0, size).boxed().toList();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
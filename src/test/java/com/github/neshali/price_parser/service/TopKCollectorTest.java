@@ -0,0 +1,54 @@
+package com.github.neshali.price_parser.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Юнит-тесты для отбора top-K без полной сортировки.
+ */
+class TopKCollectorTest {
+
+    @Test
+    void collect_shouldMatchFullSortPrefix_forParallelStream() {
+        Random random = new Random(42);
+        List<Integer> values = IntStream.range(0, 10_000)
+                .map(i -> random.nextInt(1_000_000))
+                .boxed()
+                .collect(Collectors.toList());
+
+        Comparator<Integer> comparator = Comparator.<Integer>naturalOrder().reversed();
+
+        List<Integer> expected = values.stream()
+                .sorted(comparator)
+                .limit(25)
+                .toList();
+
+        List<Integer> actual = values.parallelStream()
+                .collect(TopKCollector.of(comparator, 25));
+
+        assertThat(actual).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void collect_shouldReturnAllElementsSorted_whenKExceedsSize() {
+        List<Integer> actual = List.of(5, 1, 4, 2, 3).stream()
+                .collect(TopKCollector.of(Comparator.naturalOrder(), 100));
+
+        assertThat(actual).containsExactly(1, 2, 3, 4, 5);
+    }
+
+    @Test
+    void collect_shouldReturnEmptyList_whenKIsZero() {
+        List<Integer> actual = List.of(1, 2, 3).stream()
+                .collect(TopKCollector.of(Comparator.naturalOrder(), 0));
+
+        assertThat(actual).isEmpty();
+    }
+}
@@ -3,23 +3,37 @@ package com.github.neshali.price_parser.web;
 import com.github.neshali.price_parser.domain.ParsingTask;
 import com.github.neshali.price_parser.domain.ParsingTaskStatus;
 import com.github.neshali.price_parser.repository.ParsingTaskRepository;
+import com.github.neshali.price_parser.repository.ProductField;
 import com.github.neshali.price_parser.repository.ProductRepository;
+import com.github.neshali.price_parser.repository.ProductRow;
+import com.github.neshali.price_parser.service.ParsingTaskStats;
 import com.github.neshali.price_parser.service.ProductQueryService;
 import com.github.neshali.price_parser.web.dto.ProductResponse;
+import com.github.neshali.price_parser.web.dto.TaskStatsResponse;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -40,6 +54,9 @@ class PriceParserControllerTest {
     @MockBean
     private ProductQueryService productQueryService;
 
+    @MockBean
+    private ParsingTaskStats parsingTaskStats;
+
     @Test
     void createParsingTask_shouldReturnCreatedTask() throws Exception {
         ParsingTask saved = new ParsingTask();
@@ -57,6 +74,8 @@ class PriceParserControllerTest {
                 .andExpect(jsonPath("$.id", is(1)))
                 .andExpect(jsonPath("$.url", is("https://example.com/product/1")))
                 .andExpect(jsonPath("$.status", is("NEW")));
+
+        verify(parsingTaskStats).onCreated(any());
     }
 
     @Test
@@ -97,4 +116,90 @@ class PriceParserControllerTest {
                 .andExpect(jsonPath("$[0].name", is("Product 1")))
                 .andExpect(jsonPath("$[1].name", is("Product 2")));
     }
+
+    @Test
+    void getProducts_shouldSelectOnlyRequestedFields() throws Exception {
+        ProductRow row = new ProductRow(1L, "Product 1", null, 1000L, null, null, null, null);
+        when(productRepository.findRows(eq(EnumSet.of(ProductField.ID, ProductField.NAME, ProductField.PRICE)),
+                any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(row)));
+
+        mockMvc.perform(get("/products")
+                        .param("fields", "name,price")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id", is(1)))
+                .andExpect(jsonPath("$.content[0].name", is("Product 1")))
+                .andExpect(jsonPath("$.content[0].price", is(10.0)))
+                .andExpect(jsonPath("$.content[0].description").doesNotExist());
+    }
+
+    @Test
+    void getProducts_shouldReturnBadRequestForUnknownField() throws Exception {
+        mockMvc.perform(get("/products").param("fields", "name,weight"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getProducts_shouldReturnBadRequestForUnsortableProperty() throws Exception {
+        mockMvc.perform(get("/products").param("sort", "description,asc"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/products").param("sort", "weight"))
+                .andExpect(status().isBadRequest());
+
+        verify(productRepository, never()).findRows(any(), any());
+    }
+
+    @Test
+    void getProducts_shouldSortByEntityAttribute() throws Exception {
+        when(productRepository.findRows(any(), any(Pageable.class))).thenReturn(new PageImpl<>(List.of()));
+
+        mockMvc.perform(get("/products").param("sort", "basePrice,asc"))
+                .andExpect(status().isOk());
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(productRepository).findRows(any(), pageable.capture());
+        assertThat(pageable.getValue().getSort().getOrderFor("basePriceMinor")).isNotNull();
+    }
+
+    @Test
+    void getFilteredProducts_shouldReturnBadRequestForPriceOutOfRange() throws Exception {
+        mockMvc.perform(get("/products/filtered").param("minPrice", "1e20"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/products/filtered").param("maxPrice", "-1e20"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(productQueryService);
+    }
+
+    @Test
+    void getFilteredProducts_shouldReturnNotModifiedWhenEtagMatches() throws Exception {
+        when(productQueryService.getFilteredProductsEtag(any())).thenReturn("\"v1\"");
+
+        mockMvc.perform(get("/products/filtered")
+                        .header("If-None-Match", "\"v1\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"v1\""));
+
+        verify(productQueryService, never()).getFilteredProducts(any());
+    }
+
+    @Test
+    void getTaskStats_shouldReturnCountersSnapshot() throws Exception {
+        TaskStatsResponse stats = new TaskStatsResponse();
+        stats.setCounts(Map.of(ParsingTaskStatus.NEW, 3L, ParsingTaskStatus.COMPLETED, 7L));
+        stats.setOldestNewAgeSeconds(42L);
+        stats.setFailureRate(0.25);
+        when(parsingTaskStats.snapshot()).thenReturn(stats);
+
+        mockMvc.perform(get("/tasks/stats").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.counts.NEW", is(3)))
+                .andExpect(jsonPath("$.counts.COMPLETED", is(7)))
+                .andExpect(jsonPath("$.oldestNewAgeSeconds", is(42)))
+                .andExpect(jsonPath("$.failureRate", is(0.25)));
+
+        verify(parsingTaskRepository, never()).findByStatus(any());
+    }
 }